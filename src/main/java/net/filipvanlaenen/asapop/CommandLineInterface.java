@@ -13,6 +13,8 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
@@ -20,6 +22,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 import net.filipvanlaenen.asapop.analysis.AnalysisEngine;
+import net.filipvanlaenen.asapop.analysis.CacheStatistics;
+import net.filipvanlaenen.asapop.analysis.PrecisionPolicy;
+import net.filipvanlaenen.asapop.analysis.SamplingStrategy;
 import net.filipvanlaenen.asapop.exporter.EopaodCsvExporter;
 import net.filipvanlaenen.asapop.exporter.RopfExporter;
 import net.filipvanlaenen.asapop.exporter.SaporDirectory;
@@ -67,6 +72,10 @@ public final class CommandLineInterface {
      * The integer number four.
      */
     private static final int FOUR = 4;
+    /**
+     * The number of bytes in a megabyte.
+     */
+    private static final long MEGABYTE = 1_048_576L;
 
     /**
      * The main entry point for the command line interface.
@@ -93,7 +102,8 @@ public final class CommandLineInterface {
      */
     private static void printUsage() {
         System.out.println("Usage:");
-        System.out.println("  analyze <ropf-file-name> <election-yaml-file-name> <analysis-result-yaml-file-name>");
+        System.out.println("  analyze <ropf-file-name> <election-yaml-file-name> <analysis-result-yaml-file-name>"
+                + " [-f] [-i] [-l] [-m=<cache-size-in-megabytes>] [-s=<seed>] [-t=<number-of-threads>]");
         System.out.println(
                 "  build <site-dir-name> <website-configuration-yaml-file-name> <custom-style-sheet-file-name>");
         System.out.println("  convert <ropf-file-name> <csv-file-name> <electoral-list-key>+ [-a=<area>]");
@@ -130,7 +140,39 @@ public final class CommandLineInterface {
                 ElectionData electionData = objectMapper.readValue(new File(electionDataFileName), ElectionData.class);
                 AnalysisEngine engine =
                         new AnalysisEngine(richOpinionPollsFile.getOpinionPollsDeprecated(), electionData);
-                engine.run();
+                Long seed = null;
+                ExecutorService executorService = null;
+                for (int i = FOUR; i < args.length; i++) {
+                    if (args[i].equals("-f")) {
+                        engine.setFullCoverage(true);
+                    } else if (args[i].equals("-i")) {
+                        engine.setSamplingStrategy(SamplingStrategy.IMPORTANCE);
+                    } else if (args[i].equals("-l")) {
+                        engine.setPrecisionPolicy(PrecisionPolicy.LOG_DOUBLE);
+                    } else if (args[i].startsWith("-m=")) {
+                        AnalysisEngine.setMaximalCacheWeight(Long.parseLong(args[i].substring(THREE)) * MEGABYTE);
+                    } else if (args[i].startsWith("-s=")) {
+                        seed = Long.parseLong(args[i].substring(THREE));
+                    } else if (args[i].startsWith("-t=")) {
+                        executorService = Executors.newFixedThreadPool(Integer.parseInt(args[i].substring(THREE)));
+                        engine.setExecutor(executorService);
+                    }
+                }
+                try {
+                    if (seed == null) {
+                        engine.run();
+                    } else {
+                        engine.run(AnalysisEngine.DEFAULT_NUMBER_OF_SAMPLES,
+                                AnalysisEngine.DEFAULT_NUMBER_OF_MULTIVARIATE_ITERATIONS, seed);
+                    }
+                } finally {
+                    if (executorService != null) {
+                        executorService.shutdown();
+                    }
+                }
+                CacheStatistics cacheStatistics = AnalysisEngine.getCacheStatistics();
+                Laconic.LOGGER.logMessage("Distribution caches: %d hits, %d misses, %d evictions.",
+                        cacheStatistics.hits(), cacheStatistics.misses(), cacheStatistics.evictions());
                 Analysis analysis = new AnalysisBuilder(engine).build();
                 objectMapper.writeValue(new File(outputFileName), analysis);
             }
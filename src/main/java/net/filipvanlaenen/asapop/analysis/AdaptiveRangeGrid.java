@@ -0,0 +1,152 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class calculating an adaptive range grid for a sampled hypergeometric distribution. Around the mode, where the
+ * confidence interval bounds are found, the ranges have the same length as in a uniform grid with the requested
+ * resolution. In the tails, where the probability mass is negligible, the ranges grow geometrically. The core of the
+ * grid is found using the closed-form approximation of the probability masses, which is unimodal and logarithmically
+ * concave.
+ */
+final class AdaptiveRangeGrid {
+    /**
+     * The decrease of the natural logarithm of the probability mass, relative to the mode, beyond which the tails are
+     * covered by coarse ranges. A decrease of 30 corresponds to a factor of about 10<sup>-13</sup>, far below the tail
+     * mass of the 99.9999% confidence interval.
+     */
+    static final double LOG_DROP = 30D;
+    /**
+     * The factor by which the lengths of the ranges in the tails grow.
+     */
+    private static final long GROWTH_FACTOR = 2L;
+
+    /**
+     * Private constructor so the utility class can't be instantiated.
+     */
+    private AdaptiveRangeGrid() {
+    }
+
+    /**
+     * Calculates an adaptive range grid for a given value measured in a sample size for a population size.
+     *
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param resolution     The number of samples of the uniform grid with the same precision around the mode.
+     * @param populationSize The population size.
+     * @return An array with the ranges, in sorted order.
+     */
+    static Range[] calculateRanges(final long value, final long sampleSize, final long resolution,
+            final long populationSize) {
+        long length = Math.max(1L, (populationSize + 1L) / resolution);
+        if (sampleSize == 0L) {
+            return SampledHypergeometricDistribution.calculateRanges(resolution, populationSize);
+        }
+        long mode = findMode(value, sampleSize, populationSize);
+        double threshold = SampledHypergeometricDistribution.calculateApproximatedLogarithm(mode, value, sampleSize,
+                populationSize) - LOG_DROP;
+        long lowerEdge = findLowerEdge(mode, threshold, value, sampleSize, populationSize);
+        long upperEdge = findUpperEdge(mode, threshold, value, sampleSize, populationSize);
+        long coreStart = lowerEdge - lowerEdge % length;
+        long numberOfCoreRanges = (upperEdge - coreStart + length) / length;
+        if (numberOfCoreRanges * length >= populationSize + 1L - length) {
+            return SampledHypergeometricDistribution.calculateRanges(resolution, populationSize);
+        }
+        long coreEnd = Math.min(populationSize, coreStart + numberOfCoreRanges * length - 1L);
+        List<Range> ranges = new ArrayList<Range>();
+        long tailLength = GROWTH_FACTOR * length;
+        long end = coreStart - 1L;
+        while (end >= 0L) {
+            long start = Math.max(0L, end - tailLength + 1L);
+            ranges.add(new Range(start, end));
+            end = start - 1L;
+            tailLength *= GROWTH_FACTOR;
+        }
+        Collections.reverse(ranges);
+        for (long start = coreStart; start <= coreEnd; start += length) {
+            ranges.add(new Range(start, Math.min(coreEnd, start + length - 1L)));
+        }
+        tailLength = GROWTH_FACTOR * length;
+        long start = coreEnd + 1L;
+        while (start <= populationSize) {
+            end = Math.min(populationSize, start + tailLength - 1L);
+            ranges.add(new Range(start, end));
+            start = end + 1L;
+            tailLength *= GROWTH_FACTOR;
+        }
+        return ranges.toArray(new Range[ranges.size()]);
+    }
+
+    /**
+     * Finds the smallest population count between zero and the mode for which the natural logarithm of the
+     * approximated probability mass is at least the threshold.
+     *
+     * @param mode           The mode.
+     * @param threshold      The threshold for the natural logarithm of the approximated probability mass.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return The lower edge of the core of the grid.
+     */
+    private static long findLowerEdge(final long mode, final double threshold, final long value,
+            final long sampleSize, final long populationSize) {
+        long low = 0L;
+        long high = mode;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (SampledHypergeometricDistribution.calculateApproximatedLogarithm(middle, value, sampleSize,
+                    populationSize) >= threshold) {
+                high = middle;
+            } else {
+                low = middle + 1L;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the mode of the closed-form approximation, where the derivative of the natural logarithm of the
+     * approximated probability mass is zero.
+     *
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return The mode of the closed-form approximation.
+     */
+    private static long findMode(final long value, final long sampleSize, final long populationSize) {
+        long k = sampleSize - value;
+        double valueShift = (value - 1D) / 2D;
+        double complementShift = (k - 1D) / 2D;
+        long mode = Math.round((value * (populationSize - complementShift) + k * valueShift) / sampleSize);
+        return Math.max(value, Math.min(mode, populationSize - k));
+    }
+
+    /**
+     * Finds the largest population count between the mode and the population size for which the natural logarithm of
+     * the approximated probability mass is at least the threshold.
+     *
+     * @param mode           The mode.
+     * @param threshold      The threshold for the natural logarithm of the approximated probability mass.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return The upper edge of the core of the grid.
+     */
+    private static long findUpperEdge(final long mode, final double threshold, final long value,
+            final long sampleSize, final long populationSize) {
+        long low = mode;
+        long high = populationSize;
+        while (low < high) {
+            long middle = (low + high + 1L) >>> 1;
+            if (SampledHypergeometricDistribution.calculateApproximatedLogarithm(middle, value, sampleSize,
+                    populationSize) >= threshold) {
+                low = middle;
+            } else {
+                high = middle - 1L;
+            }
+        }
+        return low;
+    }
+}
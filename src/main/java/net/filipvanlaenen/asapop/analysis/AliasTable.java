@@ -0,0 +1,90 @@
+package net.filipvanlaenen.asapop.analysis;
+
+/**
+ * Class implementing Walker's alias method, using Vose's construction, to draw indices in proportion to a set of
+ * non-negative weights in constant time. Each draw uses a single random double.
+ */
+final class AliasTable {
+    /**
+     * The probabilities to keep the drawn column instead of taking its alias.
+     */
+    private final double[] probabilities;
+    /**
+     * The aliases of the columns.
+     */
+    private final int[] aliases;
+
+    /**
+     * Constructor taking the weights as its parameter. At least one weight must be positive.
+     *
+     * @param weights The non-negative weights.
+     */
+    AliasTable(final double[] weights) {
+        int n = weights.length;
+        probabilities = new double[n];
+        aliases = new int[n];
+        double sum = 0D;
+        for (double weight : weights) {
+            sum += weight;
+        }
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numberOfSmall = 0;
+        int numberOfLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1D) {
+                small[numberOfSmall++] = i;
+            } else {
+                large[numberOfLarge++] = i;
+            }
+        }
+        while (numberOfSmall > 0 && numberOfLarge > 0) {
+            int s = small[--numberOfSmall];
+            int l = large[--numberOfLarge];
+            probabilities[s] = scaled[s];
+            aliases[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1D;
+            if (scaled[l] < 1D) {
+                small[numberOfSmall++] = l;
+            } else {
+                large[numberOfLarge++] = l;
+            }
+        }
+        // Columns left over because of rounding errors are kept with certainty.
+        while (numberOfLarge > 0) {
+            int l = large[--numberOfLarge];
+            probabilities[l] = 1D;
+            aliases[l] = l;
+        }
+        while (numberOfSmall > 0) {
+            int s = small[--numberOfSmall];
+            probabilities[s] = 1D;
+            aliases[s] = s;
+        }
+    }
+
+    /**
+     * Draws an index in proportion to the weights, using a single uniformly distributed number. The integer part of the
+     * number scaled to the size of the table selects the column, and the fractional part decides between the column
+     * and its alias.
+     *
+     * @param u A number in the interval [0, 1).
+     * @return An index drawn in proportion to the weights.
+     */
+    int sample(final double u) {
+        double scaled = u * probabilities.length;
+        int column = Math.min((int) scaled, probabilities.length - 1);
+        return scaled - column < probabilities[column] ? column : aliases[column];
+    }
+
+    /**
+     * Returns the number of indices in the table.
+     *
+     * @return The number of indices in the table.
+     */
+    int size() {
+        return probabilities.length;
+    }
+}
@@ -3,10 +3,17 @@ package net.filipvanlaenen.asapop.analysis;
 import static net.filipvanlaenen.kolektoj.Map.KeyAndValueCardinality.DUPLICATE_KEYS_WITH_DISTINCT_VALUES;
 
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 import net.filipvanlaenen.asapop.model.ElectoralList;
 import net.filipvanlaenen.asapop.model.OpinionPoll;
@@ -22,18 +29,41 @@ import net.filipvanlaenen.kolektoj.hash.ModifiableHashMap;
  * Class implementing the engine running the statistical analyses.
  */
 public class AnalysisEngine {
+    /**
+     * Record holding the parameters defining a sampled hypergeometric distribution needed for a vote shares analysis.
+     *
+     * @param sampled        The measured value.
+     * @param sampleSize     The effective sample size.
+     * @param populationSize The population size.
+     */
+    record DistributionKey(long sampled, long sampleSize, long populationSize) {
+    }
+
+    /**
+     * Comparator sorting distribution keys with the largest, i.e. most expensive, distributions first. The sample size
+     * comes first, because the cost of a distribution grows with it, and the measured value breaks the ties such that
+     * the order is deterministic.
+     */
+    static final Comparator<DistributionKey> LARGEST_FIRST = Comparator.comparingLong(DistributionKey::sampleSize)
+            .thenComparingLong(DistributionKey::sampled).thenComparingLong(DistributionKey::populationSize).reversed();
     /**
      * The magic number hundred.
      */
     private static final double HUNDRED = 100D;
     /**
-     * The magic number ten thousand, the default number of samples.
+     * The number of in-memory caches sharing the maximal cache weight: three for sampled hypergeometric distributions,
+     * two for range grids, and one each for sampled multivariate hypergeometric distributions and hypergeometric
+     * distributions.
+     */
+    static final int NUMBER_OF_CACHES = 7;
+    /**
+     * The default number of samples.
      */
-    private static final long TEN_THOUSAND = 10_000L;
+    public static final long DEFAULT_NUMBER_OF_SAMPLES = 10_000L;
     /**
-     * The magic number two million, the default number of simulations.
+     * The default number of iterations for the multivariate analysis.
      */
-    private static final long TWO_MILLION = 2_000_000L;
+    public static final long DEFAULT_NUMBER_OF_MULTIVARIATE_ITERATIONS = 2_000_000L;
     /**
      * The opinion polls to run the statistical analyses on.
      */
@@ -50,6 +80,33 @@ public class AnalysisEngine {
      * A map containing the first round winners analysis per response scenario.
      */
     private final Map<ResponseScenario, FirstRoundWinnersAnalysis> firstRoundWinnersAnalyses;
+    /**
+     * The numeric precision policy for the simulations of the multivariate analyses.
+     */
+    private PrecisionPolicy precisionPolicy = PrecisionPolicy.DECIMAL128;
+    /**
+     * The strategy to draw the ranges in the simulations of the multivariate analyses.
+     */
+    private SamplingStrategy samplingStrategy = SamplingStrategy.UNIFORM;
+    /**
+     * The type of sampler producing the points from which the ranges are drawn in the simulations of the multivariate
+     * analyses.
+     */
+    private SamplerType samplerType = SamplerType.PSEUDO_RANDOM;
+    /**
+     * The seed for the simulations of the multivariate analyses in the last run.
+     */
+    private long seed;
+    /**
+     * The executor on which the opinion polls are analyzed concurrently, or null if they should be analyzed one after
+     * the other on the calling thread.
+     */
+    private Executor executor;
+    /**
+     * Whether all response scenarios of all opinion polls should be analyzed, instead of only the main response
+     * scenarios of the most recent opinion polls.
+     */
+    private boolean fullCoverage;
 
     /**
      * Constructor taking the opinion polls and election data as its parameters.
@@ -60,8 +117,32 @@ public class AnalysisEngine {
     public AnalysisEngine(final OpinionPolls opinionPolls, final ElectionData electionData) {
         this.opinionPolls = opinionPolls;
         this.electionData = electionData;
-        voteSharesAnalyses = new HashMap<ResponseScenario, VoteSharesAnalysis>();
-        firstRoundWinnersAnalyses = new HashMap<ResponseScenario, FirstRoundWinnersAnalysis>();
+        voteSharesAnalyses = new ConcurrentHashMap<ResponseScenario, VoteSharesAnalysis>();
+        firstRoundWinnersAnalyses = new ConcurrentHashMap<ResponseScenario, FirstRoundWinnersAnalysis>();
+    }
+
+    /**
+     * Analyzes a response scenario of an opinion poll, i.e. calculates its vote shares analysis, and the first round
+     * winners analysis if it's scoped for the first round of a presidential election. Response scenarios without an
+     * effective sample size are skipped.
+     *
+     * @param opinionPoll                    The opinion poll.
+     * @param responseScenario               The response scenario.
+     * @param numberOfSamples                Number of samples for the analysis.
+     * @param numberOfMultivariateIterations Number of iterations for the multivariate analysis.
+     */
+    private void analyzeResponseScenario(final OpinionPoll opinionPoll, final ResponseScenario responseScenario,
+            final long numberOfSamples, final long numberOfMultivariateIterations) {
+        Integer effectiveSampleSize = getEffectiveSampleSize(opinionPoll, responseScenario);
+        if (effectiveSampleSize != null) {
+            VoteSharesAnalysis voteShareAnalysis =
+                    calculateVoteSharesAnalysis(responseScenario, effectiveSampleSize, numberOfSamples);
+            voteSharesAnalyses.put(responseScenario, voteShareAnalysis);
+            if (getScope(opinionPoll, responseScenario) == Scope.PRESIDENTIAL_FIRST_ROUND) {
+                firstRoundWinnersAnalyses.put(responseScenario, calculateFirstRoundWinnersAnalysis(voteShareAnalysis,
+                        effectiveSampleSize, numberOfMultivariateIterations));
+            }
+        }
     }
 
     /**
@@ -78,7 +159,9 @@ public class AnalysisEngine {
                 voteSharesAnalysis.getProbabilityMassFunctions();
         return new FirstRoundWinnersAnalysis(voteSharesAnalysis,
                 SampledMultivariateHypergeometricDistributions.get(probabilityMassFunctions,
-                        electionData.getPopulationSize(), effectiveSampleSize, numberOfMultivariateIterations));
+                        electionData.getPopulationSize(), effectiveSampleSize, numberOfMultivariateIterations,
+                        new SimulationSettings(precisionPolicy, samplingStrategy,
+                                electionData.getConvergenceTolerance(), seed, samplerType)));
     }
 
     /**
@@ -108,25 +191,157 @@ public class AnalysisEngine {
     }
 
     /**
-     * Calculates the vote shares analysis for an opinion poll.
+     * Creates a report comparing the accuracy and the throughput of the numeric precision policies on the simulations
+     * of the multivariate analyses for the most recent polls. The statistical analyses should have been run first.
      *
-     * @param opinionPoll     The opinion poll.
-     * @param numberOfSamples The number of samples.
+     * @param numberOfMultivariateIterations Number of iterations for the multivariate analysis.
+     * @param seed                           The seed for the random number generators.
+     * @return A report comparing the numeric precision policies.
+     */
+    public PrecisionPolicyReport createPrecisionPolicyReport(final long numberOfMultivariateIterations,
+            final long seed) {
+        PrecisionPolicyReport report = new PrecisionPolicyReport(numberOfMultivariateIterations, seed);
+        forEachMostRecentFirstRoundPoll((probabilityMassFunctions, effectiveSampleSize) -> report
+                .add(probabilityMassFunctions, electionData.getPopulationSize(), effectiveSampleSize));
+        return report;
+    }
+
+    /**
+     * Creates a report comparing the number of iterations the samplers need to reach a tolerance on the simulations of
+     * the multivariate analyses for the most recent polls. The statistical analyses should have been run first.
+     *
+     * @param maximalNumberOfIterations The maximal number of iterations per simulation.
+     * @param tolerance                 The tolerance on the standard deviations of the probabilities.
+     * @param seed                      The seed for the random number generators.
+     * @return A report comparing the samplers.
+     */
+    public SamplerReport createSamplerReport(final long maximalNumberOfIterations, final double tolerance,
+            final long seed) {
+        SamplerReport report = new SamplerReport(maximalNumberOfIterations, tolerance, seed);
+        forEachMostRecentFirstRoundPoll((probabilityMassFunctions, effectiveSampleSize) -> report
+                .add(probabilityMassFunctions, electionData.getPopulationSize(), effectiveSampleSize));
+        return report;
+    }
+
+    /**
+     * Calculates the sampled hypergeometric distributions in a list of distribution keys, one after the other if no
+     * executor has been set, or concurrently on the executor otherwise. Distributions that are already in the caches
+     * aren't calculated again.
+     *
+     * @param distributionKeys The distribution keys.
+     * @param numberOfSamples  The number of samples.
+     */
+    private void calculateDistributions(final List<DistributionKey> distributionKeys, final long numberOfSamples) {
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        for (DistributionKey distributionKey : distributionKeys) {
+            tasks.add(() -> getDistribution(distributionKey, numberOfSamples));
+        }
+        execute(tasks);
+    }
+
+    /**
+     * Calculates the vote shares analysis for a response scenario.
+     *
+     * @param responseScenario    The response scenario.
+     * @param effectiveSampleSize The effective sample size of the response scenario.
+     * @param numberOfSamples     The number of samples.
      * @return The vote shares analysis.
      */
-    private VoteSharesAnalysis calculateVoteSharesAnalysis(final OpinionPoll opinionPoll, final long numberOfSamples) {
-        Integer effectiveSampleSize = opinionPoll.getEffectiveSampleSize();
+    private VoteSharesAnalysis calculateVoteSharesAnalysis(final ResponseScenario responseScenario,
+            final int effectiveSampleSize, final long numberOfSamples) {
         VoteSharesAnalysis voteShareAnalysis = new VoteSharesAnalysis();
-        for (Set<ElectoralList> electoralListSet : opinionPoll.getElectoralListSets()) {
-            double result = Double
-                    .parseDouble(opinionPoll.getResult(ElectoralList.getIds(electoralListSet)).getPrimitiveText());
-            Long sampled = Math.round(result * effectiveSampleSize / HUNDRED);
-            voteShareAnalysis.add(electoralListSet, SampledHypergeometricDistributions.get(sampled,
-                    (long) effectiveSampleSize, numberOfSamples, electionData.getPopulationSize()));
+        for (Set<ElectoralList> electoralListSet : responseScenario.getElectoralListSets()) {
+            voteShareAnalysis.add(electoralListSet, getDistribution(
+                    createDistributionKey(responseScenario, effectiveSampleSize, electoralListSet), numberOfSamples));
         }
         return voteShareAnalysis;
     }
 
+    /**
+     * Creates the key for the sampled hypergeometric distribution of a set of electoral lists in a response scenario.
+     *
+     * @param responseScenario    The response scenario.
+     * @param effectiveSampleSize The effective sample size of the response scenario.
+     * @param electoralListSet    The set of electoral lists.
+     * @return The key for the sampled hypergeometric distribution.
+     */
+    private DistributionKey createDistributionKey(final ResponseScenario responseScenario,
+            final int effectiveSampleSize, final Set<ElectoralList> electoralListSet) {
+        double result = Double
+                .parseDouble(responseScenario.getResult(ElectoralList.getIds(electoralListSet)).getPrimitiveText());
+        return new DistributionKey(Math.round(result * effectiveSampleSize / HUNDRED), effectiveSampleSize,
+                electionData.getPopulationSize());
+    }
+
+    /**
+     * Runs a list of tasks, one after the other on the calling thread if no executor has been set, or concurrently on
+     * the executor otherwise, in which case the method returns when all of them have been completed.
+     *
+     * @param tasks The tasks.
+     */
+    private void execute(final List<Runnable> tasks) {
+        if (executor == null) {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+            for (Runnable task : tasks) {
+                futures.add(CompletableFuture.runAsync(task, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        }
+    }
+
+    /**
+     * Passes the probability mass functions and the effective sample size of the main response scenario of each of the
+     * most recent presidential first round polls to an action. Polls without an effective sample size or a vote shares
+     * analysis are skipped.
+     *
+     * @param action The action taking the probability mass functions and the effective sample size.
+     */
+    private void forEachMostRecentFirstRoundPoll(
+            final BiConsumer<List<SampledHypergeometricDistribution>, Integer> action) {
+        for (OpinionPoll opinionPoll : calculateMostRecentPolls()) {
+            Integer effectiveSampleSize = opinionPoll.getEffectiveSampleSize();
+            VoteSharesAnalysis voteSharesAnalysis = voteSharesAnalyses.get(opinionPoll.getMainResponseScenario());
+            if (effectiveSampleSize != null && voteSharesAnalysis != null
+                    && opinionPoll.getScope() == Scope.PRESIDENTIAL_FIRST_ROUND) {
+                action.accept(voteSharesAnalysis.getProbabilityMassFunctions(), effectiveSampleSize);
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of the distribution and range grid caches, added up over all the caches.
+     *
+     * @return The statistics of the distribution and range grid caches.
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return SampledHypergeometricDistributions.getCacheStatistics()
+                .add(SampledMultivariateHypergeometricDistributions.getCacheStatistics())
+                .add(HypergeometricDistributions.getCacheStatistics()).add(RangeGrids.getCacheStatistics());
+    }
+
+    /**
+     * Returns the sampled hypergeometric distribution for a distribution key, from the caches if it has been
+     * calculated before, on an adaptive range grid if the election data requires so.
+     *
+     * @param distributionKey The distribution key.
+     * @param numberOfSamples The number of samples.
+     * @return The sampled hypergeometric distribution.
+     */
+    private SampledHypergeometricDistribution getDistribution(final DistributionKey distributionKey,
+            final long numberOfSamples) {
+        if (electionData.getAdaptiveRangeGrid()) {
+            return SampledHypergeometricDistributions.getAdaptive(distributionKey.sampled(),
+                    distributionKey.sampleSize(), numberOfSamples, distributionKey.populationSize());
+        } else {
+            return SampledHypergeometricDistributions.get(distributionKey.sampled(), distributionKey.sampleSize(),
+                    numberOfSamples, distributionKey.populationSize(), electionData.getMaximalApproximationError());
+        }
+    }
+
     /**
      * Returns the election data used for the statistical analyses.
      *
@@ -136,6 +351,30 @@ public class AnalysisEngine {
         return electionData;
     }
 
+    /**
+     * Returns the effective sample size of a response scenario of an opinion poll. An alternative response scenario
+     * without a sample size of its own takes the effective sample size of the opinion poll.
+     *
+     * @param opinionPoll      The opinion poll.
+     * @param responseScenario The response scenario.
+     * @return The effective sample size of the response scenario, or null if neither has one.
+     */
+    private static Integer getEffectiveSampleSize(final OpinionPoll opinionPoll,
+            final ResponseScenario responseScenario) {
+        Integer effectiveSampleSize = responseScenario.getEffectiveSampleSize();
+        return effectiveSampleSize == null ? opinionPoll.getEffectiveSampleSize() : effectiveSampleSize;
+    }
+
+    /**
+     * Returns the executor on which the opinion polls are analyzed concurrently.
+     *
+     * @return The executor on which the opinion polls are analyzed concurrently, or null if they're analyzed one after
+     *         the other.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
     /**
      * Returns the first round winners analysis for a response scenario.
      *
@@ -155,6 +394,56 @@ public class AnalysisEngine {
         return opinionPolls;
     }
 
+    /**
+     * Returns the numeric precision policy for the simulations of the multivariate analyses.
+     *
+     * @return The numeric precision policy for the simulations of the multivariate analyses.
+     */
+    public PrecisionPolicy getPrecisionPolicy() {
+        return precisionPolicy;
+    }
+
+    /**
+     * Returns the type of sampler producing the points from which the ranges are drawn in the simulations of the
+     * multivariate analyses.
+     *
+     * @return The type of sampler for the simulations of the multivariate analyses.
+     */
+    public SamplerType getSamplerType() {
+        return samplerType;
+    }
+
+    /**
+     * Returns the strategy to draw the ranges in the simulations of the multivariate analyses.
+     *
+     * @return The strategy to draw the ranges in the simulations of the multivariate analyses.
+     */
+    public SamplingStrategy getSamplingStrategy() {
+        return samplingStrategy;
+    }
+
+    /**
+     * Returns the seed for the simulations of the multivariate analyses in the last run.
+     *
+     * @return The seed for the simulations of the multivariate analyses in the last run.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the scope of a response scenario of an opinion poll. An alternative response scenario without a scope of
+     * its own takes the scope of the opinion poll.
+     *
+     * @param opinionPoll      The opinion poll.
+     * @param responseScenario The response scenario.
+     * @return The scope of the response scenario, or null if neither has one.
+     */
+    private static Scope getScope(final OpinionPoll opinionPoll, final ResponseScenario responseScenario) {
+        Scope scope = responseScenario.getScope();
+        return scope == null ? opinionPoll.getScope() : scope;
+    }
+
     /**
      * Returns the vote shares analysis for a response scenario.
      *
@@ -165,40 +454,185 @@ public class AnalysisEngine {
         return voteSharesAnalyses.get(responseScenario);
     }
 
+    /**
+     * Returns whether all response scenarios of all opinion polls are analyzed, instead of only the main response
+     * scenarios of the most recent opinion polls.
+     *
+     * @return True if all response scenarios of all opinion polls are analyzed.
+     */
+    public boolean isFullCoverage() {
+        return fullCoverage;
+    }
+
+    /**
+     * Plans the sampled hypergeometric distributions needed for the vote shares analyses of a collection of opinion
+     * polls, i.e. of their main response scenarios, or of all their response scenarios in full coverage mode. Response
+     * scenarios without an effective sample size are skipped. Many opinion polls share distributions, e.g.
+     * when several electoral lists poll the same result in the same sample size, so each distribution is planned only
+     * once. The distributions are sorted with the largest ones first, such that on an executor, the most expensive
+     * distributions don't end up at the tail of the batch.
+     *
+     * @param opinionPollsToPlan The opinion polls.
+     * @return A list with the distinct distribution keys, sorted with the largest distributions first.
+     */
+    List<DistributionKey> planDistributions(final Iterable<OpinionPoll> opinionPollsToPlan) {
+        Set<DistributionKey> distributionKeys = new HashSet<DistributionKey>();
+        for (OpinionPoll opinionPoll : opinionPollsToPlan) {
+            for (ResponseScenario responseScenario : selectResponseScenarios(opinionPoll)) {
+                Integer effectiveSampleSize = getEffectiveSampleSize(opinionPoll, responseScenario);
+                if (effectiveSampleSize != null) {
+                    for (Set<ElectoralList> electoralListSet : responseScenario.getElectoralListSets()) {
+                        distributionKeys
+                                .add(createDistributionKey(responseScenario, effectiveSampleSize, electoralListSet));
+                    }
+                }
+            }
+        }
+        List<DistributionKey> plan = new ArrayList<DistributionKey>(distributionKeys);
+        plan.sort(LARGEST_FIRST);
+        return plan;
+    }
+
     /**
      * Runs the statistical analyses.
      */
     public void run() {
-        run(TWO_MILLION);
+        run(DEFAULT_NUMBER_OF_MULTIVARIATE_ITERATIONS);
     }
 
     /**
-     * Runs the statistical analyses with a specified number of iterations for the multivariate analysis.
+     * Runs the statistical analyses with a specified number of iterations for the multivariate analysis. If the
+     * election data has a convergence tolerance, the number of iterations is an upper limit.
      *
      * @param numberOfMultivariateIterations Number of iterations for the multivariate analysis.
      */
     public void run(final long numberOfMultivariateIterations) {
-        run(TEN_THOUSAND, numberOfMultivariateIterations);
+        run(DEFAULT_NUMBER_OF_SAMPLES, numberOfMultivariateIterations);
     }
 
     /**
-     * Runs the statistical analyses with a specified number of iterations for the multivariate analysis.
+     * Runs the statistical analyses with a specified number of iterations for the multivariate analysis, using a
+     * randomly chosen seed for the simulations. The seed is recorded, such that the run can be reproduced on any
+     * machine by running it again with the same seed.
      *
      * @param numberOfSamples                Number of samples for the analysis.
      * @param numberOfMultivariateIterations Number of iterations for the multivariate analysis.
      */
     public void run(final long numberOfSamples, final long numberOfMultivariateIterations) {
-        for (OpinionPoll opinionPoll : calculateMostRecentPolls()) {
-            Integer effectiveSampleSize = opinionPoll.getEffectiveSampleSize();
-            if (effectiveSampleSize != null) {
-                VoteSharesAnalysis voteShareAnalysis = calculateVoteSharesAnalysis(opinionPoll, numberOfSamples);
-                voteSharesAnalyses.put(opinionPoll.getMainResponseScenario(), voteShareAnalysis);
-                if (opinionPoll.getScope() == Scope.PRESIDENTIAL_FIRST_ROUND) {
-                    firstRoundWinnersAnalyses.put(opinionPoll.getMainResponseScenario(),
-                            calculateFirstRoundWinnersAnalysis(voteShareAnalysis, effectiveSampleSize,
-                                    numberOfMultivariateIterations));
-                }
+        run(numberOfSamples, numberOfMultivariateIterations, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Runs the statistical analyses with a specified number of iterations for the multivariate analysis, using a seed
+     * for the simulations. Each multivariate analysis starts from a random number generator seeded with the seed, and
+     * splits it into a number of streams that doesn't depend on the number of available processors, such that the
+     * results are the same for every run with the same seed. By default, only the main response scenarios of the most
+     * recent opinion polls per polling firm are analyzed, but in full coverage mode, all response scenarios of all
+     * opinion polls are analyzed. Before the opinion polls are analyzed, the distinct
+     * sampled hypergeometric distributions they need are planned and calculated in one batch. If an executor has been
+     * set, the distributions are calculated and the opinion polls are analyzed concurrently on the executor, and the
+     * method returns when all of them have been analyzed.
+     *
+     * @param numberOfSamples                Number of samples for the analysis.
+     * @param numberOfMultivariateIterations Number of iterations for the multivariate analysis.
+     * @param seed                           The seed for the simulations of the multivariate analyses.
+     */
+    public void run(final long numberOfSamples, final long numberOfMultivariateIterations, final long seed) {
+        this.seed = seed;
+        Iterable<OpinionPoll> selectedPolls =
+                fullCoverage ? opinionPolls.getOpinionPolls() : calculateMostRecentPolls();
+        calculateDistributions(planDistributions(selectedPolls), numberOfSamples);
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        for (OpinionPoll opinionPoll : selectedPolls) {
+            for (ResponseScenario responseScenario : selectResponseScenarios(opinionPoll)) {
+                tasks.add(() -> analyzeResponseScenario(opinionPoll, responseScenario, numberOfSamples,
+                        numberOfMultivariateIterations));
             }
         }
+        execute(tasks);
+    }
+
+    /**
+     * Returns the response scenarios of an opinion poll that should be analyzed, i.e. the main response scenario, and
+     * in full coverage mode, the alternative response scenarios too.
+     *
+     * @param opinionPoll The opinion poll.
+     * @return A list with the response scenarios of the opinion poll that should be analyzed.
+     */
+    private List<ResponseScenario> selectResponseScenarios(final OpinionPoll opinionPoll) {
+        List<ResponseScenario> responseScenarios = new ArrayList<ResponseScenario>();
+        responseScenarios.add(opinionPoll.getMainResponseScenario());
+        if (fullCoverage) {
+            responseScenarios.addAll(opinionPoll.getAlternativeResponseScenarios());
+        }
+        return responseScenarios;
+    }
+
+    /**
+     * Sets the maximal total weight in bytes of the distribution and range grid caches. The total is split evenly
+     * over the caches, such that together they never get heavier than the total. When a cache gets heavier than its
+     * share, the least recently used distributions or range grids are evicted from it. Evicted sampled hypergeometric
+     * distributions are read from the file cache again when they're needed.
+     *
+     * @param maximalWeight The maximal total weight in bytes of the distribution and range grid caches.
+     */
+    public static void setMaximalCacheWeight(final long maximalWeight) {
+        long maximalWeightPerCache = maximalWeight / NUMBER_OF_CACHES;
+        SampledHypergeometricDistributions.setMaximalCacheWeight(maximalWeightPerCache);
+        SampledMultivariateHypergeometricDistributions.setMaximalCacheWeight(maximalWeightPerCache);
+        HypergeometricDistributions.setMaximalCacheWeight(maximalWeightPerCache);
+        RangeGrids.setMaximalCacheWeight(maximalWeightPerCache);
+    }
+
+    /**
+     * Sets the executor on which the opinion polls are analyzed concurrently in the next runs. The analyses of the
+     * opinion polls are independent of each other, and a seeded run produces the same results on an executor as on
+     * the calling thread.
+     *
+     * @param executor The executor on which the opinion polls are analyzed concurrently, or null to analyze them one
+     *                 after the other on the calling thread.
+     */
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets whether all response scenarios of all opinion polls should be analyzed in the next runs, instead of only the
+     * main response scenarios of the most recent opinion polls. The distributions are shared between the response
+     * scenarios through the caches, so the extra cost grows with the number of distinct results rather than with the
+     * number of response scenarios.
+     *
+     * @param fullCoverage True if all response scenarios of all opinion polls should be analyzed.
+     */
+    public void setFullCoverage(final boolean fullCoverage) {
+        this.fullCoverage = fullCoverage;
+    }
+
+    /**
+     * Sets the numeric precision policy for the simulations of the multivariate analyses in the next runs.
+     *
+     * @param precisionPolicy The numeric precision policy for the simulations of the multivariate analyses.
+     */
+    public void setPrecisionPolicy(final PrecisionPolicy precisionPolicy) {
+        this.precisionPolicy = precisionPolicy;
+    }
+
+    /**
+     * Sets the type of sampler producing the points from which the ranges are drawn in the simulations of the
+     * multivariate analyses in the next runs.
+     *
+     * @param samplerType The type of sampler for the simulations of the multivariate analyses.
+     */
+    public void setSamplerType(final SamplerType samplerType) {
+        this.samplerType = samplerType;
+    }
+
+    /**
+     * Sets the strategy to draw the ranges in the simulations of the multivariate analyses in the next runs.
+     *
+     * @param samplingStrategy The strategy to draw the ranges in the simulations of the multivariate analyses.
+     */
+    public void setSamplingStrategy(final SamplingStrategy samplingStrategy) {
+        this.samplingStrategy = samplingStrategy;
     }
 }
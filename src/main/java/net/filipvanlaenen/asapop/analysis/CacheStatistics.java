@@ -0,0 +1,23 @@
+package net.filipvanlaenen.asapop.analysis;
+
+/**
+ * Record holding the statistics of a cache.
+ *
+ * @param hits            The number of requests that were answered with a cached value.
+ * @param misses          The number of requests for which a value had to be computed.
+ * @param evictions       The number of values that were evicted to keep the cache within its maximal weight.
+ * @param numberOfEntries The number of values currently in the cache.
+ * @param weight          The estimated weight of the values currently in the cache, in bytes.
+ */
+public record CacheStatistics(long hits, long misses, long evictions, long numberOfEntries, long weight) {
+    /**
+     * Adds the statistics of another cache to these statistics.
+     *
+     * @param other The statistics of the other cache.
+     * @return The sum of both statistics.
+     */
+    public CacheStatistics add(final CacheStatistics other) {
+        return new CacheStatistics(hits + other.hits, misses + other.misses, evictions + other.evictions,
+                numberOfEntries + other.numberOfEntries, weight + other.weight);
+    }
+}
@@ -0,0 +1,71 @@
+package net.filipvanlaenen.asapop.analysis;
+
+/**
+ * Class accumulating doubles into an array of sums using compensated (Kahan) summation, such that the rounding errors
+ * don't accumulate when many small terms are added to a large sum. The sums are stored in primitive arrays, such that
+ * adding a term doesn't allocate any objects.
+ */
+final class CompensatedSums {
+    /**
+     * The sums.
+     */
+    private final double[] sums;
+    /**
+     * The compensations for the lost low-order bits.
+     */
+    private final double[] compensations;
+
+    /**
+     * Constructor taking the number of sums as its parameter.
+     *
+     * @param size The number of sums.
+     */
+    CompensatedSums(final int size) {
+        sums = new double[size];
+        compensations = new double[size];
+    }
+
+    /**
+     * Adds a term to a sum.
+     *
+     * @param index The index of the sum.
+     * @param term  The term to add.
+     */
+    void add(final int index, final double term) {
+        double y = term - compensations[index];
+        double t = sums[index] + y;
+        compensations[index] = (t - sums[index]) - y;
+        sums[index] = t;
+    }
+
+    /**
+     * Returns a sum.
+     *
+     * @param index The index of the sum.
+     * @return The sum.
+     */
+    double getSum(final int index) {
+        return sums[index];
+    }
+
+    /**
+     * Multiplies all the sums with a factor, e.g. when the reference of the accumulated terms changes.
+     *
+     * @param factor The factor to multiply the sums with.
+     */
+    void multiply(final double factor) {
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] *= factor;
+            compensations[i] *= factor;
+        }
+    }
+
+    /**
+     * Returns the number of sums.
+     *
+     * @return The number of sums.
+     */
+    int size() {
+        return sums.length;
+    }
+}
@@ -0,0 +1,141 @@
+package net.filipvanlaenen.asapop.analysis;
+
+/**
+ * Class tracking the standard errors of the probabilities estimated by weighted simulations. For each outcome, the sum
+ * of the weights and the sum of the squared weights are accumulated, such that the standard error of the
+ * self-normalized estimate of the probability of the outcome can be calculated at any time.
+ *
+ * The weights are passed as natural logarithms, and the sums are kept relative to a reference, such that weights
+ * beyond the range of a double can be handled. The squared weights have their own reference, such that they can't
+ * overflow either.
+ */
+final class ConvergenceTracker {
+    /**
+     * The largest difference between the natural logarithm of a weight and the reference before the accumulated sums
+     * are rescaled.
+     */
+    private static final double RESCALE_THRESHOLD = 300D;
+    /**
+     * The sums of the weights relative to the reference, per outcome.
+     */
+    private final CompensatedSums weightSums;
+    /**
+     * The sums of the squared weights relative to the reference for the squared weights, per outcome.
+     */
+    private final CompensatedSums squaredWeightSums;
+    /**
+     * The natural logarithm of the reference for the weights.
+     */
+    private double logarithmicReference = Double.NaN;
+    /**
+     * The natural logarithm of the reference for the squared weights.
+     */
+    private double logarithmicSquaredReference = Double.NaN;
+
+    /**
+     * Constructor taking the number of outcomes as its parameter.
+     *
+     * @param numberOfOutcomes The number of outcomes.
+     */
+    ConvergenceTracker(final int numberOfOutcomes) {
+        weightSums = new CompensatedSums(numberOfOutcomes);
+        squaredWeightSums = new CompensatedSums(numberOfOutcomes);
+    }
+
+    /**
+     * Adds a weighted observation of an outcome.
+     *
+     * @param outcome           The index of the outcome.
+     * @param logarithmicWeight The natural logarithm of the weight.
+     */
+    void add(final int outcome, final double logarithmicWeight) {
+        if (logarithmicWeight == Double.NEGATIVE_INFINITY) {
+            return;
+        }
+        logarithmicReference = updateReference(weightSums, logarithmicReference, logarithmicWeight);
+        weightSums.add(outcome, Math.exp(logarithmicWeight - logarithmicReference));
+        double logarithmicSquaredWeight = 2D * logarithmicWeight;
+        logarithmicSquaredReference =
+                updateReference(squaredWeightSums, logarithmicSquaredReference, logarithmicSquaredWeight);
+        squaredWeightSums.add(outcome, Math.exp(logarithmicSquaredWeight - logarithmicSquaredReference));
+    }
+
+    /**
+     * Adds all the observations of another convergence tracker with the same number of outcomes to this one.
+     *
+     * @param other Another convergence tracker.
+     */
+    void addAll(final ConvergenceTracker other) {
+        if (Double.isNaN(other.logarithmicReference)) {
+            return;
+        }
+        logarithmicReference = updateReference(weightSums, logarithmicReference, other.logarithmicReference);
+        logarithmicSquaredReference =
+                updateReference(squaredWeightSums, logarithmicSquaredReference, other.logarithmicSquaredReference);
+        double factor = Math.exp(other.logarithmicReference - logarithmicReference);
+        double squaredFactor = Math.exp(other.logarithmicSquaredReference - logarithmicSquaredReference);
+        for (int i = 0; i < weightSums.size(); i++) {
+            weightSums.add(i, other.weightSums.getSum(i) * factor);
+            squaredWeightSums.add(i, other.squaredWeightSums.getSum(i) * squaredFactor);
+        }
+    }
+
+    /**
+     * Calculates the largest standard error of the estimated probabilities of the outcomes. If no observations have
+     * been added yet, the standard error is infinite.
+     *
+     * @return The largest standard error of the estimated probabilities of the outcomes.
+     */
+    double calculateMaximalStandardError() {
+        if (Double.isNaN(logarithmicReference)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double sum = 0D;
+        double squaredSum = 0D;
+        for (int i = 0; i < weightSums.size(); i++) {
+            sum += weightSums.getSum(i);
+            squaredSum += squaredWeightSums.getSum(i);
+        }
+        // The variance of the self-normalized estimate p of an outcome is the sum over all observations of
+        // w^2 * (1[outcome] - p)^2, divided by the square of the sum of the weights.
+        double scale = Math.exp(logarithmicSquaredReference / 2D - logarithmicReference) / sum;
+        double result = 0D;
+        for (int i = 0; i < weightSums.size(); i++) {
+            double p = weightSums.getSum(i) / sum;
+            double variance = squaredWeightSums.getSum(i) * (1D - 2D * p) + squaredSum * p * p;
+            result = Math.max(result, Math.sqrt(Math.max(0D, variance)) * scale);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sum of the weights of an outcome, relative to a reference that is common to all the outcomes.
+     *
+     * @param outcome The index of the outcome.
+     * @return The sum of the weights of the outcome, relative to a reference common to all the outcomes.
+     */
+    double getRelativeWeightSum(final int outcome) {
+        return weightSums.getSum(outcome);
+    }
+
+    /**
+     * Updates a reference with a new natural logarithm, rescaling the sums if the new natural logarithm is too far
+     * above the reference.
+     *
+     * @param sums            The sums relative to the reference.
+     * @param reference       The natural logarithm of the current reference, or NaN if there's no reference yet.
+     * @param logarithmicTerm The natural logarithm of the new term.
+     * @return The natural logarithm of the updated reference.
+     */
+    private static double updateReference(final CompensatedSums sums, final double reference,
+            final double logarithmicTerm) {
+        if (Double.isNaN(reference)) {
+            return logarithmicTerm;
+        } else if (logarithmicTerm - reference > RESCALE_THRESHOLD) {
+            sums.multiply(Math.exp(reference - logarithmicTerm));
+            return logarithmicTerm;
+        } else {
+            return reference;
+        }
+    }
+}
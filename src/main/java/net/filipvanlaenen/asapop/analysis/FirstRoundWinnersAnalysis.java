@@ -19,6 +19,14 @@ public class FirstRoundWinnersAnalysis {
      */
     private final Map<Set<Set<ElectoralList>>, Double> probabilityMassFunction =
             new HashMap<Set<Set<ElectoralList>>, Double>();
+    /**
+     * The number of iterations performed by the simulations.
+     */
+    private final long numberOfIterations;
+    /**
+     * The largest standard error of the probability masses reached by the simulations.
+     */
+    private final double standardError;
 
     /**
      * Constructor using a vote share analysis in combination with a sample multivariate hypergeometric distribution as
@@ -30,6 +38,8 @@ public class FirstRoundWinnersAnalysis {
      */
     FirstRoundWinnersAnalysis(final VoteSharesAnalysis voteShareAnalysis,
             final SampledMultivariateHypergeometricDistribution sampledMultivariateHypergeometricDistribution) {
+        numberOfIterations = sampledMultivariateHypergeometricDistribution.getNumberOfIterations();
+        standardError = sampledMultivariateHypergeometricDistribution.getStandardError();
         List<Set<ElectoralList>> electoralListSets =
                 new ArrayList<Set<ElectoralList>>(voteShareAnalysis.getElectoralListSets());
         for (Set<ElectoralList> electoralListSet : electoralListSets) {
@@ -70,6 +80,15 @@ public class FirstRoundWinnersAnalysis {
         return probabilityMassFunction.keySet();
     }
 
+    /**
+     * Returns the number of iterations performed by the simulations.
+     *
+     * @return The number of iterations performed by the simulations.
+     */
+    public long getNumberOfIterations() {
+        return numberOfIterations;
+    }
+
     /**
      * Returns the probability mass for a set of sets of electoral lists to win the first round.
      *
@@ -83,4 +102,13 @@ public class FirstRoundWinnersAnalysis {
             return 0D;
         }
     }
+
+    /**
+     * Returns the largest standard error of the probability masses reached by the simulations.
+     *
+     * @return The largest standard error of the probability masses reached by the simulations.
+     */
+    public double getStandardError() {
+        return standardError;
+    }
 }
@@ -2,13 +2,25 @@ package net.filipvanlaenen.asapop.analysis;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Class representing a hypergeometric distribution.
  */
 final class HypergeometricDistribution extends SortableProbabilityMassFunction<Long> {
+    /**
+     * A map holding the key value pairs for the probability mass function.
+     */
+    private final Map<Long, BigDecimal> pmf;
+    /**
+     * A sorted list with the keys.
+     */
+    private final List<Long> sortedKeys;
 
     /**
      * Creates a hypergeometric distribution for a given value measured in a population size for a sample size.
@@ -18,7 +30,10 @@ final class HypergeometricDistribution extends SortableProbabilityMassFunction<L
      * @param populationSize The population size.
      */
     HypergeometricDistribution(final Long value, final Long sampleSize, final Long populationSize) {
-        super(createPmf(value, sampleSize, populationSize));
+        pmf = Collections.unmodifiableMap(createPmf(value, sampleSize, populationSize));
+        List<Long> keys = new ArrayList<Long>(pmf.keySet());
+        Collections.sort(keys);
+        sortedKeys = Collections.unmodifiableList(keys);
     }
 
     /**
@@ -39,8 +54,43 @@ final class HypergeometricDistribution extends SortableProbabilityMassFunction<L
         return pmf;
     }
 
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj instanceof HypergeometricDistribution) {
+            HypergeometricDistribution other = (HypergeometricDistribution) obj;
+            return pmf.equals(other.pmf);
+        } else {
+            return false;
+        }
+    }
+
     @Override
     BigDecimal getKeyWeight(final Long key) {
         return BigDecimal.ONE;
     }
+
+    @Override
+    public Set<Long> getKeys() {
+        return pmf.keySet();
+    }
+
+    @Override
+    Long getNumberOfSamples() {
+        return (long) pmf.size();
+    }
+
+    @Override
+    public BigDecimal getProbabilityMass(final Long key) {
+        return pmf.get(key);
+    }
+
+    @Override
+    protected List<Long> getSortedKeys() {
+        return sortedKeys;
+    }
+
+    @Override
+    public int hashCode() {
+        return pmf.hashCode();
+    }
 }
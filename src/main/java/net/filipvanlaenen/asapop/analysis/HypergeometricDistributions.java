@@ -1,7 +1,5 @@
 package net.filipvanlaenen.asapop.analysis;
 
-import net.filipvanlaenen.kolektoj.ModifiableMap;
-
 /**
  * Class providing methods to calculate and handle hypergeometric distributions.
  */
@@ -17,10 +15,16 @@ final class HypergeometricDistributions {
     }
 
     /**
-     * A map caching all the hypergeometric distributions created in the <code>get</code> method.
+     * The approximate weight in bytes per value of a hypergeometric distribution: the entry in the map with the
+     * probability masses, and the accumulated probability masses in both directions as <code>BigDecimal</code>s.
+     */
+    static final long APPROXIMATE_WEIGHT_PER_VALUE = 384L;
+    /**
+     * A cache with all the hypergeometric distributions created in the <code>get</code> method.
      */
-    private static final ModifiableMap<HypergeometricDistributionKey, HypergeometricDistribution> CACHE =
-            ModifiableMap.empty();
+    private static final SingleFlightCache<HypergeometricDistributionKey, HypergeometricDistribution> CACHE =
+            new SingleFlightCache<HypergeometricDistributionKey, HypergeometricDistribution>(
+                    pmf -> pmf.getKeys().size() * APPROXIMATE_WEIGHT_PER_VALUE);
 
     /**
      * Private constructor to prevent the instantiation of this utility class.
@@ -37,10 +41,26 @@ final class HypergeometricDistributions {
      * @return A hypergeometric distribution.
      */
     static HypergeometricDistribution get(final Long value, final Long sampleSize, final Long populationSize) {
-        HypergeometricDistributionKey key = new HypergeometricDistributionKey(value, sampleSize, populationSize);
-        if (!CACHE.containsKey(key)) {
-            CACHE.put(key, new HypergeometricDistribution(value, sampleSize, populationSize));
-        }
-        return CACHE.get(key);
+        return CACHE.get(new HypergeometricDistributionKey(value, sampleSize, populationSize),
+                () -> new HypergeometricDistribution(value, sampleSize, populationSize));
+    }
+
+    /**
+     * Returns the statistics of the cache.
+     *
+     * @return The statistics of the cache.
+     */
+    static CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics();
+    }
+
+    /**
+     * Sets the maximal weight in bytes of the cache. When the cache gets heavier, the least recently used
+     * distributions are evicted from it.
+     *
+     * @param maximalWeight The maximal weight in bytes of the cache.
+     */
+    static void setMaximalCacheWeight(final long maximalWeight) {
+        CACHE.setMaximalWeight(maximalWeight);
     }
 }
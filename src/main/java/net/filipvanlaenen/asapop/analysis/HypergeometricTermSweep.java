@@ -0,0 +1,114 @@
+package net.filipvanlaenen.asapop.analysis;
+
+/**
+ * Class calculating the natural logarithms of the hypergeometric terms <i>C</i>(<i>m</i>,<i>v</i>) &middot;
+ * <i>C</i>(<i>N</i>-<i>m</i>,<i>n</i>-<i>v</i>) for the midpoints <i>m</i> of a sorted array of ranges in a single
+ * sweep. Instead of calculating each term on its own, the term for a midpoint is derived from the term of the previous
+ * midpoint using the ratio between the two, which is a product of four quotients of factorials and therefore takes
+ * constant time, however large the stride between the midpoints. At regular checkpoints, the term is calculated
+ * directly again such that rounding errors can't drift.
+ */
+final class HypergeometricTermSweep {
+    /**
+     * The number of ranges between two checkpoints.
+     */
+    static final int CHECKPOINT_INTERVAL = 64;
+
+    /**
+     * Private constructor so the utility class can't be instantiated.
+     */
+    private HypergeometricTermSweep() {
+    }
+
+    /**
+     * Calculates the natural logarithm of the hypergeometric term for a midpoint directly.
+     *
+     * @param m              The midpoint.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return The natural logarithm of the hypergeometric term for the midpoint.
+     */
+    private static double calculateLogarithm(final long m, final long value, final long sampleSize,
+            final long populationSize) {
+        return LogBinomialCoefficients.get(m, value)
+                + LogBinomialCoefficients.get(populationSize - m, sampleSize - value);
+    }
+
+    /**
+     * Calculates the natural logarithm of the ratio between the hypergeometric terms of two midpoints <i>m</i> and
+     * <i>m</i> + <i>d</i> in constant time, as the sum of the logarithms of four quotients of factorials:
+     * <i>C</i>(<i>m</i>+<i>d</i>,<i>v</i>) / <i>C</i>(<i>m</i>,<i>v</i>) = ((<i>m</i>+<i>d</i>)! / <i>m</i>!) /
+     * ((<i>m</i>-<i>v</i>+<i>d</i>)! / (<i>m</i>-<i>v</i>)!) and <i>C</i>(<i>N</i>-<i>m</i>-<i>d</i>,<i>k</i>) /
+     * <i>C</i>(<i>N</i>-<i>m</i>,<i>k</i>) = ((<i>N</i>-<i>m</i>-<i>k</i>)! / (<i>N</i>-<i>m</i>-<i>k</i>-<i>d</i>)!)
+     * / ((<i>N</i>-<i>m</i>)! / (<i>N</i>-<i>m</i>-<i>d</i>)!), with <i>k</i> = <i>n</i> - <i>v</i>. Both terms are
+     * assumed to be non-zero.
+     *
+     * @param from           The lower midpoint.
+     * @param to             The higher midpoint.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return The natural logarithm of the ratio between the hypergeometric terms of the two midpoints.
+     */
+    private static double calculateLogarithmOfRatio(final long from, final long to, final long value,
+            final long sampleSize, final long populationSize) {
+        long d = to - from;
+        long k = sampleSize - value;
+        return LogBinomialCoefficients.getLogFactorialQuotient(from, d)
+                - LogBinomialCoefficients.getLogFactorialQuotient(from - value, d)
+                + LogBinomialCoefficients.getLogFactorialQuotient(populationSize - to - k, d)
+                - LogBinomialCoefficients.getLogFactorialQuotient(populationSize - to, d);
+    }
+
+    /**
+     * Checks whether the hypergeometric term for a midpoint is non-zero.
+     *
+     * @param m              The midpoint.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return True if the hypergeometric term for the midpoint is non-zero.
+     */
+    private static boolean isNonZero(final long m, final long value, final long sampleSize,
+            final long populationSize) {
+        return m >= value && populationSize - m >= sampleSize - value;
+    }
+
+    /**
+     * Calculates the natural logarithms of the hypergeometric terms for the midpoints of the ranges with an index from
+     * <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive), and stores them in the corresponding
+     * positions of <code>logarithms</code>. Zero terms are stored as negative infinity.
+     *
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @param ranges         The ranges, in sorted order.
+     * @param logarithms     The array in which to store the logarithms.
+     * @param fromIndex      The index of the first range to calculate.
+     * @param toIndex        The index after the last range to calculate.
+     * @return The number of terms derived from the term of the previous midpoint.
+     */
+    static int sweep(final long value, final long sampleSize, final long populationSize, final Range[] ranges,
+            final double[] logarithms, final int fromIndex, final int toIndex) {
+        int numberOfDerivedTerms = 0;
+        boolean previousIsNonZero = false;
+        long previousMidpoint = 0L;
+        for (int i = fromIndex; i < toIndex; i++) {
+            long m = ranges[i].getMidpoint();
+            boolean isNonZero = isNonZero(m, value, sampleSize, populationSize);
+            if (!isNonZero) {
+                logarithms[i] = Double.NEGATIVE_INFINITY;
+            } else if (previousIsNonZero && (i - fromIndex) % CHECKPOINT_INTERVAL != 0) {
+                logarithms[i] = logarithms[i - 1]
+                        + calculateLogarithmOfRatio(previousMidpoint, m, value, sampleSize, populationSize);
+                numberOfDerivedTerms++;
+            } else {
+                logarithms[i] = calculateLogarithm(m, value, sampleSize, populationSize);
+            }
+            previousIsNonZero = isNonZero;
+            previousMidpoint = m;
+        }
+        return numberOfDerivedTerms;
+    }
+}
@@ -0,0 +1,135 @@
+package net.filipvanlaenen.asapop.analysis;
+
+/**
+ * Class providing methods to calculate the natural logarithms of binomial coefficients and factorials in constant
+ * time, using a precomputed table of logarithms of factorials for small arguments and Stirling's series for large
+ * arguments.
+ */
+final class LogBinomialCoefficients {
+    /**
+     * The size of the table with the precomputed logarithms of factorials. Beyond this size, Stirling's series is
+     * accurate up to the precision of a double.
+     */
+    private static final int TABLE_SIZE = 1 << 16;
+    /**
+     * The magic number one half.
+     */
+    private static final double ONE_HALF = 0.5D;
+    /**
+     * The magic number twelve, the denominator of the first correction term in Stirling's series.
+     */
+    private static final double TWELVE = 12D;
+    /**
+     * The magic number 360, the denominator of the second correction term in Stirling's series.
+     */
+    private static final double THREE_HUNDRED_SIXTY = 360D;
+    /**
+     * The magic number 1260, the denominator of the third correction term in Stirling's series.
+     */
+    private static final double ONE_THOUSAND_TWO_HUNDRED_SIXTY = 1260D;
+    /**
+     * The natural logarithm of the square root of two times pi.
+     */
+    private static final double LOG_SQRT_TWO_PI = ONE_HALF * Math.log(2D * Math.PI);
+    /**
+     * The table with the natural logarithms of the factorials from 0! up to (<code>TABLE_SIZE</code> - 1)!.
+     */
+    private static final double[] LOG_FACTORIALS = createLogFactorialTable();
+
+    /**
+     * Private constructor so the utility class can't be instantiated.
+     */
+    private LogBinomialCoefficients() {
+    }
+
+    /**
+     * Creates the table with the natural logarithms of the factorials. Compensated (Kahan) summation is used to keep
+     * the rounding errors from accumulating.
+     *
+     * @return The table with the natural logarithms of the factorials.
+     */
+    private static double[] createLogFactorialTable() {
+        double[] table = new double[TABLE_SIZE];
+        double sum = 0D;
+        double compensation = 0D;
+        for (int i = 2; i < TABLE_SIZE; i++) {
+            double y = Math.log(i) - compensation;
+            double t = sum + y;
+            compensation = (t - sum) - y;
+            sum = t;
+            table[i] = sum;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the natural logarithm of the binomial coefficient <i>C</i>(<i>n</i>,<i>k</i>), or negative infinity if
+     * the binomial coefficient is zero.
+     *
+     * @param n The parameter <i>n</i> of the binomial coefficient <i>C</i>(<i>n</i>,<i>k</i>).
+     * @param k The parameter <i>k</i> of the binomial coefficient <i>C</i>(<i>n</i>,<i>k</i>).
+     * @return The natural logarithm of the binomial coefficient <i>C</i>(<i>n</i>,<i>k</i>).
+     */
+    static double get(final long n, final long k) {
+        if (k < 0 || k > n) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        long lowerK = 2 * k > n ? n - k : k;
+        return getLogFactorialQuotient(n - lowerK, lowerK) - getLogFactorial(lowerK);
+    }
+
+    /**
+     * Returns the natural logarithm of the factorial <i>n</i>!.
+     *
+     * @param n The parameter <i>n</i> of the factorial.
+     * @return The natural logarithm of the factorial <i>n</i>!.
+     */
+    static double getLogFactorial(final long n) {
+        if (n < TABLE_SIZE) {
+            return LOG_FACTORIALS[(int) n];
+        }
+        return logGamma(n + 1D);
+    }
+
+    /**
+     * Returns the natural logarithm of the quotient (<i>a</i> + <i>d</i>)! / <i>a</i>!, i.e. of the product (<i>a</i>
+     * + 1) &middot; (<i>a</i> + 2) &middot; &hellip; &middot; (<i>a</i> + <i>d</i>).
+     *
+     * For large <i>a</i>, the difference between the two factorials is calculated directly from Stirling's series, such
+     * that the two large logarithms don't have to be subtracted from each other.
+     *
+     * @param a The parameter <i>a</i> of the quotient.
+     * @param d The parameter <i>d</i> of the quotient.
+     * @return The natural logarithm of the quotient (<i>a</i> + <i>d</i>)! / <i>a</i>!.
+     */
+    static double getLogFactorialQuotient(final long a, final long d) {
+        if (a < TABLE_SIZE) {
+            return getLogFactorial(a + d) - getLogFactorial(a);
+        }
+        double x = a + 1D;
+        double y = x + d;
+        return (x - ONE_HALF) * Math.log1p(d / x) + d * (Math.log(y) - 1D) + stirlingCorrection(y)
+                - stirlingCorrection(x);
+    }
+
+    /**
+     * Calculates the natural logarithm of the gamma function using Stirling's series.
+     *
+     * @param z The argument, assumed to be large.
+     * @return The natural logarithm of the gamma function.
+     */
+    private static double logGamma(final double z) {
+        return (z - ONE_HALF) * Math.log(z) - z + LOG_SQRT_TWO_PI + stirlingCorrection(z);
+    }
+
+    /**
+     * Calculates the correction terms of Stirling's series.
+     *
+     * @param z The argument, assumed to be large.
+     * @return The correction terms of Stirling's series.
+     */
+    private static double stirlingCorrection(final double z) {
+        double z2 = z * z;
+        return (1D / TWELVE - (1D / THREE_HUNDRED_SIXTY - 1D / (ONE_THOUSAND_TWO_HUNDRED_SIXTY * z2)) / z2) / z;
+    }
+}
@@ -0,0 +1,103 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class running a loop over the indices of an array of ranges in chunks on a <code>ForkJoinPool</code>. Loops shorter
+ * than the sequential threshold are run on the calling thread.
+ */
+final class ParallelRangeLoop {
+    /**
+     * The number of indices in a chunk. This is a multiple of the checkpoint interval of the hypergeometric term sweep,
+     * such that a sweep split into chunks produces exactly the same results as a single sweep.
+     */
+    static final int CHUNK_SIZE = 16 * HypergeometricTermSweep.CHECKPOINT_INTERVAL;
+    /**
+     * The number of indices below which the loop is run sequentially.
+     */
+    static final int SEQUENTIAL_THRESHOLD = 2 * CHUNK_SIZE;
+
+    /**
+     * Interface for the body of the loop, processing the indices from <code>fromIndex</code> (inclusive) to
+     * <code>toIndex</code> (exclusive).
+     */
+    @FunctionalInterface
+    interface ChunkProcessor {
+        /**
+         * Processes the indices from <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive).
+         *
+         * @param fromIndex The first index to process.
+         * @param toIndex   The index after the last index to process.
+         */
+        void process(int fromIndex, int toIndex);
+    }
+
+    /**
+     * Recursive action splitting the indices in two halves, at a chunk boundary, until only one chunk is left.
+     */
+    private static final class ChunkAction extends RecursiveAction {
+        /**
+         * The serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The body of the loop.
+         */
+        private final transient ChunkProcessor processor;
+        /**
+         * The first index to process.
+         */
+        private final int fromIndex;
+        /**
+         * The index after the last index to process.
+         */
+        private final int toIndex;
+
+        /**
+         * Constructor taking the body of the loop and the indices to process as its parameters.
+         *
+         * @param processor The body of the loop.
+         * @param fromIndex The first index to process.
+         * @param toIndex   The index after the last index to process.
+         */
+        ChunkAction(final ChunkProcessor processor, final int fromIndex, final int toIndex) {
+            this.processor = processor;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        protected void compute() {
+            int numberOfChunks = (toIndex - fromIndex + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            if (numberOfChunks <= 1) {
+                processor.process(fromIndex, toIndex);
+            } else {
+                int middle = fromIndex + numberOfChunks / 2 * CHUNK_SIZE;
+                invokeAll(new ChunkAction(processor, fromIndex, middle), new ChunkAction(processor, middle, toIndex));
+            }
+        }
+    }
+
+    /**
+     * Private constructor so the utility class can't be instantiated.
+     */
+    private ParallelRangeLoop() {
+    }
+
+    /**
+     * Runs the loop over the indices from zero (inclusive) to a size (exclusive). If the size is below the sequential
+     * threshold, the loop is run on the calling thread, otherwise it is split into chunks on the common
+     * <code>ForkJoinPool</code>.
+     *
+     * @param size      The number of indices to process.
+     * @param processor The body of the loop.
+     */
+    static void run(final int size, final ChunkProcessor processor) {
+        if (size < SEQUENTIAL_THRESHOLD) {
+            processor.process(0, size);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ChunkAction(processor, 0, size));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.math.MathContext;
+
+/**
+ * Enumeration of the numeric precision policies for the simulations of the multivariate analyses. The policy is chosen
+ * per run of the analysis engine, with <code>DECIMAL128</code> as the default. <code>LOG_DOUBLE</code> is much faster,
+ * but has to be opted in to. The probability mass functions themselves are always calculated with
+ * <code>DECIMAL128</code> precision, because they are cached and shared between runs.
+ */
+public enum PrecisionPolicy {
+    /**
+     * <code>BigDecimal</code> arithmetic with 34 significant digits.
+     */
+    DECIMAL128(MathContext.DECIMAL128),
+    /**
+     * <code>BigDecimal</code> arithmetic with 16 significant digits.
+     */
+    DECIMAL64(MathContext.DECIMAL64),
+    /**
+     * Double arithmetic in logarithmic space, with compensated (Kahan) summation of the accumulated probability masses.
+     */
+    LOG_DOUBLE(null);
+
+    /**
+     * The math context for the <code>BigDecimal</code> arithmetic, or null if doubles are used.
+     */
+    private final MathContext mathContext;
+
+    /**
+     * Constructor taking the math context as its parameter.
+     *
+     * @param mathContext The math context for the <code>BigDecimal</code> arithmetic, or null if doubles are used.
+     */
+    PrecisionPolicy(final MathContext mathContext) {
+        this.mathContext = mathContext;
+    }
+
+    /**
+     * Returns the math context for the <code>BigDecimal</code> arithmetic, or null if doubles are used.
+     *
+     * @return The math context for the <code>BigDecimal</code> arithmetic, or null if doubles are used.
+     */
+    MathContext getMathContext() {
+        return mathContext;
+    }
+
+    /**
+     * Returns whether the policy uses <code>BigDecimal</code> arithmetic.
+     *
+     * @return True if the policy uses <code>BigDecimal</code> arithmetic.
+     */
+    boolean usesBigDecimals() {
+        return mathContext != null;
+    }
+}
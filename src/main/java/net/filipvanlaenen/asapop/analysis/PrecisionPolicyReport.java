@@ -0,0 +1,152 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Class comparing the accuracy and the throughput of the numeric precision policies on the simulations of a set of
+ * multivariate analyses. Each policy is run with the same seed, such that the same ranges are drawn in every
+ * iteration, and the differences in the probabilities are caused by the arithmetic only. The accuracy is measured
+ * against <code>DECIMAL128</code>.
+ */
+public final class PrecisionPolicyReport {
+    /**
+     * The magic number hundred.
+     */
+    private static final double HUNDRED = 100D;
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOSECONDS_PER_SECOND = 1E9;
+
+    /**
+     * Record holding the measurements for a precision policy.
+     *
+     * @param precisionPolicy   The precision policy.
+     * @param elapsedNanos      The total time spent on the simulations, in nanoseconds.
+     * @param maximalDifference The largest absolute difference with a probability calculated using
+     *                          <code>DECIMAL128</code>.
+     */
+    record Entry(PrecisionPolicy precisionPolicy, long elapsedNanos, double maximalDifference) {
+    }
+
+    /**
+     * The number of iterations per simulation.
+     */
+    private final long numberOfIterations;
+    /**
+     * The seed for the random number generators.
+     */
+    private final long seed;
+    /**
+     * The number of simulations run per precision policy.
+     */
+    private int numberOfSimulations;
+    /**
+     * The measurements per precision policy, in the order of the precision policies.
+     */
+    private final List<Entry> entries;
+
+    /**
+     * Constructor taking the number of iterations per simulation and the seed as its parameters.
+     *
+     * @param numberOfIterations The number of iterations per simulation.
+     * @param seed               The seed for the random number generators.
+     */
+    PrecisionPolicyReport(final long numberOfIterations, final long seed) {
+        this.numberOfIterations = numberOfIterations;
+        this.seed = seed;
+        entries = new ArrayList<Entry>();
+        for (PrecisionPolicy precisionPolicy : PrecisionPolicy.values()) {
+            entries.add(new Entry(precisionPolicy, 0L, 0D));
+        }
+    }
+
+    /**
+     * Runs a simulation with each of the precision policies for a set of probability mass functions, and adds the
+     * measurements to the report.
+     *
+     * @param probabilityMassFunctions The probability mass functions.
+     * @param populationSize           The population size.
+     * @param sampleSize               The sample size.
+     */
+    void add(final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
+            final long sampleSize) {
+        List<Double> reference = null;
+        int numberOfWorkers =
+                SampledMultivariateHypergeometricDistribution.calculateNumberOfWorkers(numberOfIterations);
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            long start = System.nanoTime();
+            SampledMultivariateHypergeometricDistribution distribution =
+                    new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, populationSize,
+                            sampleSize, numberOfIterations,
+                            new SimulationSettings(entry.precisionPolicy(), SamplingStrategy.UNIFORM),
+                            new SplittableRandom(seed), numberOfWorkers);
+            long elapsedNanos = System.nanoTime() - start;
+            List<Double> probabilities = calculateProbabilities(distribution, probabilityMassFunctions);
+            if (reference == null) {
+                reference = probabilities;
+            }
+            double maximalDifference = entry.maximalDifference();
+            for (int j = 0; j < probabilities.size(); j++) {
+                maximalDifference = Math.max(maximalDifference, Math.abs(probabilities.get(j) - reference.get(j)));
+            }
+            entries.set(i, new Entry(entry.precisionPolicy(), entry.elapsedNanos() + elapsedNanos, maximalDifference));
+        }
+        numberOfSimulations++;
+    }
+
+    /**
+     * Calculates the probabilities of all single winners and all pairs of winners of the first round.
+     *
+     * @param distribution             The sampled multivariate hypergeometric distribution.
+     * @param probabilityMassFunctions The probability mass functions.
+     * @return A list with the probabilities of all single winners and all pairs of winners.
+     */
+    static List<Double> calculateProbabilities(final SampledMultivariateHypergeometricDistribution distribution,
+            final List<SampledHypergeometricDistribution> probabilityMassFunctions) {
+        List<Double> result = new ArrayList<Double>();
+        for (int i = 0; i < probabilityMassFunctions.size(); i++) {
+            SampledHypergeometricDistribution pmf1 = probabilityMassFunctions.get(i);
+            result.add(distribution.getProbabilityMass(pmf1));
+            for (int j = i; j < probabilityMassFunctions.size(); j++) {
+                result.add(distribution.getProbabilityMass(pmf1, probabilityMassFunctions.get(j)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the measurements per precision policy, in the order of the precision policies.
+     *
+     * @return The measurements per precision policy.
+     */
+    List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the number of simulations run per precision policy.
+     *
+     * @return The number of simulations run per precision policy.
+     */
+    int getNumberOfSimulations() {
+        return numberOfSimulations;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-10s %15s %20s%n", "Policy", "Iterations/s", "Max. difference (pp)"));
+        for (Entry entry : entries) {
+            double iterationsPerSecond = entry.elapsedNanos() == 0L ? 0D
+                    : numberOfSimulations * numberOfIterations * NANOSECONDS_PER_SECOND / entry.elapsedNanos();
+            sb.append(String.format("%-10s %15.0f %20.6f%n", entry.precisionPolicy(), iterationsPerSecond,
+                    entry.maximalDifference() * HUNDRED));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class implementing a sampler drawing independent, uniformly distributed points from a random number generator. The
+ * error of the estimates decreases with the square root of the number of iterations.
+ */
+final class PseudoRandomSampler implements Sampler {
+    /**
+     * The random number generator.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor taking the random number generator as its parameter.
+     *
+     * @param random The random number generator.
+     */
+    PseudoRandomSampler(final SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void next(final double[] point) {
+        for (int i = 0; i < point.length; i++) {
+            point[i] = random.nextDouble();
+        }
+    }
+}
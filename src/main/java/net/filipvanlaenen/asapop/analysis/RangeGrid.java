@@ -0,0 +1,197 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Class representing a grid of ranges covering a population, in sorted order. Range grids are immutable and interned
+ * by <code>RangeGrids</code>, such that all sampled hypergeometric distributions on the same grid share the same range
+ * instances, and a range handed out by a grid can be looked up by identity.
+ */
+final class RangeGrid {
+    /**
+     * The ranges, in sorted order.
+     */
+    private final Range[] ranges;
+    /**
+     * The lower bounds of the ranges, in sorted order.
+     */
+    private final long[] lowerBounds;
+    /**
+     * The upper bounds of the ranges, in sorted order.
+     */
+    private final long[] upperBounds;
+    /**
+     * An unmodifiable list with the ranges, in sorted order.
+     */
+    private final List<Range> sortedRanges;
+    /**
+     * A map with the indices of the ranges, by identity.
+     */
+    private final Map<Range, Integer> indices;
+    /**
+     * Whether the lengths of the ranges differ at most one.
+     */
+    private final boolean uniform;
+    /**
+     * The hash code of the grid.
+     */
+    private final int hashCode;
+    /**
+     * An unmodifiable set with the ranges, created lazily.
+     */
+    private volatile Set<Range> rangeSet;
+
+    /**
+     * Constructor taking an array of ranges, in sorted order, as its parameter.
+     *
+     * @param ranges The ranges, in sorted order.
+     */
+    RangeGrid(final Range[] ranges) {
+        this.ranges = ranges.clone();
+        int n = ranges.length;
+        lowerBounds = new long[n];
+        upperBounds = new long[n];
+        indices = new IdentityHashMap<Range, Integer>(n);
+        long shortestLength = Long.MAX_VALUE;
+        long longestLength = 0L;
+        for (int i = 0; i < n; i++) {
+            lowerBounds[i] = ranges[i].lowerBound();
+            upperBounds[i] = ranges[i].upperBound();
+            indices.put(this.ranges[i], i);
+            shortestLength = Math.min(shortestLength, ranges[i].getLength());
+            longestLength = Math.max(longestLength, ranges[i].getLength());
+        }
+        sortedRanges = Collections.unmodifiableList(Arrays.asList(this.ranges));
+        uniform = longestLength - shortestLength <= 1L;
+        hashCode = Objects.hash(Arrays.hashCode(lowerBounds), Arrays.hashCode(upperBounds));
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof RangeGrid) {
+            RangeGrid other = (RangeGrid) obj;
+            return hashCode == other.hashCode && Arrays.equals(lowerBounds, other.lowerBounds)
+                    && Arrays.equals(upperBounds, other.upperBounds);
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the index of a range, or a negative number if the range isn't part of the grid. Ranges handed out by the
+     * grid are found by identity, other ranges using a binary search on the lower bounds.
+     *
+     * @param range The range.
+     * @return The index of the range, or a negative number if the range isn't part of the grid.
+     */
+    int findIndex(final Range range) {
+        Integer index = indices.get(range);
+        if (index != null) {
+            return index;
+        }
+        int i = Arrays.binarySearch(lowerBounds, range.lowerBound());
+        return i >= 0 && upperBounds[i] == range.upperBound() ? i : -1;
+    }
+
+    /**
+     * Returns the index of the first range with a lower bound strictly above a threshold.
+     *
+     * @param threshold The threshold.
+     * @return The index of the first range with a lower bound strictly above the threshold.
+     */
+    int findFirstIndexAbove(final long threshold) {
+        int index = Arrays.binarySearch(lowerBounds, threshold);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Returns the range at an index.
+     *
+     * @param index The index.
+     * @return The range at the index.
+     */
+    Range get(final int index) {
+        return ranges[index];
+    }
+
+    /**
+     * Returns the length of the range at an index.
+     *
+     * @param index The index.
+     * @return The length of the range at the index.
+     */
+    long getLength(final int index) {
+        return 1L + upperBounds[index] - lowerBounds[index];
+    }
+
+    /**
+     * Returns the ranges as an array, in sorted order. The array is shared and should not be modified.
+     *
+     * @return The ranges as an array, in sorted order.
+     */
+    Range[] getRanges() {
+        return ranges;
+    }
+
+    /**
+     * Returns an unmodifiable set with the ranges.
+     *
+     * @return An unmodifiable set with the ranges.
+     */
+    Set<Range> getRangeSet() {
+        if (rangeSet == null) {
+            rangeSet = Collections.unmodifiableSet(new HashSet<Range>(sortedRanges));
+        }
+        return rangeSet;
+    }
+
+    /**
+     * Returns an unmodifiable list with the ranges, in sorted order.
+     *
+     * @return An unmodifiable list with the ranges, in sorted order.
+     */
+    List<Range> getSortedRanges() {
+        return sortedRanges;
+    }
+
+    /**
+     * Returns the length of the population covered by the grid.
+     *
+     * @return The length of the population covered by the grid.
+     */
+    long getTotalLength() {
+        return ranges.length == 0 ? 0L : 1L + upperBounds[ranges.length - 1] - lowerBounds[0];
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Returns whether the lengths of the ranges differ at most one, as is the case for a uniform grid.
+     *
+     * @return True if the lengths of the ranges differ at most one.
+     */
+    boolean isUniform() {
+        return uniform;
+    }
+
+    /**
+     * Returns the number of ranges in the grid.
+     *
+     * @return The number of ranges in the grid.
+     */
+    int size() {
+        return ranges.length;
+    }
+}
@@ -0,0 +1,88 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.List;
+
+/**
+ * Class providing a registry of interned range grids, such that sampled hypergeometric distributions on the same grid
+ * share the ranges and only hold their own probability masses.
+ */
+final class RangeGrids {
+    /**
+     * The approximate weight in bytes per range of a range grid: the range itself, its bounds, its entries in the array
+     * and the list with the ranges, and its entry in the map with the indices.
+     */
+    static final long APPROXIMATE_WEIGHT_PER_RANGE = 128L;
+    /**
+     * A cache with the interned range grids, keyed by their ranges.
+     */
+    private static final SingleFlightCache<List<Range>, RangeGrid> CACHE =
+            new SingleFlightCache<List<Range>, RangeGrid>(RangeGrids::estimateWeight);
+    /**
+     * A cache with the uniform range grids, keyed by the number of samples and the population size.
+     */
+    private static final SingleFlightCache<List<Long>, RangeGrid> UNIFORM_CACHE =
+            new SingleFlightCache<List<Long>, RangeGrid>(RangeGrids::estimateWeight);
+
+    /**
+     * Private constructor to prevent the instantiation of this utility class.
+     */
+    private RangeGrids() {
+    }
+
+    /**
+     * Estimates the weight in bytes of a range grid in the caches.
+     *
+     * @param grid The range grid.
+     * @return The estimated weight in bytes.
+     */
+    static long estimateWeight(final RangeGrid grid) {
+        return grid.size() * APPROXIMATE_WEIGHT_PER_RANGE;
+    }
+
+    /**
+     * Returns the uniform range grid into which the population size is cut for a number of samples.
+     *
+     * @param numberOfSamples The number of samples.
+     * @param populationSize  The population size.
+     * @return The uniform range grid.
+     */
+    static RangeGrid get(final Long numberOfSamples, final Long populationSize) {
+        return UNIFORM_CACHE.get(List.of(numberOfSamples, populationSize),
+                () -> intern(SampledHypergeometricDistribution.calculateRanges(numberOfSamples, populationSize)));
+    }
+
+    /**
+     * Returns the statistics of the caches with the range grids, i.e. the sum of the statistics of the individual
+     * caches.
+     *
+     * @return The statistics of the caches.
+     */
+    static CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics().add(UNIFORM_CACHE.getStatistics());
+    }
+
+    /**
+     * Returns the interned range grid for an array of ranges, in sorted order. The ranges are copied into an
+     * unmodifiable list that serves as the key, such that later changes to the array can't corrupt the registry. If two
+     * threads intern the same ranges at the same time, both receive the same range grid. An evicted range grid stays
+     * valid for the distributions using it, but isn't shared with new distributions anymore.
+     *
+     * @param ranges The ranges, in sorted order.
+     * @return The interned range grid.
+     */
+    static RangeGrid intern(final Range[] ranges) {
+        List<Range> key = List.of(ranges);
+        return CACHE.get(key, () -> new RangeGrid(key.toArray(new Range[key.size()])));
+    }
+
+    /**
+     * Sets the maximal weight in bytes of each of the caches. When a cache gets heavier, the least recently used range
+     * grids are evicted from it.
+     *
+     * @param maximalWeight The maximal weight in bytes of each of the caches.
+     */
+    static void setMaximalCacheWeight(final long maximalWeight) {
+        CACHE.setMaximalWeight(maximalWeight);
+        UNIFORM_CACHE.setMaximalWeight(maximalWeight);
+    }
+}
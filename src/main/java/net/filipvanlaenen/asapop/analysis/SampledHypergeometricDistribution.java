@@ -1,18 +1,75 @@
 package net.filipvanlaenen.asapop.analysis;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.MathContext;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Class representing a hypergeometric distribution, but sampled.
+ *
+ * The ranges are held by a range grid that is shared with all other distributions on the same grid, and the
+ * probability masses in an array of doubles, scaled by a common power of two. This keeps the memory footprint small,
+ * and allows the probability mass of a range handed out by the grid to be looked up by identity.
  */
 public final class SampledHypergeometricDistribution extends SortableProbabilityMassFunction<Range> {
+    /**
+     * The largest sample size for which the probability masses are calculated exactly using <code>BigDecimal</code>
+     * arithmetic. For larger sample sizes, the probability masses are calculated in logarithmic space.
+     */
+    static final long EXACT_CALCULATION_THRESHOLD = 100L;
+    /**
+     * The number of bits in the significand of a double.
+     */
+    private static final int DOUBLE_PRECISION = 53;
+    /**
+     * The smallest binary exponent for which a probability mass can be stored as a double without a scale.
+     */
+    private static final int MINIMAL_UNSCALED_EXPONENT = -1_000;
+    /**
+     * The binary logarithm of ten.
+     */
+    private static final double LOG2_TEN = Math.log(10D) / Math.log(2D);
+    /**
+     * The magic number one half.
+     */
+    private static final double ONE_HALF = 0.5D;
+    /**
+     * The magic number twenty-four, the denominator of the error estimate of the closed-form approximation.
+     */
+    private static final double TWENTY_FOUR = 24D;
+
+    /**
+     * The range grid, shared with the other distributions on the same grid.
+     */
+    private final RangeGrid grid;
+    /**
+     * The probability masses of the ranges, divided by the scale.
+     */
+    private final double[] probabilityMasses;
+    /**
+     * The scale of the probability masses, a power of two.
+     */
+    private final BigDecimal scale;
+    /**
+     * The alias table to draw ranges in proportion to their probability masses, created lazily.
+     */
+    private volatile AliasTable aliasTable;
+
     /**
      * Creates a sampled hypergeometric distribution for a given value measured in a population size for a number of
      * ranges in a sample size.
      *
+     * For small sample sizes, the probability masses are calculated exactly as products of binomial coefficients. For
+     * larger sample sizes, the calculation is done in logarithmic space, which takes constant time per range. In both
+     * cases, a large number of ranges is split into chunks that are calculated in parallel.
+     *
      * @param value           The measured value.
      * @param sampleSize      The sample size.
      * @param numberOfSamples The number of samples.
@@ -20,7 +77,24 @@ public final class SampledHypergeometricDistribution extends SortableProbability
      */
     SampledHypergeometricDistribution(final Long value, final Long sampleSize, final Long numberOfSamples,
             final Long populationSize) {
-        this(createPmf(value, sampleSize, numberOfSamples, populationSize));
+        this(RangeGrids.get(numberOfSamples, populationSize), value, sampleSize, populationSize);
+    }
+
+    /**
+     * Creates a sampled hypergeometric distribution for a given value measured in a population size for a set of
+     * range grid in a sample size.
+     *
+     * @param grid           The range grid.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     */
+    private SampledHypergeometricDistribution(final RangeGrid grid, final Long value, final Long sampleSize,
+            final Long populationSize) {
+        this(grid, sampleSize <= EXACT_CALCULATION_THRESHOLD
+                ? calculateExactProbabilityMasses(grid.getRanges(), value, sampleSize, populationSize)
+                : toBigDecimals(
+                        calculateLogarithmicProbabilityMasses(grid.getRanges(), value, sampleSize, populationSize)));
     }
 
     /**
@@ -30,36 +104,266 @@ public final class SampledHypergeometricDistribution extends SortableProbability
      * @param pmf A map with the ranges and their probability masses.
      */
     public SampledHypergeometricDistribution(final Map<Range, BigDecimal> pmf) {
-        super(pmf);
+        this(RangeGrids.intern(sortRanges(pmf)), pmf);
     }
 
     /**
-     * Creates a key-value map for a sampled hypergeometric distribution for a given value measured in a population size
-     * for a number of ranges in a sample size.
+     * Creates a sampled hypergeometric distribution using a range grid and a map with the probability masses of its
+     * ranges.
+     *
+     * @param grid The range grid.
+     * @param pmf  A map with the ranges and their probability masses.
+     */
+    private SampledHypergeometricDistribution(final RangeGrid grid, final Map<Range, BigDecimal> pmf) {
+        this(grid, grid.getSortedRanges().stream().map(pmf::get).toArray(BigDecimal[]::new));
+    }
+
+    /**
+     * Creates a sampled hypergeometric distribution using a range grid and an array with the probability masses of its
+     * ranges.
+     *
+     * @param grid                        The range grid.
+     * @param bigDecimalProbabilityMasses The probability masses of the ranges.
+     */
+    private SampledHypergeometricDistribution(final RangeGrid grid, final BigDecimal[] bigDecimalProbabilityMasses) {
+        this.grid = grid;
+        int n = grid.size();
+        probabilityMasses = new double[n];
+        scale = calculateScale(bigDecimalProbabilityMasses);
+        for (int i = 0; i < n; i++) {
+            probabilityMasses[i] = BigDecimal.ONE.equals(scale) ? bigDecimalProbabilityMasses[i].doubleValue()
+                    : bigDecimalProbabilityMasses[i].divide(scale, MathContext.DECIMAL128).doubleValue();
+        }
+    }
+
+    /**
+     * Calculates the probability masses for a set of ranges exactly, as products of binomial coefficients.
+     *
+     * @param ranges         The ranges, in sorted order.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return An array with the probability masses of the ranges.
+     */
+    static BigDecimal[] calculateExactProbabilityMasses(final Range[] ranges, final Long value, final Long sampleSize,
+            final Long populationSize) {
+        BigDecimal[] result = new BigDecimal[ranges.length];
+        ParallelRangeLoop.run(ranges.length, (fromIndex, toIndex) -> {
+            for (int i = fromIndex; i < toIndex; i++) {
+                long m = ranges[i].getMidpoint();
+                result[i] = BinomialCoefficients.get(m, value).multiply(
+                        BinomialCoefficients.get(populationSize - m, sampleSize - value), MathContext.DECIMAL128);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Calculates the probability masses for a set of ranges using the logarithms of the binomial coefficients,
+     * calculated in a single sweep over the ranges. The probability masses are scaled such that the largest probability
+     * mass is one.
+     *
+     * @param ranges         The ranges, in sorted order.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return An array with the probability masses of the ranges.
+     */
+    static double[] calculateLogarithmicProbabilityMasses(final Range[] ranges, final Long value,
+            final Long sampleSize, final Long populationSize) {
+        double[] logarithms = new double[ranges.length];
+        ParallelRangeLoop.run(ranges.length, (fromIndex, toIndex) -> HypergeometricTermSweep.sweep(value, sampleSize,
+                populationSize, ranges, logarithms, fromIndex, toIndex));
+        double maximum = Double.NEGATIVE_INFINITY;
+        for (double logarithm : logarithms) {
+            maximum = Math.max(maximum, logarithm);
+        }
+        double[] result = new double[ranges.length];
+        for (int i = 0; i < ranges.length; i++) {
+            result[i] = Math.exp(logarithms[i] - maximum);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the natural logarithm of the closed-form approximation of the probability mass for a population
+     * count, leaving out the constant factors. Zero probability masses are returned as negative infinity.
+     *
+     * @param m              The population count.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return The natural logarithm of the approximated probability mass, up to a constant.
+     */
+    static double calculateApproximatedLogarithm(final long m, final long value, final long sampleSize,
+            final long populationSize) {
+        long k = sampleSize - value;
+        if (m < value || populationSize - m < k) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return (value == 0L ? 0D : value * Math.log(m - (value - 1L) * ONE_HALF))
+                + (k == 0L ? 0D : k * Math.log(populationSize - m - (k - 1L) * ONE_HALF));
+    }
+
+    /**
+     * Calculates the probability masses for a set of ranges using a closed-form approximation. The product
+     * <i>m</i> &middot; (<i>m</i> - 1) &middot; &hellip; &middot; (<i>m</i> - <i>v</i> + 1) in the binomial coefficient
+     * <i>C</i>(<i>m</i>,<i>v</i>) is replaced by (<i>m</i> - (<i>v</i> - 1) / 2)<sup><i>v</i></sup>, and likewise for
+     * <i>C</i>(<i>N</i>-<i>m</i>,<i>n</i>-<i>v</i>), which turns the probability masses into a shifted beta density.
+     * The probability masses are scaled such that the largest probability mass is one.
+     *
+     * The relative error on a probability mass is of the order of <i>v</i><sup>3</sup> / (24 <i>m</i><sup>2</sup>) +
+     * (<i>n</i> - <i>v</i>)<sup>3</sup> / (24 (<i>N</i> - <i>m</i>)<sup>2</sup>), which around the mode adds up to
+     * the estimate returned by <code>estimateApproximationError</code>.
+     *
+     * @param ranges         The ranges, in sorted order.
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return An array with the probability masses of the ranges.
+     */
+    static double[] calculateApproximatedProbabilityMasses(final Range[] ranges, final Long value,
+            final Long sampleSize, final Long populationSize) {
+        double[] logarithms = new double[ranges.length];
+        double maximum = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < ranges.length; i++) {
+            logarithms[i] = calculateApproximatedLogarithm(ranges[i].getMidpoint(), value, sampleSize, populationSize);
+            maximum = Math.max(maximum, logarithms[i]);
+        }
+        double[] result = new double[ranges.length];
+        for (int i = 0; i < ranges.length; i++) {
+            result[i] = Math.exp(logarithms[i] - maximum);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the ranges into which the population size is cut for a number of samples.
      *
-     * @param value           The measured value.
-     * @param sampleSize      The sample size.
      * @param numberOfSamples The number of samples.
      * @param populationSize  The population size.
-     * @return A hypergeometric distribution.
+     * @return An array with the ranges, in sorted order.
      */
-    private static Map<Range, BigDecimal> createPmf(final Long value, final Long sampleSize, final Long numberOfSamples,
-            final Long populationSize) {
-        Map<Range, BigDecimal> pmf = new HashMap<Range, BigDecimal>();
+    static Range[] calculateRanges(final Long numberOfSamples, final Long populationSize) {
+        Range[] ranges = new Range[numberOfSamples.intValue()];
         long baseLength = populationSize / numberOfSamples;
         long remainder = 1 + populationSize - baseLength * numberOfSamples;
         long numberOfRangesOfBaseLength = numberOfSamples - remainder;
         long rangeStartIndex = 0L;
         long rangeEndIndex;
-        for (long i = 0; i < numberOfSamples; i++) {
+        for (int i = 0; i < numberOfSamples; i++) {
             rangeEndIndex = rangeStartIndex + baseLength + (i >= numberOfRangesOfBaseLength ? 0L : -1L);
-            Range range = new Range(rangeStartIndex, rangeEndIndex);
-            long m = range.getMidpoint();
-            pmf.put(range, BinomialCoefficients.get(m, value).multiply(
-                    BinomialCoefficients.get(populationSize - m, sampleSize - value), MathContext.DECIMAL128));
+            ranges[i] = new Range(rangeStartIndex, rangeEndIndex);
             rangeStartIndex = rangeEndIndex + 1L;
         }
-        return pmf;
+        return ranges;
+    }
+
+    /**
+     * Calculates a power of two by which the probability masses can be divided such that they can be stored as
+     * doubles. If the largest probability mass fits into the significand of a double, the scale is one, such that
+     * small integer probability masses are stored exactly.
+     *
+     * @param bigDecimalProbabilityMasses The probability masses.
+     * @return A power of two to scale the probability masses with.
+     */
+    private static BigDecimal calculateScale(final BigDecimal[] bigDecimalProbabilityMasses) {
+        BigDecimal maximum = BigDecimal.ZERO;
+        for (BigDecimal probabilityMass : bigDecimalProbabilityMasses) {
+            maximum = maximum.max(probabilityMass);
+        }
+        if (maximum.signum() == 0) {
+            return BigDecimal.ONE;
+        }
+        int exponent = (int) (maximum.unscaledValue().bitLength() - Math.round(maximum.scale() * LOG2_TEN));
+        if (exponent > DOUBLE_PRECISION) {
+            return new BigDecimal(BigInteger.ONE.shiftLeft(exponent - DOUBLE_PRECISION));
+        } else if (exponent < MINIMAL_UNSCALED_EXPONENT) {
+            return BigDecimal.ONE.divide(new BigDecimal(BigInteger.ONE.shiftLeft(-exponent)));
+        } else {
+            return BigDecimal.ONE;
+        }
+    }
+
+    /**
+     * Creates a sampled hypergeometric distribution on an adaptive range grid. Around the mode, the ranges have the
+     * same length as a uniform grid with the requested resolution, such that the confidence intervals have the same
+     * precision, but in the tails the ranges grow geometrically.
+     *
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param resolution     The number of samples of the uniform grid with the same precision around the mode.
+     * @param populationSize The population size.
+     * @return A sampled hypergeometric distribution on an adaptive range grid.
+     */
+    static SampledHypergeometricDistribution createAdaptive(final Long value, final Long sampleSize,
+            final Long resolution, final Long populationSize) {
+        return new SampledHypergeometricDistribution(
+                RangeGrids.intern(AdaptiveRangeGrid.calculateRanges(value, sampleSize, resolution, populationSize)),
+                value, sampleSize, populationSize);
+    }
+
+    /**
+     * Creates a sampled hypergeometric distribution using a closed-form approximation of the probability masses. This
+     * takes constant time per range, and is accurate when the relative error returned by
+     * <code>estimateApproximationError</code> is small.
+     *
+     * @param value           The measured value.
+     * @param sampleSize      The sample size.
+     * @param numberOfSamples The number of samples.
+     * @param populationSize  The population size.
+     * @return A sampled hypergeometric distribution using a closed-form approximation.
+     */
+    static SampledHypergeometricDistribution createApproximation(final Long value, final Long sampleSize,
+            final Long numberOfSamples, final Long populationSize) {
+        RangeGrid grid = RangeGrids.get(numberOfSamples, populationSize);
+        return new SampledHypergeometricDistribution(grid, toBigDecimals(
+                calculateApproximatedProbabilityMasses(grid.getRanges(), value, sampleSize, populationSize)));
+    }
+
+    /**
+     * Returns an alias table to draw the indices of the ranges in proportion to their probability masses, i.e. the
+     * probability masses per value multiplied by the lengths of the ranges.
+     *
+     * @return An alias table to draw the indices of the ranges in proportion to their probability masses.
+     */
+    AliasTable getAliasTable() {
+        AliasTable result = aliasTable;
+        if (result == null) {
+            double[] weights = new double[probabilityMasses.length];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = probabilityMasses[i] * grid.getLength(i);
+            }
+            result = new AliasTable(weights);
+            aliasTable = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj instanceof SampledHypergeometricDistribution) {
+            SampledHypergeometricDistribution other = (SampledHypergeometricDistribution) obj;
+            return grid.equals(other.grid) && Arrays.equals(probabilityMasses, other.probabilityMasses)
+                    && scale.equals(other.scale);
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Estimates the relative error on the probability masses around the mode when they are calculated using the
+     * closed-form approximation, i.e. <i>n</i><sup>3</sup> / (24 <i>N</i><sup>2</sup>). The estimate doesn't depend on
+     * the measured value.
+     *
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @return An estimate of the relative error of the closed-form approximation.
+     */
+    static double estimateApproximationError(final long sampleSize, final long populationSize) {
+        double n = sampleSize;
+        double bigN = populationSize;
+        return n * n * n / (TWENTY_FOUR * bigN * bigN);
     }
 
     @Override
@@ -67,26 +371,122 @@ public final class SampledHypergeometricDistribution extends SortableProbability
         return new BigDecimal(key.getLength());
     }
 
+    @Override
+    public Set<Range> getKeys() {
+        return grid.getRangeSet();
+    }
+
+    @Override
+    Long getNumberOfSamples() {
+        return (long) grid.size();
+    }
+
     /**
-     * Returns the fraction of probability masses (strictly) above a threshold.
+     * Returns the resolution of the range grid, i.e. the number of samples of a uniform grid with the same precision
+     * around the median. For a uniform grid, this is the number of samples. For an adaptive grid, with ranges that
+     * differ more than one in length, it is calculated from the length of the median range.
+     *
+     * @return The resolution of the range grid.
+     */
+    long getResolution() {
+        if (grid.isUniform()) {
+            return grid.size();
+        }
+        return grid.getTotalLength() / getMedian().getLength();
+    }
+
+    @Override
+    public BigDecimal getProbabilityMass(final Range key) {
+        int index = grid.findIndex(key);
+        return index < 0 ? null : getProbabilityMass(index);
+    }
+
+    /**
+     * Returns the probability mass for the range at an index.
+     *
+     * @param index The index of the range.
+     * @return The probability mass for the range at the index.
+     */
+    private BigDecimal getProbabilityMass(final int index) {
+        BigDecimal probabilityMass = toBigDecimal(probabilityMasses[index]);
+        return BigDecimal.ONE.equals(scale) ? probabilityMass : probabilityMass.multiply(scale, MathContext.DECIMAL128);
+    }
+
+    /**
+     * Returns the fraction of probability masses (strictly) above a threshold. The range containing the threshold is
+     * found using a binary search, and the probability mass of the ranges above it is taken from the cumulative
+     * distribution index.
      *
      * @param threshold A threshold.
      * @return The fraction of probability masses above the threshold.
      */
     BigDecimal getProbabilityMassFractionAbove(final long threshold) {
-        BigDecimal accumulated = BigDecimal.ZERO;
-        for (Range r : getSortedKeys()) {
-            if (r.lowerBound() > threshold) {
-                accumulated = accumulated.add(getProbabilityMass(r).multiply(getKeyWeight(r), MathContext.DECIMAL128),
-                        MathContext.DECIMAL128);
-            } else
-            // EQMU: Changing the conditional boundary below produces a mutant that is equivalent because the
-            // calculation in the clause will add zero if the upper bound is equal to the threshold.
-            if (r.upperBound() > threshold) {
-                accumulated = accumulated.add(getProbabilityMass(r).multiply(new BigDecimal(r.upperBound() - threshold),
-                        MathContext.DECIMAL128), MathContext.DECIMAL128);
-            }
+        int firstIndexAbove = grid.findFirstIndexAbove(threshold);
+        BigDecimal accumulated = getAccumulatedProbabilityMassFrom(firstIndexAbove);
+        int thresholdIndex = firstIndexAbove - 1;
+        // EQMU: Changing the conditional boundary below produces a mutant that is equivalent because the calculation in
+        // the clause will add zero if the upper bound is equal to the threshold.
+        if (thresholdIndex >= 0 && grid.get(thresholdIndex).upperBound() > threshold) {
+            accumulated = accumulated.add(getProbabilityMass(thresholdIndex).multiply(
+                    new BigDecimal(grid.get(thresholdIndex).upperBound() - threshold), MathContext.DECIMAL128),
+                    MathContext.DECIMAL128);
         }
         return accumulated.divide(getProbabilityMassSum(), MathContext.DECIMAL128);
     }
+
+    @Override
+    protected List<Range> getSortedKeys() {
+        return grid.getSortedRanges();
+    }
+
+    @Override
+    BigDecimal getWeightedProbabilityMass(final int index) {
+        return getProbabilityMass(index).multiply(new BigDecimal(grid.getLength(index)), MathContext.DECIMAL128);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(grid, Arrays.hashCode(probabilityMasses), scale);
+    }
+
+    /**
+     * Sorts the ranges of a map with ranges and probability masses.
+     *
+     * @param pmf A map with ranges and probability masses.
+     * @return An array with the ranges, in sorted order.
+     */
+    private static Range[] sortRanges(final Map<Range, BigDecimal> pmf) {
+        List<Range> ranges = new ArrayList<Range>(pmf.keySet());
+        Collections.sort(ranges);
+        return ranges.toArray(new Range[ranges.size()]);
+    }
+
+    /**
+     * Converts a double to a <code>BigDecimal</code>. The conversion uses the shortest decimal representation that
+     * rounds to the double, rather than its exact binary expansion, such that a probability mass of 0.1 becomes 0.1 and
+     * not 0.1000000000000000055511151231257827. Probability masses therefore carry at most seventeen significant
+     * digits, which is the precision of the double they're stored in. Trailing zeros are stripped, such that integer
+     * probability masses have scale zero.
+     *
+     * @param d A double.
+     * @return The double as a <code>BigDecimal</code>.
+     */
+    static BigDecimal toBigDecimal(final double d) {
+        BigDecimal result = BigDecimal.valueOf(d).stripTrailingZeros();
+        return result.scale() < 0 ? result.setScale(0) : result;
+    }
+
+    /**
+     * Converts an array of doubles to an array of <code>BigDecimal</code>s.
+     *
+     * @param doubles An array of doubles.
+     * @return An array of <code>BigDecimal</code>s.
+     */
+    private static BigDecimal[] toBigDecimals(final double[] doubles) {
+        BigDecimal[] result = new BigDecimal[doubles.length];
+        for (int i = 0; i < doubles.length; i++) {
+            result[i] = toBigDecimal(doubles[i]);
+        }
+        return result;
+    }
 }
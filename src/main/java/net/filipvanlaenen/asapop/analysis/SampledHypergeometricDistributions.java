@@ -1,8 +1,6 @@
 package net.filipvanlaenen.asapop.analysis;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import net.filipvanlaenen.asapop.filecache.SampledHypergeometricDistributionsFileCache;
 
@@ -11,10 +9,31 @@ import net.filipvanlaenen.asapop.filecache.SampledHypergeometricDistributionsFil
  */
 public final class SampledHypergeometricDistributions {
     /**
-     * A map caching all the sampled hypergeometric distributions created in the <code>get</code> method.
+     * The approximate weight in bytes per range of a sampled hypergeometric distribution: the probability mass as a
+     * double, its entries in the alias table, and the accumulated probability masses in both directions as
+     * <code>BigDecimal</code>s. The range grid itself is shared between distributions, and therefore not counted.
      */
-    private static final Map<List<Long>, SampledHypergeometricDistribution> CACHE =
-            new HashMap<List<Long>, SampledHypergeometricDistribution>();
+    static final long APPROXIMATE_WEIGHT_PER_RANGE = 256L;
+    /**
+     * A cache with all the sampled hypergeometric distributions created in the <code>get</code> method.
+     */
+    private static final SingleFlightCache<List<Long>, SampledHypergeometricDistribution> CACHE =
+            new SingleFlightCache<List<Long>, SampledHypergeometricDistribution>(
+                    SampledHypergeometricDistributions::estimateWeight);
+    /**
+     * A cache with all the sampled hypergeometric distributions created using the closed-form approximation. These are
+     * kept apart from the other ones, and aren't written to the file cache, such that they never replace a
+     * distribution calculated without approximation.
+     */
+    private static final SingleFlightCache<List<Long>, SampledHypergeometricDistribution> APPROXIMATION_CACHE =
+            new SingleFlightCache<List<Long>, SampledHypergeometricDistribution>(
+                    SampledHypergeometricDistributions::estimateWeight);
+    /**
+     * A cache with all the sampled hypergeometric distributions created on an adaptive range grid.
+     */
+    private static final SingleFlightCache<List<Long>, SampledHypergeometricDistribution> ADAPTIVE_CACHE =
+            new SingleFlightCache<List<Long>, SampledHypergeometricDistribution>(
+                    SampledHypergeometricDistributions::estimateWeight);
 
     /**
      * Private constructor to prevent the instantiation of this utility class.
@@ -22,6 +41,16 @@ public final class SampledHypergeometricDistributions {
     private SampledHypergeometricDistributions() {
     }
 
+    /**
+     * Estimates the weight in bytes of a sampled hypergeometric distribution in the caches.
+     *
+     * @param pmf The sampled hypergeometric distribution.
+     * @return The estimated weight in bytes.
+     */
+    static long estimateWeight(final SampledHypergeometricDistribution pmf) {
+        return pmf.getNumberOfSamples() * APPROXIMATE_WEIGHT_PER_RANGE;
+    }
+
     /**
      * Returns a sampled hypergeometric distribution for a given value measured in a sample size for a population size,
      * with at least a given number of samples.
@@ -34,19 +63,96 @@ public final class SampledHypergeometricDistributions {
      */
     public static SampledHypergeometricDistribution get(final Long value, final Long sampleSize,
             final Long minimalNumberOfSamples, final Long populationSize) {
-        List<Long> key = List.of(value, sampleSize, populationSize);
-        SampledHypergeometricDistribution pmf = CACHE.get(key);
-        if (pmf != null && pmf.getNumberOfSamples() >= minimalNumberOfSamples) {
-            return pmf;
+        return CACHE.get(List.of(value, sampleSize, populationSize),
+                pmf -> pmf.getNumberOfSamples() >= minimalNumberOfSamples,
+                () -> load(value, sampleSize, minimalNumberOfSamples, populationSize));
+    }
+
+    /**
+     * Returns a sampled hypergeometric distribution for a given value measured in a sample size for a population size,
+     * with at least a given number of samples. If the estimated relative error of the closed-form approximation is not
+     * larger than the maximal approximation error, the closed-form approximation is used.
+     *
+     * @param value                     The measured value.
+     * @param sampleSize                The sample size.
+     * @param minimalNumberOfSamples    The number of samples.
+     * @param populationSize            The population size.
+     * @param maximalApproximationError The maximal relative error allowed for the closed-form approximation, zero to
+     *                                  never use the approximation.
+     * @return A sampled hypergeometric distribution.
+     */
+    public static SampledHypergeometricDistribution get(final Long value, final Long sampleSize,
+            final Long minimalNumberOfSamples, final Long populationSize, final double maximalApproximationError) {
+        if (maximalApproximationError <= 0D || SampledHypergeometricDistribution.estimateApproximationError(sampleSize,
+                populationSize) > maximalApproximationError) {
+            return get(value, sampleSize, minimalNumberOfSamples, populationSize);
         }
-        pmf = SampledHypergeometricDistributionsFileCache.read(value, sampleSize, populationSize);
+        return APPROXIMATION_CACHE.get(List.of(value, sampleSize, populationSize),
+                pmf -> pmf.getNumberOfSamples() >= minimalNumberOfSamples,
+                () -> SampledHypergeometricDistribution.createApproximation(value, sampleSize, minimalNumberOfSamples,
+                        populationSize));
+    }
+
+    /**
+     * Returns a sampled hypergeometric distribution on an adaptive range grid for a given value measured in a sample
+     * size for a population size. Around the mode, the ranges are as long as in a uniform grid with the requested
+     * resolution, but in the tails they grow geometrically.
+     *
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param resolution     The number of samples of the uniform grid with the same precision around the mode.
+     * @param populationSize The population size.
+     * @return A sampled hypergeometric distribution on an adaptive range grid.
+     */
+    public static SampledHypergeometricDistribution getAdaptive(final Long value, final Long sampleSize,
+            final Long resolution, final Long populationSize) {
+        return ADAPTIVE_CACHE.get(List.of(value, sampleSize, resolution, populationSize),
+                () -> SampledHypergeometricDistribution.createAdaptive(value, sampleSize, resolution, populationSize));
+    }
+
+    /**
+     * Returns the statistics of the caches, added up over the caches for exact, approximated and adaptive
+     * distributions.
+     *
+     * @return The statistics of the caches.
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics().add(APPROXIMATION_CACHE.getStatistics()).add(ADAPTIVE_CACHE.getStatistics());
+    }
+
+    /**
+     * Loads a sampled hypergeometric distribution for a given value measured in a sample size for a population size,
+     * with at least a given number of samples, from the file cache, or calculates it and writes it to the file cache
+     * if the file cache doesn't have it with enough samples.
+     *
+     * @param value                  The measured value.
+     * @param sampleSize             The sample size.
+     * @param minimalNumberOfSamples The number of samples.
+     * @param populationSize         The population size.
+     * @return A sampled hypergeometric distribution.
+     */
+    private static SampledHypergeometricDistribution load(final Long value, final Long sampleSize,
+            final Long minimalNumberOfSamples, final Long populationSize) {
+        SampledHypergeometricDistribution pmf =
+                SampledHypergeometricDistributionsFileCache.read(value, sampleSize, populationSize);
         if (pmf != null && pmf.getNumberOfSamples() >= minimalNumberOfSamples) {
-            CACHE.put(key, pmf);
             return pmf;
         }
         pmf = new SampledHypergeometricDistribution(value, sampleSize, minimalNumberOfSamples, populationSize);
-        CACHE.put(key, pmf);
         SampledHypergeometricDistributionsFileCache.write(value, sampleSize, populationSize, pmf);
         return pmf;
     }
+
+    /**
+     * Sets the maximal weight in bytes of each of the caches. When a cache gets heavier, the least recently used
+     * distributions are evicted from it. Distributions calculated without approximation are kept in the file cache
+     * too, so an evicted distribution is read from the file cache again instead of being recalculated.
+     *
+     * @param maximalWeight The maximal weight in bytes of each of the caches.
+     */
+    public static void setMaximalCacheWeight(final long maximalWeight) {
+        CACHE.setMaximalWeight(maximalWeight);
+        APPROXIMATION_CACHE.setMaximalWeight(maximalWeight);
+        ADAPTIVE_CACHE.setMaximalWeight(maximalWeight);
+    }
 }
@@ -1,8 +1,10 @@
 package net.filipvanlaenen.asapop.analysis;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -10,97 +12,605 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Class representing a multivariate hypergeometric distribution, but sampled.
  */
 class SampledMultivariateHypergeometricDistribution {
     /**
-     * Class functioning as a register to track the largest and the second largest range.
+     * Class holding a snapshot of the ranges to draw from in the simulations in a structure of arrays. The lower
+     * bounds, the midpoints and the weights of the ranges of all the relevant probability mass functions are laid out
+     * next to each other in flat primitive arrays, with the ranges of a relevant probability mass function starting at
+     * its offset. This way, the simulations only index into arrays, instead of looking up the ranges in lists and
+     * their probability masses in maps.
+     *
+     * With uniform sampling, the ranges are the ranges of the 99.9999% confidence intervals, and the weight of a range
+     * is its probability mass. With importance sampling, the ranges are all the ranges of the probability mass
+     * functions, and a range is drawn from a defensive mixture: in proportion to its probability mass in a share of
+     * the draws, and uniformly from the 99.9999% confidence interval in the other draws. The weight of a range is
+     * then the ratio of its probability mass to the probability to draw it, relative to the largest probability mass
+     * of the probability mass function. The uniform share of the mixture bounds the weights of the ranges in the
+     * confidence interval, such that the tails of the confidence interval aren't undersampled.
+     */
+    static final class SimulationSnapshot {
+        /**
+         * The offsets of the ranges of the relevant probability mass functions in the flat arrays.
+         */
+        final int[] offsets;
+        /**
+         * The offsets of the ranges to draw uniformly from, relative to the offsets of the relevant probability mass
+         * functions.
+         */
+        final int[] uniformOffsets;
+        /**
+         * The number of ranges to draw uniformly from for the relevant probability mass functions.
+         */
+        final int[] uniformSizes;
+        /**
+         * The lower bounds of the ranges.
+         */
+        final long[] lowerBounds;
+        /**
+         * The midpoints of the ranges.
+         */
+        final long[] midpoints;
+        /**
+         * The natural logarithms of the weights of the ranges, or null if <code>BigDecimal</code>s are used.
+         */
+        final double[] logarithmicWeights;
+        /**
+         * The weights of the ranges as <code>BigDecimal</code>s, or null if doubles are used.
+         */
+        final BigDecimal[] weights;
+
+        /**
+         * Constructor taking the relevant probability mass functions, whether importance sampling is used and the math
+         * context for the weights as <code>BigDecimal</code>s as its parameters.
+         *
+         * @param probabilityMassFunctions The relevant probability mass functions.
+         * @param importanceSampling       True if importance sampling is used.
+         * @param mathContext              The math context for the weights as <code>BigDecimal</code>s, or null if
+         *                                 doubles are used.
+         */
+        SimulationSnapshot(final List<SampledHypergeometricDistribution> probabilityMassFunctions,
+                final boolean importanceSampling, final MathContext mathContext) {
+            boolean withBigDecimals = mathContext != null;
+            int n = probabilityMassFunctions.size();
+            List<List<Range>> rangesList = new ArrayList<List<Range>>();
+            offsets = new int[n];
+            uniformOffsets = new int[n];
+            uniformSizes = new int[n];
+            int total = 0;
+            for (int i = 0; i < n; i++) {
+                SampledHypergeometricDistribution probabilityMassFunction = probabilityMassFunctions.get(i);
+                List<Range> confidenceIntervalRanges = probabilityMassFunction.getConfidenceIntervalKeyList(SIX_NINES);
+                List<Range> ranges = importanceSampling ? probabilityMassFunction.getSortedKeys()
+                        : confidenceIntervalRanges;
+                rangesList.add(ranges);
+                offsets[i] = total;
+                uniformOffsets[i] =
+                        importanceSampling ? Collections.binarySearch(ranges, confidenceIntervalRanges.get(0)) : 0;
+                uniformSizes[i] = confidenceIntervalRanges.size();
+                total += ranges.size();
+            }
+            lowerBounds = new long[total];
+            midpoints = new long[total];
+            logarithmicWeights = withBigDecimals ? null : new double[total];
+            weights = withBigDecimals ? new BigDecimal[total] : null;
+            for (int i = 0; i < n; i++) {
+                SampledHypergeometricDistribution probabilityMassFunction = probabilityMassFunctions.get(i);
+                List<Range> ranges = rangesList.get(i);
+                double[] logarithmicImportanceWeights =
+                        importanceSampling && !withBigDecimals ? calculateLogarithmicImportanceWeights(
+                                probabilityMassFunction, ranges, uniformOffsets[i], uniformSizes[i]) : null;
+                BigDecimal[] importanceWeights =
+                        importanceSampling && withBigDecimals ? calculateImportanceWeights(probabilityMassFunction,
+                                ranges, uniformOffsets[i], uniformSizes[i], mathContext) : null;
+                for (int j = 0; j < ranges.size(); j++) {
+                    Range range = ranges.get(j);
+                    int index = offsets[i] + j;
+                    lowerBounds[index] = range.lowerBound();
+                    midpoints[index] = range.getMidpoint();
+                    if (importanceSampling) {
+                        if (withBigDecimals) {
+                            weights[index] = importanceWeights[j];
+                        } else {
+                            logarithmicWeights[index] = logarithmicImportanceWeights[j];
+                        }
+                    } else {
+                        BigDecimal probabilityMass = probabilityMassFunction.getProbabilityMass(range);
+                        if (withBigDecimals) {
+                            weights[index] = probabilityMass;
+                        } else {
+                            logarithmicWeights[index] = log(probabilityMass);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Calculates the weights of the ranges of a probability mass function for importance sampling as
+         * <code>BigDecimal</code>s in a math context, i.e. the ratios of the probability masses of the ranges to the
+         * probabilities to draw them from the defensive mixture. The probability masses of the ranges are taken
+         * relative to the largest one, and multiplied by the lengths of the ranges, like in the alias table of the
+         * probability mass function.
+         *
+         * @param probabilityMassFunction The probability mass function.
+         * @param ranges                  All the ranges of the probability mass function, in sorted order.
+         * @param uniformOffset           The offset of the ranges to draw uniformly from.
+         * @param uniformSize             The number of ranges to draw uniformly from.
+         * @param mathContext             The math context.
+         * @return The weights of the ranges.
+         */
+        private static BigDecimal[] calculateImportanceWeights(
+                final SampledHypergeometricDistribution probabilityMassFunction, final List<Range> ranges,
+                final int uniformOffset, final int uniformSize, final MathContext mathContext) {
+            BigDecimal[] probabilityMasses = new BigDecimal[ranges.size()];
+            BigDecimal maximum = BigDecimal.ZERO;
+            for (int j = 0; j < probabilityMasses.length; j++) {
+                probabilityMasses[j] = probabilityMassFunction.getProbabilityMass(ranges.get(j));
+                maximum = maximum.max(probabilityMasses[j]);
+            }
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int j = 0; j < probabilityMasses.length; j++) {
+                probabilityMasses[j] = probabilityMasses[j].divide(maximum, mathContext)
+                        .multiply(BigDecimal.valueOf(ranges.get(j).getLength()), mathContext);
+                sum = sum.add(probabilityMasses[j], mathContext);
+            }
+            BigDecimal importanceShare = BigDecimal.valueOf(IMPORTANCE_SHARE);
+            BigDecimal uniformProbability =
+                    BigDecimal.ONE.subtract(importanceShare).divide(BigDecimal.valueOf(uniformSize), mathContext);
+            BigDecimal[] result = new BigDecimal[probabilityMasses.length];
+            for (int j = 0; j < result.length; j++) {
+                if (probabilityMasses[j].signum() == 0) {
+                    result[j] = BigDecimal.ZERO;
+                } else {
+                    BigDecimal probabilityToDraw =
+                            importanceShare.multiply(probabilityMasses[j], mathContext).divide(sum, mathContext);
+                    if (j >= uniformOffset && j < uniformOffset + uniformSize) {
+                        probabilityToDraw = probabilityToDraw.add(uniformProbability, mathContext);
+                    }
+                    result[j] = probabilityMasses[j].divide(probabilityToDraw, mathContext);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Calculates the natural logarithms of the weights of the ranges of a probability mass function for importance
+         * sampling, i.e. the ratios of the probability masses of the ranges to the probabilities to draw them from the
+         * defensive mixture. The probability masses of the ranges are taken relative to the largest one, and multiplied
+         * by the lengths of the ranges, like in the alias table of the probability mass function.
+         *
+         * @param probabilityMassFunction The probability mass function.
+         * @param ranges                  All the ranges of the probability mass function, in sorted order.
+         * @param uniformOffset           The offset of the ranges to draw uniformly from.
+         * @param uniformSize             The number of ranges to draw uniformly from.
+         * @return The natural logarithms of the weights of the ranges.
+         */
+        private static double[] calculateLogarithmicImportanceWeights(
+                final SampledHypergeometricDistribution probabilityMassFunction, final List<Range> ranges,
+                final int uniformOffset, final int uniformSize) {
+            double[] logarithmicProbabilityMasses = new double[ranges.size()];
+            for (int j = 0; j < logarithmicProbabilityMasses.length; j++) {
+                logarithmicProbabilityMasses[j] = log(probabilityMassFunction.getProbabilityMass(ranges.get(j)));
+            }
+            double[] probabilityMasses = calculateRelativeProbabilityMasses(logarithmicProbabilityMasses);
+            double sum = 0D;
+            for (int j = 0; j < probabilityMasses.length; j++) {
+                probabilityMasses[j] *= ranges.get(j).getLength();
+                sum += probabilityMasses[j];
+            }
+            double[] result = new double[probabilityMasses.length];
+            for (int j = 0; j < result.length; j++) {
+                double uniformProbability =
+                        j >= uniformOffset && j < uniformOffset + uniformSize ? 1D / uniformSize : 0D;
+                // The ratio is calculated as the inverse of the probability to draw the range divided by its
+                // probability mass, such that it doesn't overflow for probability masses close to the smallest double.
+                result[j] = probabilityMasses[j] == 0D ? Double.NEGATIVE_INFINITY
+                        : -Math.log(IMPORTANCE_SHARE / sum
+                                + (1D - IMPORTANCE_SHARE) * uniformProbability / probabilityMasses[j]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Class running a share of the simulations on a worker thread, with its own sampler and its own accumulators, such
+     * that no state is shared between the workers during the simulations. A worker can be run
+     * multiple times, once per batch, and keeps accumulating over the batches.
+     *
+     * Each iteration is weighted by the product of the weights of the drawn ranges in the simulation snapshot and the
+     * probability mass of the remainder for others. With uniform sampling, the ranges are drawn uniformly from the
+     * confidence intervals. With importance sampling, a share of the ranges are drawn in proportion to their
+     * probability masses using the alias tables of the probability mass functions, and the others uniformly from the
+     * confidence intervals. In both cases, the ranges are drawn using the coordinates of a point produced by the
+     * sampler of the worker, one coordinate per relevant probability mass function.
+     *
+     * The drawn ranges are tracked as indices into the flat arrays of the simulation snapshot, and the largest and the
+     * second largest range are tracked in primitive fields, such that an iteration doesn't touch any objects.
      */
-    static class WinnersRegister {
+    private final class SimulationWorker {
+        /**
+         * The sampler of the worker.
+         */
+        private final Sampler sampler;
+        /**
+         * The current point of the sampler.
+         */
+        private final double[] point;
+        /**
+         * The alias tables of the relevant probability mass functions, or null if the ranges are drawn uniformly.
+         */
+        private final AliasTable[] aliasTables;
+        /**
+         * The snapshot of the ranges to draw from.
+         */
+        private final SimulationSnapshot snapshot;
         /**
-         * The largest range.
+         * The indices in the flat arrays of the snapshot of the ranges drawn in the current iteration.
          */
-        private Range largestRange;
+        private final int[] drawnIndices;
         /**
-         * The second largest range.
+         * The population size.
          */
-        private Range secondLargestRange;
+        private final long populationSize;
         /**
-         * The index of the largest range.
+         * The accumulated probability masses indexed by outcome, when <code>BigDecimal</code>s are used.
          */
-        private Integer indexOfLargestRange;
+        private final BigDecimal[] accumulator;
         /**
-         * The index of the second largest range.
+         * The tracker for the standard errors, indexed by outcome. When doubles are used, it also holds the
+         * accumulated probability masses.
          */
-        private Integer indexOfSecondLargestRange;
+        private final ConvergenceTracker convergenceTracker;
+        /**
+         * The remainder left by the ranges drawn in the current iteration.
+         */
+        private long remainder;
+        /**
+         * The index of the relevant probability mass function with the largest range in the current iteration.
+         */
+        private int indexOfLargestRange;
+        /**
+         * The index of the relevant probability mass function with the second largest range in the current
+         * iteration.
+         */
+        private int indexOfSecondLargestRange;
+        /**
+         * The index in the flat arrays of the snapshot of the largest range in the current iteration.
+         */
+        private int drawnIndexOfLargestRange;
 
         /**
-         * Returns the index of the largest range.
+         * Constructor taking the random number generator and the prepared data for the simulations as its
+         * parameters.
          *
-         * @return The index of the largest range.
+         * @param random         The random number generator for the sampler of the worker.
+         * @param aliasTables    The alias tables of the relevant probability mass functions, or null if the ranges
+         *                       are drawn uniformly.
+         * @param snapshot       The snapshot of the ranges to draw from.
+         * @param populationSize The population size.
          */
-        int getIndexOfLargestRange() {
-            return indexOfLargestRange;
+        SimulationWorker(final SplittableRandom random, final AliasTable[] aliasTables,
+                final SimulationSnapshot snapshot, final long populationSize) {
+            int n = relevantProbabilityMassFunctions.size();
+            this.sampler = settings.samplerType().createSampler(n, random);
+            this.point = new double[n];
+            this.aliasTables = aliasTables;
+            this.snapshot = snapshot;
+            this.drawnIndices = new int[n];
+            this.populationSize = populationSize;
+            int numberOfOutcomes = calculateNumberOfOutcomes();
+            this.accumulator = new BigDecimal[numberOfOutcomes];
+            this.convergenceTracker = new ConvergenceTracker(numberOfOutcomes);
         }
 
         /**
-         * Returns the index of the second largest range.
+         * Calculates the outcome of the current iteration, i.e. the index of the relevant probability mass function
+         * with the largest range if it has more than half of the population size, or the pair of the two relevant
+         * probability mass functions with the largest ranges otherwise.
          *
-         * @return The index of the second largest range.
+         * @param halfPopulationSize Half of the population size.
+         * @return The outcome of the current iteration.
          */
-        int getIndexOfSecondLargestRange() {
-            return indexOfSecondLargestRange;
+        private int calculateOutcome(final long halfPopulationSize) {
+            // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent.
+            return snapshot.midpoints[drawnIndexOfLargestRange] > halfPopulationSize ? indexOfLargestRange
+                    : calculatePairOutcome(indexOfLargestRange, indexOfSecondLargestRange);
         }
 
         /**
-         * Returns the largest range.
+         * Draws a range for each relevant probability mass function using a new point from the sampler, and tracks
+         * the remainder and the two largest ranges. Ranges are compared on their lower bounds, and of two equal ranges,
+         * the first one drawn is considered the largest one.
+         */
+        private void drawRanges() {
+            sampler.next(point);
+            long[] lowerBounds = snapshot.lowerBounds;
+            long[] midpoints = snapshot.midpoints;
+            long largestLowerBound = 0L;
+            long secondLargestLowerBound = 0L;
+            remainder = populationSize;
+            indexOfSecondLargestRange = -1;
+            for (int i = 0; i < drawnIndices.length; i++) {
+                int index = snapshot.offsets[i] + drawRangeIndex(i);
+                drawnIndices[i] = index;
+                remainder -= midpoints[index];
+                long lowerBound = lowerBounds[index];
+                if (i == 0 || largestLowerBound < lowerBound) {
+                    secondLargestLowerBound = largestLowerBound;
+                    indexOfSecondLargestRange = i == 0 ? -1 : indexOfLargestRange;
+                    largestLowerBound = lowerBound;
+                    indexOfLargestRange = i;
+                    drawnIndexOfLargestRange = index;
+                } else if (indexOfSecondLargestRange == -1 || secondLargestLowerBound < lowerBound) {
+                    secondLargestLowerBound = lowerBound;
+                    indexOfSecondLargestRange = i;
+                }
+            }
+        }
+
+        /**
+         * Draws the index of a range for a relevant probability mass function, using the coordinate of the current
+         * point for the relevant probability mass function.
          *
-         * @return The largest range.
+         * @param i The index of the relevant probability mass function.
+         * @return The index of the drawn range.
          */
-        Range getLargestRange() {
-            return largestRange;
+        private int drawRangeIndex(final int i) {
+            double u = point[i];
+            if (aliasTables != null) {
+                if (u < IMPORTANCE_SHARE) {
+                    return aliasTables[i].sample(u / IMPORTANCE_SHARE);
+                }
+                u = (u - IMPORTANCE_SHARE) / (1D - IMPORTANCE_SHARE);
+            }
+            int size = snapshot.uniformSizes[i];
+            return snapshot.uniformOffsets[i] + Math.min((int) (u * size), size - 1);
         }
 
         /**
-         * Initializes the register to start a new round.
+         * Runs a batch of simulations, using the arithmetic of the precision policy.
+         *
+         * @param numberOfIterationsForBatch The number of iterations to be performed in the batch.
          */
-        void initialize() {
-            indexOfLargestRange = null;
-            indexOfSecondLargestRange = null;
+        void run(final long numberOfIterationsForBatch) {
+            if (settings.precisionPolicy().usesBigDecimals()) {
+                runWithBigDecimals(numberOfIterationsForBatch);
+            } else {
+                runInLogarithmicSpace(numberOfIterationsForBatch);
+            }
         }
 
         /**
-         * Updates the register with a new range and index.
+         * Runs a batch of simulations with <code>BigDecimal</code>s. The probability masses are accumulated using the
+         * precision policy's math context.
          *
-         * @param range A new range.
-         * @param index The index of the new range.
-         */
-        void update(final Range range, final int index) {
-            if (indexOfLargestRange == null) {
-                largestRange = range;
-                indexOfLargestRange = index;
-            } else if (indexOfSecondLargestRange == null) {
-                if (range.compareTo(largestRange) <= 0) {
-                    secondLargestRange = range;
-                    indexOfSecondLargestRange = index;
-                } else {
-                    secondLargestRange = largestRange;
+         * @param numberOfIterationsForBatch The number of iterations to be performed in the batch.
+         */
+        private void runWithBigDecimals(final long numberOfIterationsForBatch) {
+            long halfPopulationSize = populationSize / 2L;
+            long iterations = 0;
+            MathContext mathContext = settings.precisionPolicy().getMathContext();
+            BigDecimal[] weights = snapshot.weights;
+            while (iterations < numberOfIterationsForBatch) {
+                drawRanges();
+                BigDecimal probabilityMass = BigDecimal.ONE;
+                for (int index : drawnIndices) {
+                    probabilityMass = probabilityMass.multiply(weights[index], mathContext);
+                }
+                BigDecimal probabilityMassForOther = getProbabilityMassForRemainder(remainder);
+                if (!probabilityMassForOther.equals(BigDecimal.ZERO)) {
+                    probabilityMass = probabilityMass.multiply(probabilityMassForOther, mathContext);
+                    int outcome = calculateOutcome(halfPopulationSize);
+                    accumulate(accumulator, outcome, probabilityMass, mathContext);
+                    convergenceTracker.add(outcome, log(probabilityMass));
+                    iterations += 1;
+                }
+            }
+        }
+
+        /**
+         * Runs a batch of simulations in logarithmic space. The probability masses are accumulated by the convergence
+         * tracker into primitive arrays using compensated summation. No objects are allocated in the loop.
+         *
+         * @param numberOfIterationsForBatch The number of iterations to be performed in the batch.
+         */
+        private void runInLogarithmicSpace(final long numberOfIterationsForBatch) {
+            long halfPopulationSize = populationSize / 2L;
+            long iterations = 0;
+            double[] logarithmicWeights = snapshot.logarithmicWeights;
+            while (iterations < numberOfIterationsForBatch) {
+                drawRanges();
+                int indexForOther = findRangeIndexForRemainder(remainder);
+                if (indexForOther == -1) {
+                    continue;
+                }
+                double logarithmicProbabilityMassForOther = logarithmicProbabilityMassesForOthers[indexForOther];
+                if (logarithmicProbabilityMassForOther != Double.NEGATIVE_INFINITY) {
+                    double logarithmicProbabilityMass = 0D;
+                    for (int index : drawnIndices) {
+                        logarithmicProbabilityMass += logarithmicWeights[index];
+                    }
+                    logarithmicProbabilityMass += logarithmicProbabilityMassForOther;
+                    convergenceTracker.add(calculateOutcome(halfPopulationSize), logarithmicProbabilityMass);
+                    iterations += 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Class calculating the probability masses exactly, by enumerating all the combinations of the ranges of the
+     * relevant probability mass functions that the simulations draw from with uniform sampling, and weighting each
+     * combination like the simulations do. The probability masses are handled as doubles relative to the largest
+     * probability mass of each probability mass function, since constant factors cancel out in the end.
+     *
+     * The enumeration is split into one task per range of the first relevant probability mass function. The tasks run
+     * in parallel, each accumulating into its own sums, and the sums of the tasks are merged in the order of the
+     * ranges, such that the result doesn't depend on the number of threads.
+     */
+    private final class ExactCalculator {
+        /**
+         * The lower bounds of the ranges of the relevant probability mass functions.
+         */
+        private final long[][] lowerBounds;
+        /**
+         * The midpoints of the ranges of the relevant probability mass functions.
+         */
+        private final long[][] midpoints;
+        /**
+         * The relative probability masses of the ranges of the relevant probability mass functions.
+         */
+        private final double[][] probabilityMasses;
+        /**
+         * The relative probability masses of the ranges for others.
+         */
+        private final double[] probabilityMassesForOthers;
+        /**
+         * The population size.
+         */
+        private final long populationSize;
+
+        /**
+         * Constructor taking the ranges, their probability masses and the population size as its parameters.
+         *
+         * @param rangesList                 The sorted lists with the ranges of the relevant probability mass
+         *                                   functions.
+         * @param probabilityMasses          The relative probability masses of the ranges.
+         * @param probabilityMassesForOthers The relative probability masses of the ranges for others.
+         * @param populationSize             The population size.
+         */
+        ExactCalculator(final List<List<Range>> rangesList, final double[][] probabilityMasses,
+                final double[] probabilityMassesForOthers, final long populationSize) {
+            this.probabilityMasses = probabilityMasses;
+            this.probabilityMassesForOthers = probabilityMassesForOthers;
+            this.populationSize = populationSize;
+            int n = rangesList.size();
+            lowerBounds = new long[n][];
+            midpoints = new long[n][];
+            for (int i = 0; i < n; i++) {
+                List<Range> ranges = rangesList.get(i);
+                lowerBounds[i] = new long[ranges.size()];
+                midpoints[i] = new long[ranges.size()];
+                for (int k = 0; k < ranges.size(); k++) {
+                    lowerBounds[i][k] = ranges.get(k).lowerBound();
+                    midpoints[i][k] = ranges.get(k).getMidpoint();
+                }
+            }
+        }
+
+        /**
+         * Adds the probability mass of a combination to the accumulated probability mass of its outcome. The largest
+         * and the second largest range are determined like in the simulations, i.e. ranges are compared on their lower
+         * bounds, and of two equal ranges, the one of the first relevant probability mass function is considered the
+         * largest one.
+         *
+         * @param indices         The indices of the ranges in the combination.
+         * @param remainder       The remainder left by the combination.
+         * @param probabilityMass The product of the probability masses of the ranges in the combination.
+         * @param sums            The accumulated probability masses indexed by outcome.
+         */
+        private void accumulate(final int[] indices, final long remainder, final double probabilityMass,
+                final CompensatedSums sums) {
+            int indexForOther = findRangeIndexForRemainder(remainder);
+            if (indexForOther == -1) {
+                return;
+            }
+            double totalProbabilityMass = probabilityMass * probabilityMassesForOthers[indexForOther];
+            if (totalProbabilityMass == 0D) {
+                return;
+            }
+            int indexOfLargestRange = 0;
+            int indexOfSecondLargestRange = -1;
+            long largestLowerBound = lowerBounds[0][indices[0]];
+            long secondLargestLowerBound = 0L;
+            for (int i = 1; i < indices.length; i++) {
+                long lowerBound = lowerBounds[i][indices[i]];
+                if (largestLowerBound < lowerBound) {
+                    secondLargestLowerBound = largestLowerBound;
                     indexOfSecondLargestRange = indexOfLargestRange;
-                    largestRange = range;
-                    indexOfLargestRange = index;
+                    largestLowerBound = lowerBound;
+                    indexOfLargestRange = i;
+                } else if (indexOfSecondLargestRange == -1 || secondLargestLowerBound < lowerBound) {
+                    secondLargestLowerBound = lowerBound;
+                    indexOfSecondLargestRange = i;
+                }
+            }
+            // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent.
+            int outcome = midpoints[indexOfLargestRange][indices[indexOfLargestRange]] > populationSize / 2L
+                    ? indexOfLargestRange
+                    : calculatePairOutcome(indexOfLargestRange, indexOfSecondLargestRange);
+            sums.add(outcome, totalProbabilityMass);
+        }
+
+        /**
+         * Calculates the accumulated probability masses indexed by outcome, running the tasks in parallel and merging
+         * their sums in the order of the ranges of the first relevant probability mass function.
+         *
+         * @return The accumulated probability masses indexed by outcome.
+         */
+        CompensatedSums calculate() {
+            List<CompensatedSums> taskSums = IntStream.range(0, midpoints[0].length).parallel()
+                    .mapToObj(this::enumerate).collect(Collectors.toList());
+            CompensatedSums result = new CompensatedSums(calculateNumberOfOutcomes());
+            for (CompensatedSums sums : taskSums) {
+                for (int i = 0; i < result.size(); i++) {
+                    result.add(i, sums.getSum(i));
                 }
-            } else if (largestRange.compareTo(range) < 0) {
-                secondLargestRange = largestRange;
-                indexOfSecondLargestRange = indexOfLargestRange;
-                largestRange = range;
-                indexOfLargestRange = index;
-            } else if (secondLargestRange.compareTo(range) < 0) {
-                secondLargestRange = range;
-                indexOfSecondLargestRange = index;
+            }
+            return result;
+        }
+
+        /**
+         * Enumerates the combinations of ranges starting with a range of the first relevant probability mass function.
+         *
+         * @param k The index of the range of the first relevant probability mass function.
+         * @return The accumulated probability masses of the combinations indexed by outcome.
+         */
+        private CompensatedSums enumerate(final int k) {
+            CompensatedSums sums = new CompensatedSums(calculateNumberOfOutcomes());
+            int[] indices = new int[midpoints.length];
+            indices[0] = k;
+            enumerate(indices, 1, populationSize - midpoints[0][k], probabilityMasses[0][k], sums);
+            return sums;
+        }
+
+        /**
+         * Enumerates the combinations of the ranges of the relevant probability mass functions from an index on. Since
+         * the ranges are sorted, the enumeration of a probability mass function stops as soon as the remainder drops
+         * below its lower bound.
+         *
+         * @param indices         The indices of the ranges of the previous relevant probability mass functions.
+         * @param i               The index of the relevant probability mass function to enumerate the ranges of.
+         * @param remainder       The remainder left by the ranges of the previous relevant probability mass functions.
+         * @param probabilityMass The product of the probability masses of the ranges of the previous relevant
+         *                        probability mass functions.
+         * @param sums            The accumulated probability masses indexed by outcome.
+         */
+        private void enumerate(final int[] indices, final int i, final long remainder, final double probabilityMass,
+                final CompensatedSums sums) {
+            if (probabilityMass == 0D) {
+                return;
+            }
+            if (i == indices.length) {
+                accumulate(indices, remainder, probabilityMass, sums);
+                return;
+            }
+            for (int k = 0; k < midpoints[i].length; k++) {
+                long newRemainder = remainder - midpoints[i][k];
+                // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent.
+                if (newRemainder < lowerBoundForRemainder) {
+                    break;
+                }
+                indices[i] = k;
+                enumerate(indices, i + 1, newRemainder, probabilityMass * probabilityMasses[i][k], sums);
             }
         }
     }
@@ -108,7 +618,34 @@ class SampledMultivariateHypergeometricDistribution {
     /**
      * The magic number 0.999999 (six nines).
      */
-    private static final double SIX_NINES = 0.999999;
+    static final double SIX_NINES = 0.999999;
+    /**
+     * The share of the draws with importance sampling that are drawn in proportion to the probability masses. The
+     * other draws are drawn uniformly from the 99.9999% confidence interval.
+     */
+    private static final double IMPORTANCE_SHARE = 0.5D;
+    /**
+     * The magic number sixty, the number of bits kept when the logarithm of a <code>BigDecimal</code> is calculated.
+     */
+    private static final int SIXTY = 60;
+    /**
+     * The minimal number of iterations per worker thread when the simulations are split across worker threads.
+     */
+    static final long MINIMAL_NUMBER_OF_ITERATIONS_PER_WORKER = 50_000L;
+    /**
+     * The number of iterations per batch when the simulations stop once the convergence tolerance is reached.
+     */
+    static final long NUMBER_OF_ITERATIONS_PER_BATCH = 10_000L;
+    /**
+     * The maximal number of worker threads for seeded simulations, fixed such that the results don't depend on the
+     * number of available processors.
+     */
+    static final long MAXIMAL_NUMBER_OF_WORKERS_FOR_SEEDED_SIMULATIONS = 8L;
+    /**
+     * The maximal number of relevant probability mass functions for which the probability masses can be calculated
+     * exactly.
+     */
+    static final int MAXIMAL_NUMBER_OF_RELEVANT_PROBABILITY_MASS_FUNCTIONS_FOR_EXACT_CALCULATION = 4;
     /**
      * The probability mass functions.
      */
@@ -118,19 +655,16 @@ class SampledMultivariateHypergeometricDistribution {
      */
     private final Map<SampledHypergeometricDistribution, Integer> probabilityMassFunctionCardinalities;
     /**
-     * A map with the accumulated probability masses for the probability mass functions as single winners of the first
-     * round, with equal probability mass functions combined together.
+     * The accumulated probability masses indexed by outcome, i.e. first for the relevant probability mass functions as
+     * single winners of the first round, and then for the pairs of relevant probability mass functions as winners of
+     * the first round, stored as a triangular matrix with an extra column for the case without a second probability
+     * mass function. Null means that no probability mass has been accumulated for an outcome.
      */
-    private final Map<Integer, BigDecimal> accumulatedSingleWinnerProbabilityMasses;
+    private BigDecimal[] accumulatedProbabilityMasses;
     /**
      * A map with the probability masses for the probability mass functions as single winners of the first round.
      */
     private final Map<SampledHypergeometricDistribution, Double> singleWinnerProbabilityMasses;
-    /**
-     * A map with the accumulated probability masses for pairs of probability mass functions as winners of the first
-     * round, with equal probability mass functions combined together.
-     */
-    private final Map<Set<Integer>, BigDecimal> accumulatedPairProbabilityMasses;
     /**
      * A map with the probability masses for the probability mass function pairs as winners of the first round.
      */
@@ -144,13 +678,21 @@ class SampledMultivariateHypergeometricDistribution {
      */
     private SampledHypergeometricDistribution probabilityMassFunctionForOthers;
     /**
-     * A map containing the ranges per probability mass function.
+     * The list of ranges of the 99.9999% confidence interval of the probability mass function for others.
      */
-    private Map<SampledHypergeometricDistribution, List<Range>> rangesMap;
+    private List<Range> rangesForOthers;
     /**
      * The number of iterations performed.
      */
     private long numberOfIterations;
+    /**
+     * The largest standard error of the estimated probability masses.
+     */
+    private double standardError;
+    /**
+     * Whether the probability masses were calculated exactly instead of simulated.
+     */
+    private boolean exactlyCalculated;
     /**
      * The lower bound for the remainder.
      */
@@ -160,9 +702,21 @@ class SampledMultivariateHypergeometricDistribution {
      */
     private long upperBoundForRemainder;
     /**
-     * A map containing the probability masses per remainder.
+     * The upper bounds of the ranges for others, in sorted order, to look up the range containing a remainder.
+     */
+    private long[] upperBoundsForOthers;
+    /**
+     * The probability masses of the ranges for others.
      */
-    private Map<Long, BigDecimal> probabilityMassesForRemainders = new HashMap<Long, BigDecimal>();
+    private BigDecimal[] probabilityMassesForOthers;
+    /**
+     * The natural logarithms of the probability masses of the ranges for others.
+     */
+    private double[] logarithmicProbabilityMassesForOthers;
+    /**
+     * The settings for the simulations.
+     */
+    private final SimulationSettings settings;
 
     /**
      * Creates a sampled multivariate hypergeometric distribution based on a set of probability mass functions for an
@@ -177,28 +731,58 @@ class SampledMultivariateHypergeometricDistribution {
     SampledMultivariateHypergeometricDistribution(
             final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
             final long sampleSize, final long requestedNumberOfIterations) {
+        this(probabilityMassFunctions, populationSize, sampleSize, requestedNumberOfIterations,
+                SimulationSettings.DEFAULT, new SplittableRandom(),
+                calculateNumberOfWorkers(requestedNumberOfIterations));
+    }
+
+    /**
+     * Creates a sampled multivariate hypergeometric distribution based on a set of probability mass functions for an
+     * sample size in a population size, for a requested number of iterations, using simulation settings, a random
+     * number generator and a number of worker threads for the simulations. Each worker thread gets its own random
+     * number generator split off from the one passed as a parameter, such that the results are reproducible for a
+     * seeded random number generator and a fixed number of worker threads. If the settings have a convergence
+     * tolerance, the requested number of iterations is an upper limit. If the number of worker threads is zero, the
+     * probability masses are calculated exactly instead, and the number of iterations is the number of combinations
+     * of ranges enumerated.
+     *
+     * @param probabilityMassFunctions    The probability mass functions to base the sampled multivariate hypergeometric
+     *                                    distribution on.
+     * @param populationSize              The population size.
+     * @param sampleSize                  The sample size.
+     * @param requestedNumberOfIterations The requested number of iterations.
+     * @param settings                    The settings for the simulations.
+     * @param random                      The random number generator for the simulations.
+     * @param numberOfWorkers             The number of worker threads for the simulations, or zero for an exact
+     *                                    calculation.
+     */
+    SampledMultivariateHypergeometricDistribution(
+            final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
+            final long sampleSize, final long requestedNumberOfIterations, final SimulationSettings settings,
+            final SplittableRandom random, final int numberOfWorkers) {
+        this.settings = settings;
         this.probabilityMassFunctions = Collections.unmodifiableList(probabilityMassFunctions);
         probabilityMassFunctionCardinalities = new HashMap<SampledHypergeometricDistribution, Integer>();
-        accumulatedSingleWinnerProbabilityMasses = new HashMap<Integer, BigDecimal>();
         singleWinnerProbabilityMasses = new HashMap<SampledHypergeometricDistribution, Double>();
-        accumulatedPairProbabilityMasses = new HashMap<Set<Integer>, BigDecimal>();
         pairProbabilityMasses = new HashMap<Set<SampledHypergeometricDistribution>, Double>();
         relevantProbabilityMassFunctions = new ArrayList<SampledHypergeometricDistribution>();
         calculateCardinalities();
         filterRelevantProbabilityMassFunctions();
+        accumulatedProbabilityMasses = new BigDecimal[calculateNumberOfOutcomes()];
         long halfPopulationSize = populationSize / 2L;
         ConfidenceInterval<Range> confidenceIntervalOfLargestList =
                 relevantProbabilityMassFunctions.get(0).getConfidenceInterval(SIX_NINES);
         if (isConfidenceIntervalAbove(confidenceIntervalOfLargestList, halfPopulationSize)) {
-            accumulatedSingleWinnerProbabilityMasses.put(0, BigDecimal.ONE);
+            accumulatedProbabilityMasses[0] = BigDecimal.ONE;
             numberOfIterations = requestedNumberOfIterations;
+            exactlyCalculated = true;
         } else
         // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent.
         if (relevantProbabilityMassFunctions.size() <= 2
                 && isConfidenceIntervalBelow(confidenceIntervalOfLargestList, halfPopulationSize)) {
-            accumulatedPairProbabilityMasses.put(Set.of(0, relevantProbabilityMassFunctions.size() == 1 ? -1 : 1),
-                    BigDecimal.ONE);
+            accumulatedProbabilityMasses[calculatePairOutcome(0, 1)] = BigDecimal.ONE;
             numberOfIterations = requestedNumberOfIterations;
+            exactlyCalculated = true;
         } else if (relevantProbabilityMassFunctions.size() <= 2
                 && !isConfidenceIntervalBelow(confidenceIntervalOfLargestList, halfPopulationSize)
                 && (relevantProbabilityMassFunctions.size() == 1 || isConfidenceIntervalBelow(
@@ -206,21 +790,41 @@ class SampledMultivariateHypergeometricDistribution {
                         halfPopulationSize))) {
             BigDecimal probabilityForDirectWin =
                     relevantProbabilityMassFunctions.get(0).getProbabilityMassFractionAbove(halfPopulationSize);
-            accumulatedSingleWinnerProbabilityMasses.put(0, probabilityForDirectWin);
-            accumulatedPairProbabilityMasses.put(Set.of(0, relevantProbabilityMassFunctions.size() == 1 ? -1 : 1),
-                    BigDecimal.ONE.subtract(probabilityForDirectWin, MathContext.DECIMAL128));
+            accumulatedProbabilityMasses[0] = probabilityForDirectWin;
+            accumulatedProbabilityMasses[calculatePairOutcome(0, 1)] =
+                    BigDecimal.ONE.subtract(probabilityForDirectWin, MathContext.DECIMAL128);
             numberOfIterations = requestedNumberOfIterations;
+            exactlyCalculated = true;
         } else {
             probabilityMassFunctionForOthers = calculateProbabilityMassFunctionForOthers(populationSize, sampleSize);
-            rangesMap = calculateRanges();
-            List<Range> rangesForOthers = rangesMap.get(probabilityMassFunctionForOthers);
+            rangesForOthers = probabilityMassFunctionForOthers.getConfidenceIntervalKeyList(SIX_NINES);
             lowerBoundForRemainder = rangesForOthers.get(0).lowerBound();
             upperBoundForRemainder = rangesForOthers.get(rangesForOthers.size() - 1).upperBound();
-            runSimulations(populationSize, requestedNumberOfIterations);
+            calculateProbabilityMassesForOthers();
+            if (numberOfWorkers == 0) {
+                calculateExactProbabilityMasses(populationSize);
+            } else {
+                runSimulations(populationSize, requestedNumberOfIterations, random, numberOfWorkers);
+            }
         }
         convertAccumulatedProbabilityMassesToProbabilityMasses();
     }
 
+    /**
+     * Adds a probability mass to the accumulated probability mass for an outcome.
+     *
+     * @param accumulatedProbabilityMasses The array with the accumulated probability masses.
+     * @param outcome                      The index of the outcome.
+     * @param probabilityMass              The probability mass to add.
+     * @param mathContext                  The math context to use.
+     */
+    private static void accumulate(final BigDecimal[] accumulatedProbabilityMasses, final int outcome,
+            final BigDecimal probabilityMass, final MathContext mathContext) {
+        BigDecimal accumulatedProbabilityMass = accumulatedProbabilityMasses[outcome];
+        accumulatedProbabilityMasses[outcome] = accumulatedProbabilityMass == null ? probabilityMass
+                : probabilityMass.add(accumulatedProbabilityMass, mathContext);
+    }
+
     /**
      * Calculates how many times each probability mass function occurs in the input.
      */
@@ -235,9 +839,143 @@ class SampledMultivariateHypergeometricDistribution {
         }
     }
 
+    /**
+     * Calculates the probability masses exactly by enumerating all the combinations of ranges, instead of running
+     * simulations. The number of iterations is set to the number of combinations, and the standard error to zero.
+     *
+     * @param populationSize The population size.
+     */
+    private void calculateExactProbabilityMasses(final long populationSize) {
+        List<List<Range>> rangesList = new ArrayList<List<Range>>();
+        for (SampledHypergeometricDistribution probabilityMassFunction : relevantProbabilityMassFunctions) {
+            rangesList.add(probabilityMassFunction.getConfidenceIntervalKeyList(SIX_NINES));
+        }
+        double[][] logarithmicProbabilityMasses = calculateLogarithmicProbabilityMasses(rangesList);
+        double[][] probabilityMasses = new double[logarithmicProbabilityMasses.length][];
+        for (int i = 0; i < probabilityMasses.length; i++) {
+            probabilityMasses[i] = calculateRelativeProbabilityMasses(logarithmicProbabilityMasses[i]);
+        }
+        CompensatedSums sums = new ExactCalculator(rangesList, probabilityMasses,
+                calculateRelativeProbabilityMasses(logarithmicProbabilityMassesForOthers), populationSize).calculate();
+        for (int i = 0; i < accumulatedProbabilityMasses.length; i++) {
+            double sum = sums.getSum(i);
+            if (sum > 0D) {
+                accumulatedProbabilityMasses[i] = SampledHypergeometricDistribution.toBigDecimal(sum);
+            }
+        }
+        numberOfIterations = calculateNumberOfCombinations(relevantProbabilityMassFunctions);
+        standardError = 0D;
+        exactlyCalculated = true;
+    }
+
+    /**
+     * Creates a sampled multivariate hypergeometric distribution based on a set of probability mass functions for a
+     * sample size in a population size, with the probability masses calculated exactly instead of simulated.
+     *
+     * @param probabilityMassFunctions The probability mass functions to base the sampled multivariate hypergeometric
+     *                                 distribution on.
+     * @param populationSize           The population size.
+     * @param sampleSize               The sample size.
+     * @param settings                 The settings, used to identify the distribution.
+     * @return A sampled multivariate hypergeometric distribution with exactly calculated probability masses.
+     */
+    static SampledMultivariateHypergeometricDistribution calculateExactly(
+            final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
+            final long sampleSize, final SimulationSettings settings) {
+        return new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, populationSize, sampleSize,
+                0L, settings, null, 0);
+    }
+
+    /**
+     * Calculates the number of combinations of ranges that have to be enumerated to calculate the probability masses
+     * exactly for a set of probability mass functions, i.e. the product of the sizes of the 99.9999% confidence
+     * intervals of the relevant probability mass functions. If there are too many relevant probability mass functions,
+     * or if the product overflows, the largest long value is returned.
+     *
+     * @param probabilityMassFunctions The probability mass functions.
+     * @return The number of combinations of ranges to calculate the probability masses exactly.
+     */
+    static long calculateNumberOfCombinations(final List<SampledHypergeometricDistribution> probabilityMassFunctions) {
+        List<SampledHypergeometricDistribution> relevantPmfs =
+                selectRelevantProbabilityMassFunctions(probabilityMassFunctions);
+        if (relevantPmfs.size() > MAXIMAL_NUMBER_OF_RELEVANT_PROBABILITY_MASS_FUNCTIONS_FOR_EXACT_CALCULATION) {
+            return Long.MAX_VALUE;
+        }
+        long result = 1L;
+        for (SampledHypergeometricDistribution probabilityMassFunction : relevantPmfs) {
+            long size = probabilityMassFunction.getConfidenceIntervalKeyList(SIX_NINES).size();
+            if (result > Long.MAX_VALUE / size) {
+                return Long.MAX_VALUE;
+            }
+            result *= size;
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the default number of worker threads for a number of iterations, i.e. the number of available
+     * processors, but such that each worker thread has at least the minimal number of iterations per worker.
+     *
+     * @param numberOfIterations The number of iterations.
+     * @return The default number of worker threads.
+     */
+    static int calculateNumberOfWorkers(final long numberOfIterations) {
+        return (int) Math.max(1L, Math.min(Runtime.getRuntime().availableProcessors(),
+                numberOfIterations / MINIMAL_NUMBER_OF_ITERATIONS_PER_WORKER));
+    }
+
+    /**
+     * Calculates the number of worker threads for a number of iterations using simulation settings. For seeded
+     * simulations, whether the seed was chosen or generated, the number of worker threads depends on the number of
+     * iterations only, and not on the number of available processors, such that the random number generators split off
+     * for the worker threads, and therefore the results, are the same on every machine.
+     *
+     * @param numberOfIterations The number of iterations.
+     * @param settings           The settings for the simulations.
+     * @return The number of worker threads.
+     */
+    static int calculateNumberOfWorkers(final long numberOfIterations, final SimulationSettings settings) {
+        if (settings.seed() != null) {
+            return (int) Math.max(1L, Math.min(MAXIMAL_NUMBER_OF_WORKERS_FOR_SEEDED_SIMULATIONS,
+                    numberOfIterations / MINIMAL_NUMBER_OF_ITERATIONS_PER_WORKER));
+        } else {
+            return calculateNumberOfWorkers(numberOfIterations);
+        }
+    }
+
+    /**
+     * Calculates the number of outcomes, i.e. one for each relevant probability mass function as a single winner, and
+     * one for each pair of relevant probability mass functions, including the pairs without a second relevant
+     * probability mass function.
+     *
+     * @return The number of outcomes.
+     */
+    int calculateNumberOfOutcomes() {
+        int n = relevantProbabilityMassFunctions.size();
+        return n + n * (n + 1) / 2;
+    }
+
+    /**
+     * Calculates the index of the outcome for a pair of relevant probability mass functions as winners. The pairs are
+     * stored as a triangular matrix after the single winners, where row <code>i</code> holds the pairs with the
+     * columns <code>i + 1</code> up to the number of relevant probability mass functions, the last column being the
+     * case without a second relevant probability mass function.
+     *
+     * @param i The index of a relevant probability mass function.
+     * @param j The index of another relevant probability mass function, or the number of relevant probability mass
+     *          functions if there's no second relevant probability mass function.
+     * @return The index of the outcome for the pair.
+     */
+    int calculatePairOutcome(final int i, final int j) {
+        int n = relevantProbabilityMassFunctions.size();
+        int row = Math.min(i, j);
+        return n + row * n - row * (row - 1) / 2 + Math.max(i, j) - row - 1;
+    }
+
     /**
      * Calculates the sampled hypergeometric distribution for others relative to the relevant probability mass
-     * functions.
+     * functions. If the medians of the relevant probability mass functions add up to more than the population size,
+     * the sample value for others is clamped at zero.
      *
      * @param populationSize      The size of the population.
      * @param effectiveSampleSize The effective sample size.
@@ -249,30 +987,65 @@ class SampledMultivariateHypergeometricDistribution {
         for (SampledHypergeometricDistribution probabilityMassFunction : relevantProbabilityMassFunctions) {
             others -= probabilityMassFunction.getMedian().getMidpoint();
         }
-        Long sampled = Math.round(((double) others * effectiveSampleSize) / populationSize);
-        long numberOfSamples = relevantProbabilityMassFunctions.iterator().next().getNumberOfSamples();
+        Long sampled = Math.max(0L, Math.round(((double) others * effectiveSampleSize) / populationSize));
+        long numberOfSamples = relevantProbabilityMassFunctions.iterator().next().getResolution();
         return SampledHypergeometricDistributions.get(sampled, (long) effectiveSampleSize, numberOfSamples,
                 populationSize);
     }
 
     /**
-     * Calculates the list of ranges of the 99.9999% confidence interval for each of the relevant probability mass
-     * functions.
+     * Calculates the natural logarithms of the probability masses of the ranges for the relevant probability mass
+     * functions, such that they can be looked up by index during the simulations.
      *
-     * @return A map containing the list of ranges of the 99.9999% confidence interval for each relevant probability
-     *         mass function.
+     * @param rangesList A list with the lists of ranges for the relevant probability mass functions.
+     * @return The natural logarithms of the probability masses of the ranges, per relevant probability mass function.
      */
-    private Map<SampledHypergeometricDistribution, List<Range>> calculateRanges() {
-        Map<SampledHypergeometricDistribution, List<Range>> ranges;
-        ranges = new HashMap<SampledHypergeometricDistribution, List<Range>>();
-        ranges.put(probabilityMassFunctionForOthers,
-                probabilityMassFunctionForOthers.getConfidenceIntervalKeyList(SIX_NINES));
-        for (SampledHypergeometricDistribution probabilityMassFunction : relevantProbabilityMassFunctions) {
-            if (!ranges.containsKey(probabilityMassFunction)) {
-                ranges.put(probabilityMassFunction, probabilityMassFunction.getConfidenceIntervalKeyList(SIX_NINES));
+    private double[][] calculateLogarithmicProbabilityMasses(final List<List<Range>> rangesList) {
+        double[][] result = new double[rangesList.size()][];
+        for (int i = 0; i < result.length; i++) {
+            SampledHypergeometricDistribution probabilityMassFunction = relevantProbabilityMassFunctions.get(i);
+            List<Range> ranges = rangesList.get(i);
+            result[i] = new double[ranges.size()];
+            for (int j = 0; j < ranges.size(); j++) {
+                result[i][j] = log(probabilityMassFunction.getProbabilityMass(ranges.get(j)));
             }
         }
-        return ranges;
+        return result;
+    }
+
+    /**
+     * Calculates the upper bounds and the probability masses of the ranges for others, and the natural logarithms of
+     * the probability masses, such that the probability mass for a remainder can be looked up with a binary search.
+     */
+    private void calculateProbabilityMassesForOthers() {
+        int size = rangesForOthers.size();
+        upperBoundsForOthers = new long[size];
+        probabilityMassesForOthers = new BigDecimal[size];
+        logarithmicProbabilityMassesForOthers = new double[size];
+        for (int k = 0; k < size; k++) {
+            Range r = rangesForOthers.get(k);
+            upperBoundsForOthers[k] = r.upperBound();
+            probabilityMassesForOthers[k] = probabilityMassFunctionForOthers.getProbabilityMass(r);
+            logarithmicProbabilityMassesForOthers[k] = log(probabilityMassesForOthers[k]);
+        }
+    }
+
+    /**
+     * Calculates probability masses relative to the largest one from their natural logarithms.
+     *
+     * @param logarithmicProbabilityMasses The natural logarithms of the probability masses.
+     * @return The probability masses relative to the largest one.
+     */
+    private static double[] calculateRelativeProbabilityMasses(final double[] logarithmicProbabilityMasses) {
+        double maximum = Double.NEGATIVE_INFINITY;
+        for (double logarithmicProbabilityMass : logarithmicProbabilityMasses) {
+            maximum = Math.max(maximum, logarithmicProbabilityMass);
+        }
+        double[] result = new double[logarithmicProbabilityMasses.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.exp(logarithmicProbabilityMasses[i] - maximum);
+        }
+        return result;
     }
 
     /**
@@ -282,11 +1055,10 @@ class SampledMultivariateHypergeometricDistribution {
      */
     private BigDecimal calculateSumOfAccumulatedProbabilityMasses() {
         BigDecimal sumOfProbabilityMasses = BigDecimal.ZERO;
-        for (BigDecimal mass : accumulatedSingleWinnerProbabilityMasses.values()) {
-            sumOfProbabilityMasses = sumOfProbabilityMasses.add(mass, MathContext.DECIMAL128);
-        }
-        for (BigDecimal mass : accumulatedPairProbabilityMasses.values()) {
-            sumOfProbabilityMasses = sumOfProbabilityMasses.add(mass, MathContext.DECIMAL128);
+        for (BigDecimal mass : accumulatedProbabilityMasses) {
+            if (mass != null) {
+                sumOfProbabilityMasses = sumOfProbabilityMasses.add(mass, MathContext.DECIMAL128);
+            }
         }
         return sumOfProbabilityMasses;
     }
@@ -308,16 +1080,13 @@ class SampledMultivariateHypergeometricDistribution {
      */
     private void convertSingleWinnerAccumulatedProbabilityMassesToProbabilityMasses(
             final BigDecimal sumOfAccumulatedProbabilityMasses) {
-        for (Integer indexKey : accumulatedSingleWinnerProbabilityMasses.keySet()) {
-            SampledHypergeometricDistribution key = relevantProbabilityMassFunctions.get(indexKey);
-            if (singleWinnerProbabilityMasses.containsKey(key)) {
-                singleWinnerProbabilityMasses.put(key,
-                        singleWinnerProbabilityMasses.get(key) + accumulatedSingleWinnerProbabilityMasses.get(indexKey)
-                                .divide(sumOfAccumulatedProbabilityMasses, MathContext.DECIMAL128).doubleValue());
-
-            } else {
-                singleWinnerProbabilityMasses.put(key, accumulatedSingleWinnerProbabilityMasses.get(indexKey)
-                        .divide(sumOfAccumulatedProbabilityMasses, MathContext.DECIMAL128).doubleValue());
+        for (int i = 0; i < relevantProbabilityMassFunctions.size(); i++) {
+            BigDecimal accumulatedProbabilityMass = accumulatedProbabilityMasses[i];
+            if (accumulatedProbabilityMass != null) {
+                double probabilityMass = accumulatedProbabilityMass
+                        .divide(sumOfAccumulatedProbabilityMasses, MathContext.DECIMAL128).doubleValue();
+                singleWinnerProbabilityMasses.merge(relevantProbabilityMassFunctions.get(i), probabilityMass,
+                        Double::sum);
             }
         }
         Set<SampledHypergeometricDistribution> keys = singleWinnerProbabilityMasses.keySet();
@@ -335,18 +1104,18 @@ class SampledMultivariateHypergeometricDistribution {
      */
     private void convertWinnerPairAccumulatedProbabilityMassesToProbabilityMasses(
             final BigDecimal sumOfAccumulatedProbabilityMasses) {
-        for (Set<Integer> key : accumulatedPairProbabilityMasses.keySet()) {
-            Set<SampledHypergeometricDistribution> actualKey = new HashSet<SampledHypergeometricDistribution>();
-            for (Integer i : key) {
-                actualKey.add(i == -1 ? null : relevantProbabilityMassFunctions.get(i));
-            }
-            if (pairProbabilityMasses.containsKey(actualKey)) {
-                pairProbabilityMasses.put(actualKey,
-                        pairProbabilityMasses.get(actualKey) + accumulatedPairProbabilityMasses.get(key)
-                                .divide(sumOfAccumulatedProbabilityMasses, MathContext.DECIMAL128).doubleValue());
-            } else {
-                pairProbabilityMasses.put(actualKey, accumulatedPairProbabilityMasses.get(key)
-                        .divide(sumOfAccumulatedProbabilityMasses, MathContext.DECIMAL128).doubleValue());
+        int n = relevantProbabilityMassFunctions.size();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j <= n; j++) {
+                BigDecimal accumulatedProbabilityMass = accumulatedProbabilityMasses[calculatePairOutcome(i, j)];
+                if (accumulatedProbabilityMass != null) {
+                    Set<SampledHypergeometricDistribution> actualKey = new HashSet<SampledHypergeometricDistribution>();
+                    actualKey.add(relevantProbabilityMassFunctions.get(i));
+                    actualKey.add(j == n ? null : relevantProbabilityMassFunctions.get(j));
+                    double probabilityMass = accumulatedProbabilityMass
+                            .divide(sumOfAccumulatedProbabilityMasses, MathContext.DECIMAL128).doubleValue();
+                    pairProbabilityMasses.merge(actualKey, probabilityMass, Double::sum);
+                }
             }
         }
         Set<Set<SampledHypergeometricDistribution>> keySet = pairProbabilityMasses.keySet();
@@ -372,7 +1141,7 @@ class SampledMultivariateHypergeometricDistribution {
         if (obj instanceof SampledMultivariateHypergeometricDistribution) {
             SampledMultivariateHypergeometricDistribution other = (SampledMultivariateHypergeometricDistribution) obj;
             return other.probabilityMassFunctions.equals(probabilityMassFunctions)
-                    && other.numberOfIterations == numberOfIterations;
+                    && other.numberOfIterations == numberOfIterations && other.settings.equals(settings);
         } else {
             return false;
         }
@@ -384,30 +1153,31 @@ class SampledMultivariateHypergeometricDistribution {
      * probability mass function.
      */
     private void filterRelevantProbabilityMassFunctions() {
-        if (probabilityMassFunctions.size() <= 1) {
-            relevantProbabilityMassFunctions.addAll(probabilityMassFunctions);
-        } else {
-            List<Long> lowerBounds = new ArrayList<Long>();
-            for (SampledHypergeometricDistribution probabilityMassFunction : probabilityMassFunctions) {
-                lowerBounds
-                        .add(probabilityMassFunction.getConfidenceInterval(SIX_NINES).lowerBound().lowerBound());
-            }
-            Collections.sort(lowerBounds);
-            Collections.reverse(lowerBounds);
-            long lowerBound = lowerBounds.get(1);
-            for (SampledHypergeometricDistribution probabilityMassFunction : probabilityMassFunctions) {
-                if (!isConfidenceIntervalBelow(probabilityMassFunction.getConfidenceInterval(SIX_NINES), lowerBound)) {
-                    relevantProbabilityMassFunctions.add(probabilityMassFunction);
-                }
-            }
-            relevantProbabilityMassFunctions.sort(new Comparator<SampledHypergeometricDistribution>() {
-                @Override
-                public int compare(final SampledHypergeometricDistribution spmf0,
-                        final SampledHypergeometricDistribution spmf1) {
-                    return spmf1.getMedian().compareTo(spmf0.getMedian());
-                }
-            });
+        relevantProbabilityMassFunctions.addAll(selectRelevantProbabilityMassFunctions(probabilityMassFunctions));
+    }
+
+    /**
+     * Finds the index of the range for others containing a remainder. Since the ranges for others are sorted, the
+     * range containing the remainder is the first one with an upper bound at or above the remainder, which is found
+     * with a binary search on the upper bounds. A dense table with an entry per remainder would make the lookup a
+     * single array index, but its size grows with the population size, up to hundreds of megabytes for the largest
+     * electorates, whereas the upper bounds have one entry per range, and are searched in at most fourteen steps for
+     * the default number of samples.
+     *
+     * @param remainder The remainder.
+     * @return The index of the range for others containing the remainder, or -1 if no range contains it.
+     */
+    private int findRangeIndexForRemainder(final long remainder) {
+        // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent.
+        // EQMU: Changing the second conditional boundary below produces a mutant that is practically equivalent.
+        if (remainder < lowerBoundForRemainder || upperBoundForRemainder < remainder) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(upperBoundsForOthers, remainder);
+        if (index < 0) {
+            index = -index - 1;
         }
+        return rangesForOthers.get(index).lowerBound() <= remainder ? index : -1;
     }
 
     /**
@@ -419,6 +1189,15 @@ class SampledMultivariateHypergeometricDistribution {
         return numberOfIterations;
     }
 
+    /**
+     * Returns the number of probability mass functions.
+     *
+     * @return The number of probability mass functions.
+     */
+    int getNumberOfProbabilityMassFunctions() {
+        return probabilityMassFunctions.size();
+    }
+
     /**
      * Returns the probability mass for a probability mass function as a single winner of the first round.
      *
@@ -455,33 +1234,49 @@ class SampledMultivariateHypergeometricDistribution {
     }
 
     /**
-     * Returns the probability mass for the remainder.
+     * Returns the probability mass for the remainder, i.e. the probability mass of the range for others containing the
+     * remainder, or zero if no range for others contains the remainder.
      *
      * @param remainder The remainder.
      * @return The probability mass for the remainder.
      */
-    private BigDecimal getProbabilityMassForRemainder(final long remainder) {
-        // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent.
-        // EQMU: Changing the second conditional boundary below produces a mutant that is practically equivalent.
-        if (remainder < lowerBoundForRemainder || upperBoundForRemainder < remainder) {
-            return BigDecimal.ZERO;
-        }
-        if (!probabilityMassesForRemainders.containsKey(remainder)) {
-            List<Range> rangesForOther = rangesMap.get(probabilityMassFunctionForOthers);
-            for (Range r : rangesForOther) {
-                // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent.
-                if (r.upperBound() >= remainder) {
-                    probabilityMassesForRemainders.put(remainder,
-                            probabilityMassFunctionForOthers.getProbabilityMass(r));
-                }
-            }
-        }
-        return probabilityMassesForRemainders.get(remainder);
+    BigDecimal getProbabilityMassForRemainder(final long remainder) {
+        int index = findRangeIndexForRemainder(remainder);
+        return index == -1 ? BigDecimal.ZERO : probabilityMassesForOthers[index];
+    }
+
+    /**
+     * Returns the numeric precision policy used for the simulations.
+     *
+     * @return The numeric precision policy used for the simulations.
+     */
+    PrecisionPolicy getPrecisionPolicy() {
+        return settings.precisionPolicy();
+    }
+
+    /**
+     * Returns the largest standard error of the estimated probability masses, i.e. the precision reached by the
+     * simulations. The standard error is zero if the probability masses could be calculated without simulations.
+     *
+     * @return The largest standard error of the estimated probability masses.
+     */
+    double getStandardError() {
+        return standardError;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(probabilityMassFunctions, numberOfIterations);
+        return Objects.hash(probabilityMassFunctions, numberOfIterations, settings);
+    }
+
+    /**
+     * Returns whether the probability masses were calculated exactly instead of simulated, such that the distribution
+     * can be reused for any number of iterations.
+     *
+     * @return True if the probability masses were calculated exactly.
+     */
+    boolean isExactlyCalculated() {
+        return exactlyCalculated;
     }
 
     /**
@@ -507,61 +1302,143 @@ class SampledMultivariateHypergeometricDistribution {
     }
 
     /**
-     * Runs the simulations.
+     * Calculates the natural logarithm of a non-negative <code>BigDecimal</code> without converting it to a double
+     * first, such that numbers beyond the range of a double can be handled.
+     *
+     * @param x A non-negative number.
+     * @return The natural logarithm of the number, or negative infinity if the number is zero.
+     */
+    static double log(final BigDecimal x) {
+        if (x.signum() == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        BigInteger unscaled = x.unscaledValue();
+        int shift = Math.max(0, unscaled.bitLength() - SIXTY);
+        return Math.log(unscaled.shiftRight(shift).doubleValue()) + shift * Math.log(2D)
+                - x.scale() * Math.log(10D);
+    }
+
+    /**
+     * Runs the simulations, split across a number of worker threads. The iterations are divided evenly over the
+     * workers, and the accumulated probability masses of the workers are merged in the order of the workers. If the
+     * settings have a convergence tolerance, the simulations are run in batches, and stop as soon as the largest
+     * standard error is within the tolerance.
      *
      * @param populationSize              The population size.
      * @param requestedNumberOfIterations The requested number of iterations.
+     * @param random                      The random number generator from which the workers' generators are split.
+     * @param numberOfWorkers             The number of worker threads.
      */
-    private void runSimulations(final long populationSize, final long requestedNumberOfIterations) {
-        long halfPopulationSize = populationSize / 2L;
-        Random random = new Random();
-        numberOfIterations = 0;
-        int numberOfRelevantProbabilityMassFunctions = relevantProbabilityMassFunctions.size();
-        // Using SampledHypergeometricDistribution as a key is time consuming, hence we build a parallel list with
-        // ranges.
-        List<List<Range>> rangesList = new ArrayList<List<Range>>();
-        for (SampledHypergeometricDistribution probabilityMassFunction : relevantProbabilityMassFunctions) {
-            rangesList.add(rangesMap.get(probabilityMassFunction));
-        }
-        WinnersRegister winnersRegister = new WinnersRegister();
-        while (numberOfIterations < requestedNumberOfIterations) {
-            BigDecimal probabilityMass = BigDecimal.ONE;
-            long remainder = populationSize;
-            winnersRegister.initialize();
-            for (int i = 0; i < numberOfRelevantProbabilityMassFunctions; i++) {
-                SampledHypergeometricDistribution probabilityMassFunction = relevantProbabilityMassFunctions.get(i);
-                List<Range> ranges = rangesList.get(i);
-                Range range = ranges.get(random.nextInt(ranges.size()));
-                remainder -= range.getMidpoint();
-                probabilityMass = probabilityMass.multiply(probabilityMassFunction.getProbabilityMass(range),
-                        MathContext.DECIMAL128);
-                winnersRegister.update(range, i);
-            }
-            BigDecimal probabilityMassForOther = getProbabilityMassForRemainder(remainder);
-            if (!probabilityMassForOther.equals(BigDecimal.ZERO)) {
-                probabilityMass = probabilityMass.multiply(probabilityMassForOther, MathContext.DECIMAL128);
-                int indexOfLargestRange = winnersRegister.getIndexOfLargestRange();
-                // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent.
-                if (winnersRegister.getLargestRange().getMidpoint() > halfPopulationSize) {
-                    if (accumulatedSingleWinnerProbabilityMasses.containsKey(indexOfLargestRange)) {
-                        accumulatedSingleWinnerProbabilityMasses.put(indexOfLargestRange,
-                                probabilityMass.add(accumulatedSingleWinnerProbabilityMasses.get(indexOfLargestRange),
-                                        MathContext.DECIMAL128));
-                    } else {
-                        accumulatedSingleWinnerProbabilityMasses.put(indexOfLargestRange, probabilityMass);
-                    }
-                } else {
-                    Set<Integer> runoffPair =
-                            Set.of(indexOfLargestRange, winnersRegister.getIndexOfSecondLargestRange());
-                    if (accumulatedPairProbabilityMasses.containsKey(runoffPair)) {
-                        accumulatedPairProbabilityMasses.put(runoffPair, probabilityMass
-                                .add(accumulatedPairProbabilityMasses.get(runoffPair), MathContext.DECIMAL128));
-                    } else {
-                        accumulatedPairProbabilityMasses.put(runoffPair, probabilityMass);
+    private void runSimulations(final long populationSize, final long requestedNumberOfIterations,
+            final SplittableRandom random, final int numberOfWorkers) {
+        int n = relevantProbabilityMassFunctions.size();
+        boolean importanceSampling = settings.samplingStrategy() == SamplingStrategy.IMPORTANCE;
+        AliasTable[] aliasTables = importanceSampling ? new AliasTable[n] : null;
+        if (importanceSampling) {
+            for (int i = 0; i < n; i++) {
+                aliasTables[i] = relevantProbabilityMassFunctions.get(i).getAliasTable();
+            }
+        }
+        SimulationSnapshot snapshot = new SimulationSnapshot(relevantProbabilityMassFunctions, importanceSampling,
+                settings.precisionPolicy().getMathContext());
+        List<SimulationWorker> workers = new ArrayList<SimulationWorker>();
+        for (int i = 0; i < numberOfWorkers; i++) {
+            workers.add(new SimulationWorker(random.split(), aliasTables, snapshot, populationSize));
+        }
+        long batchSize = settings.isConvergenceDriven() ? NUMBER_OF_ITERATIONS_PER_BATCH : requestedNumberOfIterations;
+        numberOfIterations = 0L;
+        do {
+            long numberOfIterationsForBatch = Math.min(batchSize, requestedNumberOfIterations - numberOfIterations);
+            runBatch(workers, numberOfIterationsForBatch);
+            numberOfIterations += numberOfIterationsForBatch;
+            standardError = mergeConvergenceTrackers(workers).calculateMaximalStandardError();
+        } while (numberOfIterations < requestedNumberOfIterations && standardError > settings.convergenceTolerance());
+        if (settings.precisionPolicy().usesBigDecimals()) {
+            MathContext mathContext = settings.precisionPolicy().getMathContext();
+            for (SimulationWorker worker : workers) {
+                for (int i = 0; i < accumulatedProbabilityMasses.length; i++) {
+                    if (worker.accumulator[i] != null) {
+                        accumulate(accumulatedProbabilityMasses, i, worker.accumulator[i], mathContext);
                     }
                 }
-                numberOfIterations += 1;
             }
+        } else {
+            ConvergenceTracker mergedConvergenceTracker = mergeConvergenceTrackers(workers);
+            for (int i = 0; i < accumulatedProbabilityMasses.length; i++) {
+                double sum = mergedConvergenceTracker.getRelativeWeightSum(i);
+                if (sum > 0D) {
+                    accumulatedProbabilityMasses[i] = SampledHypergeometricDistribution.toBigDecimal(sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a batch of simulations, with the iterations divided evenly over the workers.
+     *
+     * @param workers                    The workers.
+     * @param numberOfIterationsForBatch The number of iterations in the batch.
+     */
+    private static void runBatch(final List<SimulationWorker> workers, final long numberOfIterationsForBatch) {
+        int numberOfWorkers = workers.size();
+        if (numberOfWorkers == 1) {
+            workers.get(0).run(numberOfIterationsForBatch);
+        } else {
+            IntStream.range(0, numberOfWorkers).parallel()
+                    .forEach(i -> workers.get(i).run(numberOfIterationsForBatch / numberOfWorkers
+                            + (i < numberOfIterationsForBatch % numberOfWorkers ? 1L : 0L)));
+        }
+    }
+
+    /**
+     * Merges the convergence trackers of the workers, in the order of the workers.
+     *
+     * @param workers The workers.
+     * @return A convergence tracker with the observations of all the workers.
+     */
+    private ConvergenceTracker mergeConvergenceTrackers(final List<SimulationWorker> workers) {
+        ConvergenceTracker result = new ConvergenceTracker(calculateNumberOfOutcomes());
+        for (SimulationWorker worker : workers) {
+            result.addAll(worker.convergenceTracker);
+        }
+        return result;
+    }
+
+    /**
+     * Selects the relevant probability mass functions from a list of probability mass functions, sorted by their
+     * medians. A probability mass function is relevant if it is one of the two largest probability mass functions, or
+     * its 99.9999% confidence interval overlaps with the second largest probability mass function.
+     *
+     * @param probabilityMassFunctions The probability mass functions.
+     * @return A list with the relevant probability mass functions, sorted by their medians.
+     */
+    static List<SampledHypergeometricDistribution> selectRelevantProbabilityMassFunctions(
+            final List<SampledHypergeometricDistribution> probabilityMassFunctions) {
+        List<SampledHypergeometricDistribution> result = new ArrayList<SampledHypergeometricDistribution>();
+        if (probabilityMassFunctions.size() <= 1) {
+            result.addAll(probabilityMassFunctions);
+        } else {
+            List<Long> lowerBounds = new ArrayList<Long>();
+            for (SampledHypergeometricDistribution probabilityMassFunction : probabilityMassFunctions) {
+                lowerBounds
+                        .add(probabilityMassFunction.getConfidenceInterval(SIX_NINES).lowerBound().lowerBound());
+            }
+            Collections.sort(lowerBounds);
+            Collections.reverse(lowerBounds);
+            long lowerBound = lowerBounds.get(1);
+            for (SampledHypergeometricDistribution probabilityMassFunction : probabilityMassFunctions) {
+                if (!isConfidenceIntervalBelow(probabilityMassFunction.getConfidenceInterval(SIX_NINES), lowerBound)) {
+                    result.add(probabilityMassFunction);
+                }
+            }
+            result.sort(new Comparator<SampledHypergeometricDistribution>() {
+                @Override
+                public int compare(final SampledHypergeometricDistribution spmf0,
+                        final SampledHypergeometricDistribution spmf1) {
+                    return spmf1.getMedian().compareTo(spmf0.getMedian());
+                }
+            });
         }
+        return result;
     }
 }
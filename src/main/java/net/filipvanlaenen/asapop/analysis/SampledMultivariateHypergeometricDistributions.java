@@ -2,21 +2,42 @@ package net.filipvanlaenen.asapop.analysis;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Class providing methods to calculate and handle sampled multivariate hypergeometric distributions.
  */
 final class SampledMultivariateHypergeometricDistributions {
     /**
-     * A map caching all the sampled multivariate hypergeometric distributions created in the <code>get</code> method.
+     * Record combining the sorted sampled hypergeometric distributions and the simulation settings into a key for the
+     * cache.
+     *
+     * @param probabilityMassFunctions The sampled hypergeometric distributions, sorted by their medians.
+     * @param settings                 The settings for the simulations.
      */
-    private static final Map<List<SampledHypergeometricDistribution>,
-                             SampledMultivariateHypergeometricDistribution> CACHE =
-                             new HashMap<List<SampledHypergeometricDistribution>,
-                                         SampledMultivariateHypergeometricDistribution>();
+    private record Key(List<SampledHypergeometricDistribution> probabilityMassFunctions,
+            SimulationSettings settings) {
+    }
+
+    /**
+     * The approximate weight in bytes per pair of probability mass functions of a sampled multivariate hypergeometric
+     * distribution: the accumulated probability mass as a <code>BigDecimal</code> and the entry in the map with the
+     * probability masses for the pairs. The sampled hypergeometric distributions are held by their own cache, and
+     * therefore not counted.
+     */
+    static final long APPROXIMATE_WEIGHT_PER_PAIR = 256L;
+    /**
+     * The magic number ten, the number of combinations of ranges that can be enumerated for an exact calculation in the
+     * time needed for one iteration of a simulation. Enumerating a combination takes about 15 ns and a simulation
+     * iteration about 200 ns on a single thread, and both run in parallel, so ten leaves a margin.
+     */
+    static final long NUMBER_OF_COMBINATIONS_PER_ITERATION = 10L;
+    /**
+     * A cache with all the sampled multivariate hypergeometric distributions created in the <code>get</code> method.
+     */
+    private static final SingleFlightCache<Key, SampledMultivariateHypergeometricDistribution> CACHE =
+            new SingleFlightCache<Key, SampledMultivariateHypergeometricDistribution>(
+                    SampledMultivariateHypergeometricDistributions::estimateWeight);
 
     /**
      * Private constructor to prevent the instantiation of this utility class.
@@ -24,6 +45,43 @@ final class SampledMultivariateHypergeometricDistributions {
     private SampledMultivariateHypergeometricDistributions() {
     }
 
+    /**
+     * Calculates a sampled multivariate hypergeometric distribution based on a set of sampled hypergeometric
+     * distributions in a sample size for a population size, exactly if that's cheaper than running the simulations
+     * with the requested number of iterations, or by running the simulations otherwise.
+     *
+     * @param probabilityMassFunctions The sampled hypergeometric distributions.
+     * @param populationSize           The population size.
+     * @param sampleSize               The sample size.
+     * @param numberOfIterations       The number of iterations.
+     * @param settings                 The settings for the simulations.
+     * @return A sampled multivariate hypergeometric distribution.
+     */
+    private static SampledMultivariateHypergeometricDistribution calculate(
+            final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
+            final long sampleSize, final long numberOfIterations, final SimulationSettings settings) {
+        if (isExactCalculationCheaper(probabilityMassFunctions, numberOfIterations)) {
+            return SampledMultivariateHypergeometricDistribution.calculateExactly(probabilityMassFunctions,
+                    populationSize, sampleSize, settings);
+        } else {
+            return new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, populationSize,
+                    sampleSize, numberOfIterations, settings, settings.createRandom(),
+                    SampledMultivariateHypergeometricDistribution.calculateNumberOfWorkers(numberOfIterations,
+                            settings));
+        }
+    }
+
+    /**
+     * Estimates the weight in bytes of a sampled multivariate hypergeometric distribution in the cache.
+     *
+     * @param pmf The sampled multivariate hypergeometric distribution.
+     * @return The estimated weight in bytes.
+     */
+    static long estimateWeight(final SampledMultivariateHypergeometricDistribution pmf) {
+        long n = pmf.getNumberOfProbabilityMassFunctions();
+        return n * (n + 1L) * APPROXIMATE_WEIGHT_PER_PAIR;
+    }
+
     /**
      * Returns a sampled multivariate hypergeometric distribution based on a set of sampled hypergeometric distributions
      * in a sample size for a population size, with at least a given number of iterations.
@@ -37,25 +95,95 @@ final class SampledMultivariateHypergeometricDistributions {
     static SampledMultivariateHypergeometricDistribution get(
             final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
             final long sampleSize, final long minimalNumberOfIterations) {
-        List<SampledHypergeometricDistribution> key = new ArrayList<SampledHypergeometricDistribution>(
-                probabilityMassFunctions);
-        key.sort(new Comparator<SampledHypergeometricDistribution>() {
+        return get(probabilityMassFunctions, populationSize, sampleSize, minimalNumberOfIterations,
+                SimulationSettings.DEFAULT);
+    }
+
+    /**
+     * Returns a sampled multivariate hypergeometric distribution based on a set of sampled hypergeometric distributions
+     * in a sample size for a population size, with at least a given number of iterations, simulated using a set of
+     * simulation settings. If the settings have a convergence tolerance, a cached distribution that reached the
+     * tolerance is returned even if it has fewer iterations, and the minimal number of iterations is used as the upper
+     * limit when a new distribution is calculated. If the settings have a seed, the distribution is reproducible. If
+     * an exact calculation enumerates fewer combinations of ranges than the simulations would cost, the probability
+     * masses are calculated exactly instead, and the result is reused for any number of iterations.
+     *
+     * @param probabilityMassFunctions  The sampled hypergeometric distributions.
+     * @param populationSize            The population size.
+     * @param sampleSize                The sample size.
+     * @param minimalNumberOfIterations The minimal number of iterations.
+     * @param settings                  The settings for the simulations.
+     * @return A sampled multivariate hypergeometric distribution.
+     */
+    static SampledMultivariateHypergeometricDistribution get(
+            final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
+            final long sampleSize, final long minimalNumberOfIterations, final SimulationSettings settings) {
+        List<SampledHypergeometricDistribution> sortedProbabilityMassFunctions =
+                new ArrayList<SampledHypergeometricDistribution>(probabilityMassFunctions);
+        sortedProbabilityMassFunctions.sort(new Comparator<SampledHypergeometricDistribution>() {
             @Override
             public int compare(final SampledHypergeometricDistribution spmf0,
                     final SampledHypergeometricDistribution spmf1) {
                 return spmf1.getMedian().compareTo(spmf0.getMedian());
             }
         });
-        if (!CACHE.containsKey(key)) {
-            CACHE.put(key, new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, populationSize,
-                    sampleSize, minimalNumberOfIterations));
-        } else {
-            SampledMultivariateHypergeometricDistribution current = CACHE.get(key);
-            if (current.getNumberOfIterations() < minimalNumberOfIterations) {
-                CACHE.put(key, new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions,
-                        populationSize, sampleSize, minimalNumberOfIterations));
-            }
-        }
-        return CACHE.get(key);
+        return CACHE.get(new Key(sortedProbabilityMassFunctions, settings),
+                current -> isSufficient(current, minimalNumberOfIterations, settings),
+                () -> calculate(probabilityMassFunctions, populationSize, sampleSize, minimalNumberOfIterations,
+                        settings));
+    }
+
+    /**
+     * Returns the statistics of the cache.
+     *
+     * @return The statistics of the cache.
+     */
+    static CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics();
+    }
+
+    /**
+     * Returns whether calculating the probability masses exactly is cheaper than running the simulations with a number
+     * of iterations.
+     *
+     * @param probabilityMassFunctions The sampled hypergeometric distributions.
+     * @param numberOfIterations       The number of iterations of the simulations.
+     * @return True if calculating the probability masses exactly is cheaper than running the simulations.
+     */
+    static boolean isExactCalculationCheaper(final List<SampledHypergeometricDistribution> probabilityMassFunctions,
+            final long numberOfIterations) {
+        long budget = numberOfIterations > Long.MAX_VALUE / NUMBER_OF_COMBINATIONS_PER_ITERATION ? Long.MAX_VALUE
+                : numberOfIterations * NUMBER_OF_COMBINATIONS_PER_ITERATION;
+        return SampledMultivariateHypergeometricDistribution.calculateNumberOfCombinations(probabilityMassFunctions)
+                <= budget;
+    }
+
+    /**
+     * Returns whether a cached sampled multivariate hypergeometric distribution is sufficient for a request, i.e. it
+     * has at least the requested number of iterations, it was calculated exactly, or it reached the convergence
+     * tolerance of the settings. A simulated distribution with a standard error of zero isn't considered to be
+     * calculated exactly, since its standard error is also zero when all the iterations had the same outcome.
+     *
+     * @param current                   The cached sampled multivariate hypergeometric distribution.
+     * @param minimalNumberOfIterations The minimal number of iterations.
+     * @param settings                  The settings for the simulations.
+     * @return True if the cached sampled multivariate hypergeometric distribution is sufficient.
+     */
+    private static boolean isSufficient(final SampledMultivariateHypergeometricDistribution current,
+            final long minimalNumberOfIterations, final SimulationSettings settings) {
+        return current.getNumberOfIterations() >= minimalNumberOfIterations || current.isExactlyCalculated()
+                || settings.isConvergenceDriven() && current.getStandardError() <= settings.convergenceTolerance();
+    }
+
+    /**
+     * Sets the maximal weight in bytes of the cache. When the cache gets heavier, the least recently used
+     * distributions are evicted from it. Since the cache keys hold the sampled hypergeometric distributions, evicting
+     * a sampled multivariate hypergeometric distribution also releases the sampled hypergeometric distributions that
+     * were evicted from their own caches.
+     *
+     * @param maximalWeight The maximal weight in bytes of the cache.
+     */
+    static void setMaximalCacheWeight(final long maximalWeight) {
+        CACHE.setMaximalWeight(maximalWeight);
     }
 }
@@ -0,0 +1,14 @@
+package net.filipvanlaenen.asapop.analysis;
+
+/**
+ * Interface defining a sampler producing the points in the unit hypercube from which the ranges of the candidates are
+ * drawn in the simulations of the multivariate analyses, one coordinate per candidate.
+ */
+interface Sampler {
+    /**
+     * Fills an array with the coordinates of the next point, each coordinate in the interval [0, 1).
+     *
+     * @param point The array to fill with the coordinates of the next point.
+     */
+    void next(double[] point);
+}
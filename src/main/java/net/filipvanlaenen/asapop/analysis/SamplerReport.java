@@ -0,0 +1,176 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Class comparing the number of iterations the samplers need to reach a tolerance on the simulations of a set of
+ * multivariate analyses. For each sampler, the simulations are replicated with independent random number generators,
+ * for a number of iterations that doubles until the largest standard deviation of the probabilities over the
+ * replicates is within the tolerance, or the maximal number of iterations is reached. Each sampler uses the same seed.
+ */
+public final class SamplerReport {
+    /**
+     * The number of replicates per number of iterations.
+     */
+    static final int NUMBER_OF_REPLICATES = 8;
+    /**
+     * The smallest number of iterations tried.
+     */
+    static final long INITIAL_NUMBER_OF_ITERATIONS = 1_000L;
+
+    /**
+     * Record holding the measurements for a sampler.
+     *
+     * @param samplerType                     The type of sampler.
+     * @param numberOfIterationsToTolerance   The total number of iterations needed to reach the tolerance, counting
+     *                                        the maximal number of iterations for the simulations that didn't reach
+     *                                        it.
+     * @param numberOfSimulationsNotConverged The number of simulations that didn't reach the tolerance.
+     */
+    record Entry(SamplerType samplerType, long numberOfIterationsToTolerance, int numberOfSimulationsNotConverged) {
+    }
+
+    /**
+     * The maximal number of iterations per simulation.
+     */
+    private final long maximalNumberOfIterations;
+    /**
+     * The tolerance on the standard deviations of the probabilities.
+     */
+    private final double tolerance;
+    /**
+     * The seed for the random number generators.
+     */
+    private final long seed;
+    /**
+     * The number of simulations run per sampler.
+     */
+    private int numberOfSimulations;
+    /**
+     * The measurements per sampler, in the order of the types of samplers.
+     */
+    private final List<Entry> entries;
+
+    /**
+     * Constructor taking the maximal number of iterations per simulation, the tolerance and the seed as its
+     * parameters.
+     *
+     * @param maximalNumberOfIterations The maximal number of iterations per simulation.
+     * @param tolerance                 The tolerance on the standard deviations of the probabilities.
+     * @param seed                      The seed for the random number generators.
+     */
+    SamplerReport(final long maximalNumberOfIterations, final double tolerance, final long seed) {
+        this.maximalNumberOfIterations = maximalNumberOfIterations;
+        this.tolerance = tolerance;
+        this.seed = seed;
+        entries = new ArrayList<Entry>();
+        for (SamplerType samplerType : SamplerType.values()) {
+            entries.add(new Entry(samplerType, 0L, 0));
+        }
+    }
+
+    /**
+     * Runs the replicated simulations with each of the samplers for a set of probability mass functions, and adds the
+     * measurements to the report.
+     *
+     * @param probabilityMassFunctions The probability mass functions.
+     * @param populationSize           The population size.
+     * @param sampleSize               The sample size.
+     */
+    void add(final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
+            final long sampleSize) {
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            long numberOfIterations = INITIAL_NUMBER_OF_ITERATIONS;
+            while (numberOfIterations < maximalNumberOfIterations
+                    && calculateMaximalStandardDeviation(probabilityMassFunctions, populationSize, sampleSize,
+                            numberOfIterations, entry.samplerType()) > tolerance) {
+                numberOfIterations *= 2L;
+            }
+            boolean converged = numberOfIterations < maximalNumberOfIterations
+                    || calculateMaximalStandardDeviation(probabilityMassFunctions, populationSize, sampleSize,
+                            maximalNumberOfIterations, entry.samplerType()) <= tolerance;
+            entries.set(i, new Entry(entry.samplerType(),
+                    entry.numberOfIterationsToTolerance() + Math.min(numberOfIterations, maximalNumberOfIterations),
+                    entry.numberOfSimulationsNotConverged() + (converged ? 0 : 1)));
+        }
+        numberOfSimulations++;
+    }
+
+    /**
+     * Calculates the largest standard deviation of the probabilities of all single winners and all pairs of winners
+     * over a number of replicated simulations.
+     *
+     * @param probabilityMassFunctions The probability mass functions.
+     * @param populationSize           The population size.
+     * @param sampleSize               The sample size.
+     * @param numberOfIterations       The number of iterations per simulation.
+     * @param samplerType              The type of sampler.
+     * @return The largest standard deviation of the probabilities over the replicated simulations.
+     */
+    private double calculateMaximalStandardDeviation(
+            final List<SampledHypergeometricDistribution> probabilityMassFunctions, final long populationSize,
+            final long sampleSize, final long numberOfIterations, final SamplerType samplerType) {
+        SimulationSettings settings = new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, 0D,
+                null, samplerType);
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] sums = null;
+        double[] squaredSums = null;
+        for (int r = 0; r < NUMBER_OF_REPLICATES; r++) {
+            List<Double> probabilities = PrecisionPolicyReport.calculateProbabilities(
+                    new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, populationSize,
+                            sampleSize, numberOfIterations, settings, random.split(), 1),
+                    probabilityMassFunctions);
+            if (sums == null) {
+                sums = new double[probabilities.size()];
+                squaredSums = new double[probabilities.size()];
+            }
+            for (int j = 0; j < probabilities.size(); j++) {
+                double p = probabilities.get(j);
+                sums[j] += p;
+                squaredSums[j] += p * p;
+            }
+        }
+        double result = 0D;
+        for (int j = 0; j < sums.length; j++) {
+            double mean = sums[j] / NUMBER_OF_REPLICATES;
+            double variance = (squaredSums[j] - NUMBER_OF_REPLICATES * mean * mean) / (NUMBER_OF_REPLICATES - 1);
+            result = Math.max(result, Math.sqrt(Math.max(0D, variance)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the measurements per sampler, in the order of the types of samplers.
+     *
+     * @return The measurements per sampler.
+     */
+    List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the number of simulations run per sampler.
+     *
+     * @return The number of simulations run per sampler.
+     */
+    int getNumberOfSimulations() {
+        return numberOfSimulations;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-15s %25s %15s%n", "Sampler", "Iterations to tolerance", "Not converged"));
+        for (Entry entry : entries) {
+            double averageNumberOfIterations = numberOfSimulations == 0 ? 0D
+                    : (double) entry.numberOfIterationsToTolerance() / numberOfSimulations;
+            sb.append(String.format("%-15s %25.0f %15d%n", entry.samplerType(), averageNumberOfIterations,
+                    entry.numberOfSimulationsNotConverged()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.SplittableRandom;
+
+/**
+ * Enumeration of the types of samplers producing the points from which the ranges of the candidates are drawn in the
+ * simulations of the multivariate analyses.
+ */
+public enum SamplerType {
+    /**
+     * Independent points drawn from a pseudo-random number generator.
+     */
+    PSEUDO_RANDOM,
+    /**
+     * The points of a randomly shifted Sobol sequence, a quasi-Monte Carlo method. Note that the standard errors are
+     * estimated as if the points were independent, and are therefore conservative for this sampler.
+     */
+    SOBOL;
+
+    /**
+     * Creates a sampler of this type.
+     *
+     * @param numberOfDimensions The number of dimensions, i.e. the number of candidates.
+     * @param random             The random number generator for the sampler.
+     * @return A sampler of this type.
+     */
+    Sampler createSampler(final int numberOfDimensions, final SplittableRandom random) {
+        if (this == SOBOL) {
+            return new SobolSampler(numberOfDimensions, random);
+        } else {
+            return new PseudoRandomSampler(random);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package net.filipvanlaenen.asapop.analysis;
+
+/**
+ * Enumeration of the strategies to draw the ranges of the candidates in the simulations of the multivariate analyses.
+ */
+public enum SamplingStrategy {
+    /**
+     * Draws the ranges uniformly from the 99.9999% confidence interval of each candidate, and weights each iteration by
+     * the product of the probability masses. This oversamples the tails, which keeps the variance low for
+     * probabilities close to zero or one.
+     */
+    UNIFORM,
+    /**
+     * Draws the ranges from a defensive mixture: half of the draws in proportion to the probability masses using the
+     * alias table of each candidate, and the other half uniformly from the 99.9999% confidence interval. Each
+     * iteration is weighted by the ratios of the probability masses to the probabilities to draw the ranges. This
+     * lowers the variance for close races, while the uniform half keeps the tails of the confidence intervals
+     * covered.
+     */
+    IMPORTANCE
+}
@@ -0,0 +1,82 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.SplittableRandom;
+
+/**
+ * Record holding the settings for the simulations of the multivariate analyses.
+ *
+ * @param precisionPolicy      The numeric precision policy for the simulations.
+ * @param samplingStrategy     The strategy to draw the ranges in the simulations.
+ * @param convergenceTolerance The standard error below which the simulations stop before the requested number of
+ *                             iterations is reached, or zero if the simulations should always run the requested
+ *                             number of iterations.
+ * @param seed                 The seed for the random number generator of the simulations, or null if the
+ *                             simulations shouldn't be reproducible.
+ * @param samplerType          The type of sampler producing the points from which the ranges are drawn.
+ */
+record SimulationSettings(PrecisionPolicy precisionPolicy, SamplingStrategy samplingStrategy,
+        double convergenceTolerance, Long seed, SamplerType samplerType) {
+    /**
+     * The default settings for the simulations.
+     */
+    static final SimulationSettings DEFAULT =
+            new SimulationSettings(PrecisionPolicy.DECIMAL128, SamplingStrategy.UNIFORM);
+
+    /**
+     * Creates settings for simulations that always run the requested number of iterations, without a seed.
+     *
+     * @param precisionPolicy  The numeric precision policy for the simulations.
+     * @param samplingStrategy The strategy to draw the ranges in the simulations.
+     */
+    SimulationSettings(final PrecisionPolicy precisionPolicy, final SamplingStrategy samplingStrategy) {
+        this(precisionPolicy, samplingStrategy, 0D);
+    }
+
+    /**
+     * Creates settings for simulations without a seed.
+     *
+     * @param precisionPolicy      The numeric precision policy for the simulations.
+     * @param samplingStrategy     The strategy to draw the ranges in the simulations.
+     * @param convergenceTolerance The standard error below which the simulations stop before the requested number of
+     *                             iterations is reached, or zero if the simulations should always run the requested
+     *                             number of iterations.
+     */
+    SimulationSettings(final PrecisionPolicy precisionPolicy, final SamplingStrategy samplingStrategy,
+            final double convergenceTolerance) {
+        this(precisionPolicy, samplingStrategy, convergenceTolerance, null);
+    }
+
+    /**
+     * Creates settings for simulations using a pseudo-random sampler.
+     *
+     * @param precisionPolicy      The numeric precision policy for the simulations.
+     * @param samplingStrategy     The strategy to draw the ranges in the simulations.
+     * @param convergenceTolerance The standard error below which the simulations stop before the requested number of
+     *                             iterations is reached, or zero if the simulations should always run the requested
+     *                             number of iterations.
+     * @param seed                 The seed for the random number generator of the simulations, or null if the
+     *                             simulations shouldn't be reproducible.
+     */
+    SimulationSettings(final PrecisionPolicy precisionPolicy, final SamplingStrategy samplingStrategy,
+            final double convergenceTolerance, final Long seed) {
+        this(precisionPolicy, samplingStrategy, convergenceTolerance, seed, SamplerType.PSEUDO_RANDOM);
+    }
+
+    /**
+     * Creates the random number generator for the simulations, seeded with the seed if there is one.
+     *
+     * @return The random number generator for the simulations.
+     */
+    SplittableRandom createRandom() {
+        return seed == null ? new SplittableRandom() : new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns whether the simulations should stop when the convergence tolerance is reached.
+     *
+     * @return True if the simulations should stop when the convergence tolerance is reached.
+     */
+    boolean isConvergenceDriven() {
+        return convergenceTolerance > 0D;
+    }
+}
@@ -0,0 +1,289 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Class implementing a thread-safe cache with single-flight semantics. Concurrent requests for the same key wait on a
+ * single computation instead of each computing the value. If the cached value isn't sufficient for a request, e.g.
+ * because it has too few samples, it's replaced atomically by a new computation, on which concurrent requests for the
+ * same key wait too.
+ *
+ * The cache can be bounded by a maximal weight. Each completed value gets an estimated weight from the weigher, and
+ * when the total weight exceeds the maximal weight, the least recently used values are evicted until it fits again.
+ *
+ * @param <K> The class for the keys.
+ * @param <V> The class for the values.
+ */
+final class SingleFlightCache<K, V> {
+    /**
+     * Record holding a completed computation in the cache together with the estimated weight of its value.
+     *
+     * @param <V>         The class for the value.
+     * @param computation The completed computation.
+     * @param weight      The estimated weight of the value.
+     */
+    private record WeightedComputation<V>(CompletableFuture<V> computation, long weight) {
+    }
+
+    /**
+     * The initial capacity of the map with the completed computations.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * The load factor of the map with the completed computations.
+     */
+    private static final float LOAD_FACTOR = 0.75F;
+
+    /**
+     * A map with the computations of the values, completed or in flight, per key.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> computations =
+            new ConcurrentHashMap<K, CompletableFuture<V>>();
+    /**
+     * The completed computations with their weights, ordered from the least to the most recently used. All access to
+     * this map, and to the total weight, is synchronized on the map.
+     */
+    private final LinkedHashMap<K, WeightedComputation<V>> completedComputations =
+            new LinkedHashMap<K, WeightedComputation<V>>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    /**
+     * The weigher estimating the weight of a value.
+     */
+    private final ToLongFunction<V> weigher;
+    /**
+     * The maximal total weight of the values in the cache.
+     */
+    private long maximalWeight = Long.MAX_VALUE;
+    /**
+     * The total weight of the values in the cache.
+     */
+    private long weight;
+    /**
+     * The number of requests answered with a cached value.
+     */
+    private final AtomicLong hits = new AtomicLong();
+    /**
+     * The number of requests for which a value had to be computed.
+     */
+    private final AtomicLong misses = new AtomicLong();
+    /**
+     * The number of evicted values.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache where each value weighs one, such that the maximal weight is the maximal number of entries.
+     */
+    SingleFlightCache() {
+        this(v -> 1L);
+    }
+
+    /**
+     * Creates a cache with a weigher estimating the weight of the values.
+     *
+     * @param weigher The weigher estimating the weight of a value.
+     */
+    SingleFlightCache(final ToLongFunction<V> weigher) {
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the value for a key, computing it if there's no value yet.
+     *
+     * @param key      The key.
+     * @param supplier The supplier to compute the value.
+     * @return The value for the key.
+     */
+    V get(final K key, final Supplier<V> supplier) {
+        return get(key, v -> true, supplier);
+    }
+
+    /**
+     * Returns the value for a key if it's sufficient, and otherwise computes a new value and replaces the cached one.
+     * If another thread is already computing a value for the key, the method waits for that computation and checks
+     * whether its value is sufficient. If the computation fails, the key is removed from the cache again, and the
+     * exception is thrown to all the threads waiting for it.
+     *
+     * @param key        The key.
+     * @param sufficient The predicate deciding whether a value is sufficient for the request.
+     * @param supplier   The supplier to compute a new value. The value it returns should be sufficient.
+     * @return A sufficient value for the key.
+     */
+    V get(final K key, final Predicate<V> sufficient, final Supplier<V> supplier) {
+        while (true) {
+            CompletableFuture<V> current = computations.get(key);
+            if (current != null) {
+                V value = join(current);
+                if (sufficient.test(value)) {
+                    hits.incrementAndGet();
+                    touch(key);
+                    return value;
+                }
+            }
+            CompletableFuture<V> computation = new CompletableFuture<V>();
+            boolean registered = current == null ? computations.putIfAbsent(key, computation) == null
+                    : computations.replace(key, current, computation);
+            if (registered) {
+                misses.incrementAndGet();
+                return compute(key, computation, supplier);
+            }
+        }
+    }
+
+    /**
+     * Returns the maximal total weight of the values in the cache.
+     *
+     * @return The maximal total weight of the values in the cache.
+     */
+    long getMaximalWeight() {
+        synchronized (completedComputations) {
+            return maximalWeight;
+        }
+    }
+
+    /**
+     * Returns the statistics of the cache.
+     *
+     * @return The statistics of the cache.
+     */
+    CacheStatistics getStatistics() {
+        synchronized (completedComputations) {
+            return new CacheStatistics(hits.get(), misses.get(), evictions.get(), completedComputations.size(),
+                    weight);
+        }
+    }
+
+    /**
+     * Sets the maximal total weight of the values in the cache, and evicts the least recently used values if the
+     * cache is heavier than that.
+     *
+     * @param maximalWeight The maximal total weight of the values in the cache.
+     */
+    void setMaximalWeight(final long maximalWeight) {
+        synchronized (completedComputations) {
+            this.maximalWeight = maximalWeight;
+            evict(null);
+        }
+    }
+
+    /**
+     * Runs a registered computation for a key and completes it.
+     *
+     * @param key         The key.
+     * @param computation The registered computation.
+     * @param supplier    The supplier to compute the value.
+     * @return The computed value.
+     */
+    private V compute(final K key, final CompletableFuture<V> computation, final Supplier<V> supplier) {
+        V value;
+        try {
+            value = supplier.get();
+        } catch (RuntimeException | Error e) {
+            computations.remove(key, computation);
+            forget(key);
+            computation.completeExceptionally(e);
+            throw e;
+        }
+        computation.complete(value);
+        record(key, computation, weigher.applyAsLong(value));
+        return value;
+    }
+
+    /**
+     * Evicts the least recently used values until the total weight doesn't exceed the maximal weight anymore, except
+     * for the value of the key that was just computed. An evicted computation is only removed if it hasn't been
+     * replaced by a new one in the meantime. Must be called while synchronized on the completed computations.
+     *
+     * @param keptKey The key of the value that shouldn't be evicted, or null.
+     */
+    private void evict(final K keptKey) {
+        Iterator<Map.Entry<K, WeightedComputation<V>>> iterator = completedComputations.entrySet().iterator();
+        while (weight > maximalWeight && iterator.hasNext()) {
+            Map.Entry<K, WeightedComputation<V>> eldest = iterator.next();
+            if (!eldest.getKey().equals(keptKey)) {
+                iterator.remove();
+                weight -= eldest.getValue().weight();
+                computations.remove(eldest.getKey(), eldest.getValue().computation());
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes the completed computation for a key from the weight accounting, e.g. because the computation replacing
+     * it failed and removed the key from the cache.
+     *
+     * @param key The key.
+     */
+    private void forget(final K key) {
+        synchronized (completedComputations) {
+            WeightedComputation<V> removed = completedComputations.remove(key);
+            if (removed != null) {
+                weight -= removed.weight();
+            }
+        }
+    }
+
+    /**
+     * Waits for a computation to complete and returns its value, rethrowing the exception it failed with, if any.
+     *
+     * @param computation The computation.
+     * @return The value of the computation.
+     */
+    private V join(final CompletableFuture<V> computation) {
+        try {
+            return computation.join();
+        } catch (CompletionException ce) {
+            Throwable cause = ce.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ce;
+        }
+    }
+
+    /**
+     * Records a completed computation for a key with the weight of its value, replacing the computation it replaced,
+     * and evicts the least recently used values if the cache became too heavy.
+     *
+     * @param key         The key.
+     * @param computation The completed computation.
+     * @param valueWeight The estimated weight of the value.
+     */
+    private void record(final K key, final CompletableFuture<V> computation, final long valueWeight) {
+        synchronized (completedComputations) {
+            if (computations.get(key) != computation) {
+                return;
+            }
+            WeightedComputation<V> replaced =
+                    completedComputations.put(key, new WeightedComputation<V>(computation, valueWeight));
+            if (replaced != null) {
+                weight -= replaced.weight();
+            }
+            weight += valueWeight;
+            evict(key);
+        }
+    }
+
+    /**
+     * Marks the value for a key as the most recently used one.
+     *
+     * @param key The key.
+     */
+    private void touch(final K key) {
+        synchronized (completedComputations) {
+            completedComputations.get(key);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class implementing a sampler drawing the points of a Sobol sequence, a low-discrepancy sequence that fills the unit
+ * hypercube more evenly than independent points, such that the error of the estimates decreases faster with the
+ * number of iterations. The points are generated in Gray code order, and randomized by a digital shift drawn from a
+ * random number generator, such that every sampler produces an unbiased estimate and samplers for different worker
+ * threads can be combined.
+ *
+ * The direction numbers are those published by Joe and Kuo for the first sixteen dimensions. Any further dimensions
+ * are filled with independent random numbers.
+ */
+final class SobolSampler implements Sampler {
+    /**
+     * The number of bits of the coordinates.
+     */
+    private static final int NUMBER_OF_BITS = 32;
+    /**
+     * The factor converting the bits of a coordinate to a double in the interval [0, 1).
+     */
+    private static final double TWO_TO_THE_POWER_OF_MINUS_THIRTY_TWO = 0x1.0p-32;
+    /**
+     * The degree and the coefficients of the primitive polynomial, followed by the initial direction numbers, for each
+     * dimension after the first.
+     */
+    private static final int[][] PRIMITIVE_POLYNOMIALS_AND_INITIAL_DIRECTION_NUMBERS = new int[][] {{1, 0, 1},
+            {2, 1, 1, 3}, {3, 1, 1, 3, 1}, {3, 2, 1, 1, 1}, {4, 1, 1, 1, 3, 3}, {4, 4, 1, 3, 5, 13},
+            {5, 2, 1, 1, 5, 5, 17}, {5, 4, 1, 1, 5, 5, 5}, {5, 7, 1, 1, 7, 11, 19}, {5, 11, 1, 1, 5, 1, 1},
+            {5, 13, 1, 1, 1, 3, 11}, {5, 14, 1, 3, 5, 5, 31}, {6, 1, 1, 3, 3, 9, 7, 49}, {6, 13, 1, 1, 1, 15, 21, 21},
+            {6, 16, 1, 3, 1, 13, 27, 49}};
+    /**
+     * The maximal number of dimensions covered by the Sobol sequence.
+     */
+    static final int MAXIMAL_NUMBER_OF_DIMENSIONS = PRIMITIVE_POLYNOMIALS_AND_INITIAL_DIRECTION_NUMBERS.length + 1;
+    /**
+     * The direction numbers per dimension.
+     */
+    private final int[][] directionNumbers;
+    /**
+     * The digital shifts per dimension.
+     */
+    private final int[] shifts;
+    /**
+     * The bits of the current point per dimension, before the digital shift.
+     */
+    private final int[] bits;
+    /**
+     * The random number generator for the shifts and the dimensions not covered by the Sobol sequence.
+     */
+    private final SplittableRandom random;
+    /**
+     * The index of the current point.
+     */
+    private int index;
+
+    /**
+     * Constructor taking the number of dimensions and the random number generator as its parameters.
+     *
+     * @param numberOfDimensions The number of dimensions.
+     * @param random             The random number generator for the digital shift and the dimensions not covered by
+     *                           the Sobol sequence.
+     */
+    SobolSampler(final int numberOfDimensions, final SplittableRandom random) {
+        this.random = random;
+        int numberOfSobolDimensions = Math.min(numberOfDimensions, MAXIMAL_NUMBER_OF_DIMENSIONS);
+        directionNumbers = new int[numberOfSobolDimensions][];
+        shifts = new int[numberOfSobolDimensions];
+        bits = new int[numberOfSobolDimensions];
+        for (int d = 0; d < numberOfSobolDimensions; d++) {
+            directionNumbers[d] = calculateDirectionNumbers(d);
+            shifts[d] = random.nextInt();
+        }
+    }
+
+    /**
+     * Calculates the direction numbers for a dimension.
+     *
+     * @param dimension The dimension.
+     * @return The direction numbers for the dimension.
+     */
+    private static int[] calculateDirectionNumbers(final int dimension) {
+        int[] v = new int[NUMBER_OF_BITS];
+        if (dimension == 0) {
+            for (int k = 0; k < NUMBER_OF_BITS; k++) {
+                v[k] = 1 << (NUMBER_OF_BITS - 1 - k);
+            }
+            return v;
+        }
+        int[] parameters = PRIMITIVE_POLYNOMIALS_AND_INITIAL_DIRECTION_NUMBERS[dimension - 1];
+        int s = parameters[0];
+        int a = parameters[1];
+        for (int k = 0; k < s; k++) {
+            v[k] = parameters[k + 2] << (NUMBER_OF_BITS - 1 - k);
+        }
+        for (int k = s; k < NUMBER_OF_BITS; k++) {
+            v[k] = v[k - s] ^ (v[k - s] >>> s);
+            for (int j = 1; j < s; j++) {
+                if (((a >>> (s - 1 - j)) & 1) == 1) {
+                    v[k] ^= v[k - j];
+                }
+            }
+        }
+        return v;
+    }
+
+    @Override
+    public void next(final double[] point) {
+        for (int d = 0; d < bits.length; d++) {
+            point[d] = Integer.toUnsignedLong(bits[d] ^ shifts[d]) * TWO_TO_THE_POWER_OF_MINUS_THIRTY_TWO;
+        }
+        for (int d = bits.length; d < point.length; d++) {
+            point[d] = random.nextDouble();
+        }
+        // In Gray code order, the next point differs from the current one by the direction number for the lowest zero
+        // bit of the index.
+        int c = Integer.numberOfTrailingZeros(~index);
+        for (int d = 0; d < bits.length; d++) {
+            bits[d] ^= directionNumbers[d][c];
+        }
+        index++;
+    }
+}
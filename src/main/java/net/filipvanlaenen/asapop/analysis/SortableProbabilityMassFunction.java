@@ -2,59 +2,41 @@ package net.filipvanlaenen.asapop.analysis;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class representing a probability mass function with sortable keys. When the keys are sortable, medians and confidence
- * intervals can be calculated.
+ * intervals can be calculated. Subclasses provide the storage for the keys and the probability masses.
  *
  * @param <SK> The class for the sortable keys.
  */
 public abstract class SortableProbabilityMassFunction<SK extends Comparable<SK>> extends ProbabilityMassFunction<SK> {
     /**
-     * A map holding the key value pairs for the probability mass function.
+     * The accumulated weighted probability masses, where the element at index <i>i</i> holds the sum of the weighted
+     * probability masses of the keys from the first one up to and including the key at index <i>i</i>.
      */
-    private final Map<SK, BigDecimal> pmf;
+    private volatile BigDecimal[] accumulatedProbabilityMasses;
     /**
-     * The probability mass sum.
+     * The reverse accumulated weighted probability masses, where the element at index <i>i</i> holds the sum of the
+     * weighted probability masses of the keys from the key at index <i>i</i> up to and including the last one.
      */
-    private BigDecimal probabilityMassSum;
+    private volatile BigDecimal[] reverseAccumulatedProbabilityMasses;
     /**
-     * A map with calculated confidence intervals.
-     */
-    private final Map<Double, ConfidenceInterval<SK>> confidenceIntervals;
-    /**
-     * A sorted list with the keys.
+     * The probability mass sum.
      */
-    private final List<SK> sortedKeys;
+    private volatile BigDecimal probabilityMassSum;
     /**
-     * A sorted list with the keys, reversed.
+     * A map with calculated confidence intervals.
      */
-    private final List<SK> reverseSortedKeys;
+    private final Map<Double, ConfidenceInterval<SK>> confidenceIntervals =
+            new ConcurrentHashMap<Double, ConfidenceInterval<SK>>();
     /**
      * The median.
      */
-    private SK median;
-
-    /**
-     * Creates a sortable probability mass function based on a map with the key-value pairs.
-     *
-     * @param pmf A map with the key-value pairs for the probability mass function, using a sortable key.
-     */
-    protected SortableProbabilityMassFunction(final Map<SK, BigDecimal> pmf) {
-        this.pmf = Collections.unmodifiableMap(pmf);
-        sortedKeys = new ArrayList<SK>(pmf.keySet());
-        Collections.sort(sortedKeys);
-        reverseSortedKeys = new ArrayList<SK>(sortedKeys);
-        Collections.reverse(reverseSortedKeys);
-        confidenceIntervals = new HashMap<Double, ConfidenceInterval<SK>>();
-    }
+    private volatile SK median;
 
     /**
      * Calculates the confidence interval for a confidence level.
@@ -64,11 +46,39 @@ public abstract class SortableProbabilityMassFunction<SK extends Comparable<SK>>
      */
     private ConfidenceInterval<SK> calculateConfidenceInterval(final double level) {
         BigDecimal fraction = getProbabilityMassSum().multiply(new BigDecimal(1 - level)).divide(new BigDecimal(2));
-        SK lowerBound = findQuantileBoundary(fraction, sortedKeys);
-        SK upperBound = findQuantileBoundary(fraction, reverseSortedKeys);
+        SK lowerBound = findQuantileBoundary(fraction, false);
+        SK upperBound = findQuantileBoundary(fraction, true);
         return new ConfidenceInterval<SK>(lowerBound, upperBound);
     }
 
+    /**
+     * Builds the cumulative distribution index, i.e. the accumulated and the reverse accumulated weighted probability
+     * masses, such that quantiles and tail masses can be found using a binary search.
+     */
+    private void buildCumulativeDistributionIndex() {
+        int numberOfKeys = getSortedKeys().size();
+        BigDecimal[] weightedProbabilityMasses = new BigDecimal[numberOfKeys];
+        for (int i = 0; i < numberOfKeys; i++) {
+            weightedProbabilityMasses[i] = getWeightedProbabilityMass(i);
+        }
+        BigDecimal[] accumulated = new BigDecimal[numberOfKeys];
+        BigDecimal accumulatedProbabilityMass = BigDecimal.ZERO;
+        for (int i = 0; i < numberOfKeys; i++) {
+            accumulatedProbabilityMass =
+                    accumulatedProbabilityMass.add(weightedProbabilityMasses[i], MathContext.DECIMAL128);
+            accumulated[i] = accumulatedProbabilityMass;
+        }
+        BigDecimal[] reverseAccumulated = new BigDecimal[numberOfKeys];
+        accumulatedProbabilityMass = BigDecimal.ZERO;
+        for (int i = numberOfKeys - 1; i >= 0; i--) {
+            accumulatedProbabilityMass =
+                    accumulatedProbabilityMass.add(weightedProbabilityMasses[i], MathContext.DECIMAL128);
+            reverseAccumulated[i] = accumulatedProbabilityMass;
+        }
+        reverseAccumulatedProbabilityMasses = reverseAccumulated;
+        accumulatedProbabilityMasses = accumulated;
+    }
+
     /**
      * Calculates the median.
      *
@@ -76,68 +86,115 @@ public abstract class SortableProbabilityMassFunction<SK extends Comparable<SK>>
      */
     private SK calculateMedian() {
         BigDecimal halfProbabilityMassSum = getProbabilityMassSum().divide(new BigDecimal(2), MathContext.DECIMAL128);
-        BigDecimal accumulatedProbabilityMass = BigDecimal.ZERO;
-        for (SK s : sortedKeys) {
-            accumulatedProbabilityMass = accumulatedProbabilityMass.add(
-                    getProbabilityMass(s).multiply(getKeyWeight(s), MathContext.DECIMAL128), MathContext.DECIMAL128);
-            if (accumulatedProbabilityMass.compareTo(halfProbabilityMassSum) >= 0) {
-                return s;
+        List<SK> keys = getSortedKeys();
+        int index = findFirstIndexAbove(getAccumulatedProbabilityMasses(), halfProbabilityMassSum, true);
+        return index == keys.size() ? null : keys.get(index);
+    }
+
+    /**
+     * Indicates whether some other object is "equal to" this one. Subclasses compare the keys and the probability
+     * masses they store.
+     *
+     * @param obj The object to compare this object to.
+     * @return True if the other object is equal to this object.
+     */
+    @Override
+    public abstract boolean equals(Object obj);
+
+    /**
+     * Finds the first index in an ascending array of accumulated probability masses where the accumulated probability
+     * mass is above (or equal to) a probability mass fraction. If there is no such index, the length of the array is
+     * returned.
+     *
+     * @param accumulated             An ascending array of accumulated probability masses.
+     * @param probabilityMassFraction The probability mass fraction.
+     * @param inclusive               Whether an accumulated probability mass equal to the fraction matches too.
+     * @return The first index where the accumulated probability mass is above the probability mass fraction.
+     */
+    private static int findFirstIndexAbove(final BigDecimal[] accumulated, final BigDecimal probabilityMassFraction,
+            final boolean inclusive) {
+        int low = 0;
+        int high = accumulated.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = accumulated[middle].compareTo(probabilityMassFraction);
+            if (comparison > 0 || inclusive && comparison == 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
             }
         }
-        return null;
+        return low;
     }
 
     /**
-     * Calculates the sum of all probability masses.
+     * Finds the last index in a descending array of reverse accumulated probability masses where the accumulated
+     * probability mass is above a probability mass fraction. If there is no such index, -1 is returned.
      *
-     * @return The sum of all probability masses.
+     * @param reverseAccumulated      A descending array of reverse accumulated probability masses.
+     * @param probabilityMassFraction The probability mass fraction.
+     * @return The last index where the reverse accumulated probability mass is above the probability mass fraction.
      */
-    private BigDecimal calculateProbabilityMassSum() {
-        BigDecimal result = BigDecimal.ZERO;
-        for (SK key : pmf.keySet()) {
-            result = result.add(pmf.get(key).multiply(getKeyWeight(key), MathContext.DECIMAL128),
-                    MathContext.DECIMAL128);
+    private static int findLastIndexAbove(final BigDecimal[] reverseAccumulated,
+            final BigDecimal probabilityMassFraction) {
+        int low = 0;
+        int high = reverseAccumulated.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (reverseAccumulated[middle].compareTo(probabilityMassFraction) > 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
         }
-        return result;
+        return low - 1;
     }
 
     /**
-     * Indicates whether some other object is "equal to" this one.
+     * Finds a quantile of a given probability mass fraction. The quantile boundary is the key just before the key
+     * where the accumulated probability mass exceeds the probability mass fraction, or the first key if it is exceeded
+     * immediately.
      *
-     * @param obj The object to compare this object to.
-     * @return True if the other object is equal to this object.
+     * @param probabilityMassFraction The probability mass fraction.
+     * @param reversed                Whether the keys should be traversed in reverse order.
+     * @return The boundary for the quantile.
      */
-    @Override
-    public boolean equals(final Object obj) {
-        if (obj instanceof SortableProbabilityMassFunction) {
-            SortableProbabilityMassFunction<SK> other = (SortableProbabilityMassFunction<SK>) obj;
-            return getClass().equals(other.getClass()) && pmf.equals(other.pmf);
+    private SK findQuantileBoundary(final BigDecimal probabilityMassFraction, final boolean reversed) {
+        List<SK> keys = getSortedKeys();
+        int numberOfKeys = keys.size();
+        // EQMU: Changing the conditional boundaries in the binary searches produces mutants that are practically
+        // equivalent because they are hard to kill due to rounding errors.
+        if (reversed) {
+            int index = findLastIndexAbove(getReverseAccumulatedProbabilityMasses(), probabilityMassFraction);
+            return index < 0 ? null : keys.get(Math.min(index + 1, numberOfKeys - 1));
         } else {
-            return false;
+            int index = findFirstIndexAbove(getAccumulatedProbabilityMasses(), probabilityMassFraction, false);
+            return index == numberOfKeys ? null : keys.get(Math.max(index - 1, 0));
         }
     }
 
     /**
-     * Finds a quantile of a given probability mass fraction.
+     * Returns the accumulated weighted probability masses, building the cumulative distribution index if needed.
      *
-     * @param probabilityMassFraction The probability mass fraction.
-     * @param sortedKeysList          The sorted keys of the probability mass function.
-     * @return The boundary for the quantile.
+     * @return The accumulated weighted probability masses.
      */
-    private SK findQuantileBoundary(final BigDecimal probabilityMassFraction, final List<SK> sortedKeysList) {
-        BigDecimal accumulatedProbabilityMass = BigDecimal.ZERO;
-        SK previousKey = sortedKeysList.get(0);
-        for (SK s : sortedKeysList) {
-            accumulatedProbabilityMass = accumulatedProbabilityMass.add(
-                    getProbabilityMass(s).multiply(getKeyWeight(s), MathContext.DECIMAL128), MathContext.DECIMAL128);
-            // EQMU: Changing the conditional boundary below produces a mutant that is practically equivalent because
-            // it is hard to kill due to rounding errors.
-            if (accumulatedProbabilityMass.compareTo(probabilityMassFraction) > 0) {
-                return previousKey;
-            }
-            previousKey = s;
+    private BigDecimal[] getAccumulatedProbabilityMasses() {
+        if (accumulatedProbabilityMasses == null) {
+            buildCumulativeDistributionIndex();
         }
-        return null;
+        return accumulatedProbabilityMasses;
+    }
+
+    /**
+     * Returns the sum of the weighted probability masses of the keys from the key at an index up to and including the
+     * last one.
+     *
+     * @param index The index of the first key to include.
+     * @return The sum of the weighted probability masses from the key at the index onwards.
+     */
+    BigDecimal getAccumulatedProbabilityMassFrom(final int index) {
+        BigDecimal[] reverseAccumulated = getReverseAccumulatedProbabilityMasses();
+        return index >= reverseAccumulated.length ? BigDecimal.ZERO : reverseAccumulated[index];
     }
 
     /**
@@ -147,10 +204,7 @@ public abstract class SortableProbabilityMassFunction<SK extends Comparable<SK>>
      * @return The confidence interval.
      */
     public ConfidenceInterval<SK> getConfidenceInterval(final double level) {
-        if (!confidenceIntervals.containsKey(level)) {
-            confidenceIntervals.put(level, calculateConfidenceInterval(level));
-        }
-        return confidenceIntervals.get(level);
+        return confidenceIntervals.computeIfAbsent(level, this::calculateConfidenceInterval);
     }
 
     /**
@@ -161,19 +215,10 @@ public abstract class SortableProbabilityMassFunction<SK extends Comparable<SK>>
      */
     public List<SK> getConfidenceIntervalKeyList(final double level) {
         ConfidenceInterval<SK> confidenceInterval = getConfidenceInterval(level);
-        int fromIndex = sortedKeys.indexOf(confidenceInterval.lowerBound());
-        int toIndex = sortedKeys.indexOf(confidenceInterval.upperBound());
-        return sortedKeys.subList(fromIndex, toIndex + 1);
-    }
-
-    /**
-     * Returns all the keys as a set.
-     *
-     * @return An unmodifiable set with all the keys.
-     */
-    @Override
-    public Set<SK> getKeys() {
-        return Collections.unmodifiableSet(pmf.keySet());
+        List<SK> keys = getSortedKeys();
+        int fromIndex = Collections.binarySearch(keys, confidenceInterval.lowerBound());
+        int toIndex = Collections.binarySearch(keys, confidenceInterval.upperBound());
+        return keys.subList(fromIndex, toIndex + 1);
     }
 
     /**
@@ -185,6 +230,18 @@ public abstract class SortableProbabilityMassFunction<SK extends Comparable<SK>>
      */
     abstract BigDecimal getKeyWeight(SK key);
 
+    /**
+     * Returns the probability mass multiplied by the key weight for the key at an index in the sorted list with the
+     * keys.
+     *
+     * @param index The index of the key in the sorted list with the keys.
+     * @return The probability mass multiplied by the key weight.
+     */
+    BigDecimal getWeightedProbabilityMass(final int index) {
+        SK key = getSortedKeys().get(index);
+        return getProbabilityMass(key).multiply(getKeyWeight(key), MathContext.DECIMAL128);
+    }
+
     /**
      * Returns the median.
      *
@@ -202,19 +259,7 @@ public abstract class SortableProbabilityMassFunction<SK extends Comparable<SK>>
      *
      * @return The number of samples.
      */
-    Long getNumberOfSamples() {
-        return (long) pmf.size();
-    }
-
-    /**
-     * Returns the probability mass for a key.
-     *
-     * @param key The key for which to return the probability mass.
-     * @return The probability mass for the key.
-     */
-    public BigDecimal getProbabilityMass(final SK key) {
-        return pmf.get(key);
-    }
+    abstract Long getNumberOfSamples();
 
     /**
      * Returns the sum of the probability masses.
@@ -223,27 +268,37 @@ public abstract class SortableProbabilityMassFunction<SK extends Comparable<SK>>
      */
     protected BigDecimal getProbabilityMassSum() {
         if (probabilityMassSum == null) {
-            probabilityMassSum = calculateProbabilityMassSum();
+            BigDecimal[] accumulated = getAccumulatedProbabilityMasses();
+            probabilityMassSum = accumulated.length == 0 ? BigDecimal.ZERO : accumulated[accumulated.length - 1];
         }
         return probabilityMassSum;
     }
 
+    /**
+     * Returns the reverse accumulated weighted probability masses, building the cumulative distribution index if
+     * needed.
+     *
+     * @return The reverse accumulated weighted probability masses.
+     */
+    private BigDecimal[] getReverseAccumulatedProbabilityMasses() {
+        if (reverseAccumulatedProbabilityMasses == null) {
+            buildCumulativeDistributionIndex();
+        }
+        return reverseAccumulatedProbabilityMasses;
+    }
+
     /**
      * Returns all the keys as a sorted list.
      *
      * @return An unmodifiable list with all the keys in sorted order.
      */
-    protected List<SK> getSortedKeys() {
-        return Collections.unmodifiableList(sortedKeys);
-    }
+    protected abstract List<SK> getSortedKeys();
 
     /**
-     * Returns a hash code value for the object.
+     * Returns a hash code value for the object, consistent with the subclass's implementation of the equals method.
      *
      * @return A hash code value for the object.
      */
     @Override
-    public int hashCode() {
-        return Objects.hash(getClass(), pmf);
-    }
+    public abstract int hashCode();
 }
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -55,7 +56,8 @@ public final class SampledHypergeometricDistributionsFileCache {
     }
 
     /**
-     * Writes a sampled hypergeometric distribution to the file system.
+     * Writes a sampled hypergeometric distribution to the file system. The distribution is written to a temporary file
+     * first, which is then moved into place, such that a concurrent reader never sees a partially written file.
      *
      * @param value          The number of responses in the opinion poll.
      * @param sampleSize     The sample size of the opinion poll.
@@ -71,7 +73,10 @@ public final class SampledHypergeometricDistributionsFileCache {
             Path directoryPath = filePath.getParent();
             try {
                 Files.createDirectories(directoryPath);
-                objectMapper.writeValue(filePath.toFile(), DATA_BUILDER.toData(pmf));
+                Path temporaryFilePath = Files.createTempFile(directoryPath, value.toString(), ".tmp");
+                objectMapper.writeValue(temporaryFilePath.toFile(), DATA_BUILDER.toData(pmf));
+                Files.move(temporaryFilePath, filePath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
             } catch (IOException e) {
                 e.printStackTrace();
             }
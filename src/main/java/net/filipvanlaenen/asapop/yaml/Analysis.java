@@ -10,6 +10,10 @@ public class Analysis {
      * The opinon poll analyses.
      */
     private Set<OpinionPollAnalysis> opinionPollAnalyses;
+    /**
+     * The seed used for the simulations.
+     */
+    private Long seed;
 
     /**
      * Default constructor.
@@ -26,6 +30,15 @@ public class Analysis {
         return opinionPollAnalyses;
     }
 
+    /**
+     * Returns the seed used for the simulations.
+     *
+     * @return The seed used for the simulations.
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
     /**
      * Sets the set with the opinion poll analyses.
      *
@@ -34,4 +47,13 @@ public class Analysis {
     public void setOpinionPollAnalyses(final Set<OpinionPollAnalysis> opinionPollAnalyses) {
         this.opinionPollAnalyses = opinionPollAnalyses;
     }
+
+    /**
+     * Sets the seed used for the simulations.
+     *
+     * @param seed The seed used for the simulations.
+     */
+    public void setSeed(final Long seed) {
+        this.seed = seed;
+    }
 }
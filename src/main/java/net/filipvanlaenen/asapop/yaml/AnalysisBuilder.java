@@ -53,6 +53,7 @@ public class AnalysisBuilder {
             opinionPollAnalyses.add(buildOpinionPollAnalysis(poll));
         }
         result.setOpinionPollAnalyses(opinionPollAnalyses);
+        result.setSeed(engine.getSeed());
         return result;
     }
 
@@ -79,6 +80,8 @@ public class AnalysisBuilder {
             firstRoundProbabilityMassFunction.add(firstRoundResultAnalysis);
         }
         firstRoundAnalysis.setProbabilityMassFunction(firstRoundProbabilityMassFunction);
+        firstRoundAnalysis.setNumberOfIterations(firstRoundWinnersAnalysis.getNumberOfIterations());
+        firstRoundAnalysis.setStandardError(firstRoundWinnersAnalysis.getStandardError() * HUNDRED);
         return firstRoundAnalysis;
     }
 
@@ -145,13 +148,19 @@ public class AnalysisBuilder {
         ResponseScenarioAnalysis responseScenarioAnalysis = new ResponseScenarioAnalysis();
         responseScenarioAnalysis.setArea(responseScenario.getArea());
         responseScenarioAnalysis.setScope(nullOrToString(responseScenario.getScope()));
-        Map<Set<String>, ResultAnalysis> resultAnalyses = new HashMap<Set<String>, ResultAnalysis>();
         VoteSharesAnalysis voteSharesAnalysis = engine.getVoteSharesAnalysis(responseScenario);
-        for (Set<ElectoralList> electoralListSet : responseScenario.getElectoralListSets()) {
-            resultAnalyses.put(ElectoralList.getIds(electoralListSet),
-                    buildResultAnalysis(voteSharesAnalysis, electoralListSet));
+        if (voteSharesAnalysis != null) {
+            Map<Set<String>, ResultAnalysis> resultAnalyses = new HashMap<Set<String>, ResultAnalysis>();
+            for (Set<ElectoralList> electoralListSet : responseScenario.getElectoralListSets()) {
+                resultAnalyses.put(ElectoralList.getIds(electoralListSet),
+                        buildResultAnalysis(voteSharesAnalysis, electoralListSet));
+            }
+            responseScenarioAnalysis.setResultAnalyses(resultAnalyses);
+        }
+        FirstRoundWinnersAnalysis firstRoundWinnersAnalysis = engine.getFirstRoundWinnersAnalysis(responseScenario);
+        if (firstRoundWinnersAnalysis != null) {
+            responseScenarioAnalysis.setFirstRoundAnalysis(buildFirstRoundWinnersAnalysis(firstRoundWinnersAnalysis));
         }
-        responseScenarioAnalysis.setResultAnalyses(resultAnalyses);
         return responseScenarioAnalysis;
     }
 
@@ -5,15 +5,48 @@ package net.filipvanlaenen.asapop.yaml;
  * opinion polls in an ROPF file.
  */
 public class ElectionData {
+    /**
+     * Whether the vote share distributions should be calculated on an adaptive range grid.
+     */
+    private boolean adaptiveRangeGrid;
+    /**
+     * The standard error below which the simulations for the first round winners stop. Zero, the default, means that
+     * the simulations always run the requested number of iterations.
+     */
+    private double convergenceTolerance;
     /**
      * The electoral system.
      */
     private ElectoralSystem electoralSystem;
+    /**
+     * The maximal relative error allowed when the vote share distributions are calculated using a closed-form
+     * approximation. Zero, the default, means that no approximation is used.
+     */
+    private double maximalApproximationError;
     /**
      * The population size for the election.
      */
     private long populationSize;
 
+    /**
+     * Returns whether the vote share distributions should be calculated on an adaptive range grid, with short ranges
+     * around the mode and long ranges in the tails.
+     *
+     * @return True if the vote share distributions should be calculated on an adaptive range grid.
+     */
+    public boolean getAdaptiveRangeGrid() {
+        return adaptiveRangeGrid;
+    }
+
+    /**
+     * Returns the standard error below which the simulations for the first round winners stop.
+     *
+     * @return The standard error below which the simulations for the first round winners stop.
+     */
+    public double getConvergenceTolerance() {
+        return convergenceTolerance;
+    }
+
     /**
      * Returns the electoral system.
      *
@@ -23,6 +56,16 @@ public class ElectionData {
         return electoralSystem;
     }
 
+    /**
+     * Returns the maximal relative error allowed when the vote share distributions are calculated using a closed-form
+     * approximation.
+     *
+     * @return The maximal relative error allowed for the closed-form approximation.
+     */
+    public double getMaximalApproximationError() {
+        return maximalApproximationError;
+    }
+
     /**
      * Returns the population size for the election.
      *
@@ -32,6 +75,24 @@ public class ElectionData {
         return populationSize;
     }
 
+    /**
+     * Sets whether the vote share distributions should be calculated on an adaptive range grid.
+     *
+     * @param adaptiveRangeGrid True if the vote share distributions should be calculated on an adaptive range grid.
+     */
+    public void setAdaptiveRangeGrid(final boolean adaptiveRangeGrid) {
+        this.adaptiveRangeGrid = adaptiveRangeGrid;
+    }
+
+    /**
+     * Sets the standard error below which the simulations for the first round winners stop.
+     *
+     * @param convergenceTolerance The standard error below which the simulations for the first round winners stop.
+     */
+    public void setConvergenceTolerance(final double convergenceTolerance) {
+        this.convergenceTolerance = convergenceTolerance;
+    }
+
     /**
      * Sets the electoral system.
      *
@@ -41,6 +102,16 @@ public class ElectionData {
         this.electoralSystem = electoralSystem;
     }
 
+    /**
+     * Sets the maximal relative error allowed when the vote share distributions are calculated using a closed-form
+     * approximation.
+     *
+     * @param maximalApproximationError The maximal relative error allowed for the closed-form approximation.
+     */
+    public void setMaximalApproximationError(final double maximalApproximationError) {
+        this.maximalApproximationError = maximalApproximationError;
+    }
+
     /**
      * Sets the population size for the election.
      *
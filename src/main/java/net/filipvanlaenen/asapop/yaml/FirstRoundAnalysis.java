@@ -7,10 +7,27 @@ import java.util.Set;
  * containing the analysis of the opinion polls in an ROPF file.
  */
 public class FirstRoundAnalysis {
+    /**
+     * The number of iterations performed by the simulations.
+     */
+    private long numberOfIterations;
     /**
      * The probability mass function as a set of <code>FirstRoundResultProbabilityMass</code> instances.
      */
     private Set<FirstRoundResultProbabilityMass> probabilityMassFunction;
+    /**
+     * The largest standard error of the probability masses reached by the simulations, in percentage points.
+     */
+    private double standardError;
+
+    /**
+     * Returns the number of iterations performed by the simulations.
+     *
+     * @return The number of iterations performed by the simulations.
+     */
+    public long getNumberOfIterations() {
+        return numberOfIterations;
+    }
 
     /**
      * Returns the probability mass function.
@@ -21,6 +38,24 @@ public class FirstRoundAnalysis {
         return probabilityMassFunction;
     }
 
+    /**
+     * Returns the largest standard error of the probability masses reached by the simulations.
+     *
+     * @return The largest standard error of the probability masses, in percentage points.
+     */
+    public double getStandardError() {
+        return standardError;
+    }
+
+    /**
+     * Sets the number of iterations performed by the simulations.
+     *
+     * @param numberOfIterations The number of iterations performed by the simulations.
+     */
+    public void setNumberOfIterations(final long numberOfIterations) {
+        this.numberOfIterations = numberOfIterations;
+    }
+
     /**
      * Sets the probability mass function.
      *
@@ -29,4 +64,13 @@ public class FirstRoundAnalysis {
     public void setProbabilityMassFunction(final Set<FirstRoundResultProbabilityMass> probabilityMassFunction) {
         this.probabilityMassFunction = probabilityMassFunction;
     }
+
+    /**
+     * Sets the largest standard error of the probability masses reached by the simulations.
+     *
+     * @param standardError The largest standard error of the probability masses, in percentage points.
+     */
+    public void setStandardError(final double standardError) {
+        this.standardError = standardError;
+    }
 }
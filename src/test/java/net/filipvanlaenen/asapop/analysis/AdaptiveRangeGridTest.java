@@ -0,0 +1,98 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>AdaptiveRangeGrid</code> class.
+ */
+public class AdaptiveRangeGridTest {
+    /**
+     * The magic number two hundred.
+     */
+    private static final long TWO_HUNDRED = 200L;
+    /**
+     * The magic number one thousand.
+     */
+    private static final long ONE_THOUSAND = 1_000L;
+    /**
+     * The magic number ten thousand.
+     */
+    private static final long TEN_THOUSAND = 10_000L;
+    /**
+     * The magic number 9,999,999.
+     */
+    private static final long POPULATION_SIZE = 9_999_999L;
+    /**
+     * The magic number 0.95.
+     */
+    private static final double NINETY_FIVE_PERCENT = 0.95D;
+    /**
+     * The magic number 0.999999 (six nines).
+     */
+    private static final double SIX_NINES = 0.999999D;
+    /**
+     * The adaptive range grid to run the tests on.
+     */
+    private static final Range[] RANGES =
+            AdaptiveRangeGrid.calculateRanges(TWO_HUNDRED, ONE_THOUSAND, TEN_THOUSAND, POPULATION_SIZE);
+
+    /**
+     * Verifies that the ranges cover the population without gaps or overlaps.
+     */
+    @Test
+    public void rangesShouldCoverThePopulationWithoutGaps() {
+        assertEquals(0L, RANGES[0].lowerBound());
+        for (int i = 1; i < RANGES.length; i++) {
+            assertEquals(RANGES[i - 1].upperBound() + 1L, RANGES[i].lowerBound());
+        }
+        assertEquals(POPULATION_SIZE, RANGES[RANGES.length - 1].upperBound());
+    }
+
+    /**
+     * Verifies that the adaptive range grid has far fewer ranges than the uniform grid with the same resolution.
+     */
+    @Test
+    public void adaptiveGridShouldHaveFewerRangesThanTheUniformGrid() {
+        assertTrue(RANGES.length < TEN_THOUSAND / 2);
+    }
+
+    /**
+     * Verifies that the ranges around the mode have the same length as in the uniform grid.
+     */
+    @Test
+    public void rangesAroundTheModeShouldHaveTheLengthOfTheUniformGrid() {
+        long mode = POPULATION_SIZE * TWO_HUNDRED / ONE_THOUSAND;
+        for (Range range : RANGES) {
+            if (range.lowerBound() <= mode && mode <= range.upperBound()) {
+                assertEquals(ONE_THOUSAND, range.getLength());
+            }
+        }
+    }
+
+    /**
+     * Verifies that a distribution on the adaptive grid has the same confidence intervals as one on the uniform grid.
+     */
+    @Test
+    public void confidenceIntervalsShouldBeEqualToThoseOnTheUniformGrid() {
+        SampledHypergeometricDistribution uniform =
+                new SampledHypergeometricDistribution(TWO_HUNDRED, ONE_THOUSAND, TEN_THOUSAND, POPULATION_SIZE);
+        SampledHypergeometricDistribution adaptive =
+                SampledHypergeometricDistribution.createAdaptive(TWO_HUNDRED, ONE_THOUSAND, TEN_THOUSAND,
+                        POPULATION_SIZE);
+        assertEquals(uniform.getConfidenceInterval(NINETY_FIVE_PERCENT),
+                adaptive.getConfidenceInterval(NINETY_FIVE_PERCENT));
+        assertEquals(uniform.getConfidenceInterval(SIX_NINES), adaptive.getConfidenceInterval(SIX_NINES));
+    }
+
+    /**
+     * Verifies that the resolution of a distribution on the adaptive grid is the requested resolution.
+     */
+    @Test
+    public void resolutionShouldBeTheRequestedResolution() {
+        assertEquals(TEN_THOUSAND, SampledHypergeometricDistribution
+                .createAdaptive(TWO_HUNDRED, ONE_THOUSAND, TEN_THOUSAND, POPULATION_SIZE).getResolution());
+    }
+}
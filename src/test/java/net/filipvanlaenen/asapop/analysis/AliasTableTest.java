@@ -0,0 +1,102 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>AliasTable</code> class.
+ */
+public class AliasTableTest {
+    /**
+     * The number of draws.
+     */
+    private static final int NUMBER_OF_DRAWS = 100_000;
+    /**
+     * The seed for the random number generator.
+     */
+    private static final long SEED = 42L;
+    /**
+     * Precision for the relative frequencies.
+     */
+    private static final double DELTA = 0.01D;
+    /**
+     * Precision for the relative frequencies drawn from evenly spaced numbers.
+     */
+    private static final double SMALL_DELTA = 0.0001D;
+    /**
+     * The magic number one half.
+     */
+    private static final double ONE_HALF = 0.5D;
+    /**
+     * The weights to run the tests on.
+     */
+    private static final double[] WEIGHTS = new double[] {1D, 0D, 2D, 5D};
+    /**
+     * The magic number three.
+     */
+    private static final int THREE = 3;
+    /**
+     * The magic number eight, the sum of the weights.
+     */
+    private static final double EIGHT = 8D;
+
+    /**
+     * Verifies that the indices are drawn in proportion to the weights.
+     */
+    @Test
+    public void indicesShouldBeDrawnInProportionToTheWeights() {
+        int[] counts = drawIndices(new AliasTable(WEIGHTS));
+        assertEquals(1D / EIGHT, (double) counts[0] / NUMBER_OF_DRAWS, DELTA);
+        assertEquals(2D / EIGHT, (double) counts[2] / NUMBER_OF_DRAWS, DELTA);
+        assertEquals(WEIGHTS[THREE] / EIGHT, (double) counts[THREE] / NUMBER_OF_DRAWS, DELTA);
+    }
+
+    /**
+     * Verifies that the indices are drawn in exact proportion to the weights from evenly spaced numbers.
+     */
+    @Test
+    public void indicesShouldBeDrawnInExactProportionToTheWeightsFromEvenlySpacedNumbers() {
+        AliasTable aliasTable = new AliasTable(WEIGHTS);
+        int[] counts = new int[aliasTable.size()];
+        for (int i = 0; i < NUMBER_OF_DRAWS; i++) {
+            counts[aliasTable.sample((i + ONE_HALF) / NUMBER_OF_DRAWS)]++;
+        }
+        assertEquals(1D / EIGHT, (double) counts[0] / NUMBER_OF_DRAWS, SMALL_DELTA);
+        assertEquals(2D / EIGHT, (double) counts[2] / NUMBER_OF_DRAWS, SMALL_DELTA);
+        assertEquals(WEIGHTS[THREE] / EIGHT, (double) counts[THREE] / NUMBER_OF_DRAWS, SMALL_DELTA);
+    }
+
+    /**
+     * Verifies that an index with weight zero is never drawn.
+     */
+    @Test
+    public void indexWithWeightZeroShouldNeverBeDrawn() {
+        assertEquals(0, drawIndices(new AliasTable(WEIGHTS))[1]);
+    }
+
+    /**
+     * Verifies that the size of the table is the number of weights.
+     */
+    @Test
+    public void sizeShouldBeTheNumberOfWeights() {
+        assertEquals(WEIGHTS.length, new AliasTable(WEIGHTS).size());
+    }
+
+    /**
+     * Draws indices from an alias table and counts how many times each index is drawn.
+     *
+     * @param aliasTable The alias table.
+     * @return An array with the number of times each index is drawn.
+     */
+    private static int[] drawIndices(final AliasTable aliasTable) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] counts = new int[aliasTable.size()];
+        for (int i = 0; i < NUMBER_OF_DRAWS; i++) {
+            counts[aliasTable.sample(random.nextDouble())]++;
+        }
+        return counts;
+    }
+}
@@ -1,10 +1,16 @@
 package net.filipvanlaenen.asapop.analysis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Test;
 
@@ -14,6 +20,8 @@ import net.filipvanlaenen.asapop.model.ElectoralList;
 import net.filipvanlaenen.asapop.model.OpinionPoll;
 import net.filipvanlaenen.asapop.model.OpinionPollTestBuilder;
 import net.filipvanlaenen.asapop.model.OpinionPolls;
+import net.filipvanlaenen.asapop.model.ResponseScenario;
+import net.filipvanlaenen.asapop.model.ResultValue;
 import net.filipvanlaenen.asapop.model.Scope;
 import net.filipvanlaenen.asapop.yaml.ElectionData;
 import net.filipvanlaenen.kolektoj.Collection;
@@ -30,6 +38,10 @@ public class AnalysisEngineTest {
      * The magic number four.
      */
     private static final long FOUR = 4L;
+    /**
+     * The magic number eight.
+     */
+    private static final long EIGHT = 8L;
     /**
      * The magic number one third (as a percentage).
      */
@@ -38,11 +50,27 @@ public class AnalysisEngineTest {
      * The magic number ten thousand.
      */
     private static final long TEN_THOUSAND = 10_000L;
+    /**
+     * The number of iterations for the multivariate analyses.
+     */
+    private static final long NUMBER_OF_MULTIVARIATE_ITERATIONS = 1_000L;
+    /**
+     * The number of threads to run the analyses concurrently.
+     */
+    private static final int NUMBER_OF_THREADS = 2;
+    /**
+     * The seed for the simulations.
+     */
+    private static final long SEED = 42L;
     /**
      * The size of the population (the number of voters for the first round of the French presidential election of
      * 2017).
      */
     private static final long POPULATION_SIZE = 10_001L;
+    /**
+     * A maximal cache weight of one megabyte.
+     */
+    private static final long MAXIMAL_CACHE_WEIGHT = 1_048_576L;
     /**
      * A date or month to run the tests on.
      */
@@ -116,6 +144,50 @@ public class AnalysisEngineTest {
         assertEquals(expected, engine.getVoteSharesAnalysis(opinionPoll.getMainResponseScenario()));
     }
 
+    /**
+     * Verifies that the planned distributions are deduplicated across electoral lists and opinion polls.
+     */
+    @Test
+    public void planDistributionsShouldDeduplicateTheDistributions() {
+        OpinionPoll opinionPoll1 = new OpinionPollTestBuilder().addResult("A", "25").addResult("B", "25")
+                .setSampleSize("4").setPollingFirm("ACME").build();
+        OpinionPoll opinionPoll2 = new OpinionPollTestBuilder().addResult("A", "25").addResult("B", "50")
+                .setSampleSize("4").setPollingFirm("BCME").build();
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll1, opinionPoll2)), electionData);
+        assertEquals(List.of(new AnalysisEngine.DistributionKey(2L, FOUR, POPULATION_SIZE),
+                new AnalysisEngine.DistributionKey(1L, FOUR, POPULATION_SIZE)),
+                engine.planDistributions(Collection.of(opinionPoll1, opinionPoll2)));
+    }
+
+    /**
+     * Verifies that the planned distributions are sorted with the largest sample sizes first.
+     */
+    @Test
+    public void planDistributionsShouldSortTheLargestDistributionsFirst() {
+        OpinionPoll opinionPoll1 = new OpinionPollTestBuilder().addResult("A", "25").setSampleSize("4")
+                .setPollingFirm("ACME").build();
+        OpinionPoll opinionPoll2 = new OpinionPollTestBuilder().addResult("A", "25").setSampleSize("8")
+                .setPollingFirm("BCME").build();
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll1, opinionPoll2)), electionData);
+        assertEquals(List.of(new AnalysisEngine.DistributionKey(2L, EIGHT, POPULATION_SIZE),
+                new AnalysisEngine.DistributionKey(1L, FOUR, POPULATION_SIZE)),
+                engine.planDistributions(Collection.of(opinionPoll1, opinionPoll2)));
+    }
+
+    /**
+     * Verifies that opinion polls without an effective sample size are left out of the planned distributions.
+     */
+    @Test
+    public void planDistributionsShouldSkipOpinionPollsWithoutAnEffectiveSampleSize() {
+        OpinionPoll opinionPoll = new OpinionPollTestBuilder().addResult("A", "25").setPollingFirm("ACME").build();
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll)), new ElectionData());
+        assertTrue(engine.planDistributions(Collection.of(opinionPoll)).isEmpty());
+    }
+
     /**
      * Verifies that when only one poll is registered, it is returned as the most recent poll.
      */
@@ -196,4 +268,196 @@ public class AnalysisEngineTest {
         assertEquals(ONE_THIRD, firstRoundWinnersAnalysis
                 .getProbabilityMass(Set.of(Set.of(ElectoralList.get("A")), Set.of(ElectoralList.get("B")))), DELTA);
     }
+
+    /**
+     * Verifies that running the analyses with a seed records the seed.
+     */
+    @Test
+    public void runWithSeedShouldRecordTheSeed() {
+        OpinionPoll opinionPoll = new OpinionPollTestBuilder().addResult("A", "30").addResult("B", "30")
+                .addResult("C", "30").setSampleSize("500").setPollingFirm("ACME")
+                .setScope(Scope.PRESIDENTIAL_FIRST_ROUND).setFieldworkEnd(FIELDWORK_END1).build();
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll)), electionData);
+        engine.run(TEN_THOUSAND, 1L, SEED);
+        assertEquals(SEED, engine.getSeed());
+    }
+
+    /**
+     * Verifies that the maximal cache weight set on the analysis engine bounds the total weight of all the caches
+     * together, and not the weight of each cache.
+     */
+    @Test
+    public void setMaximalCacheWeightShouldBoundTheTotalWeightOfTheCaches() {
+        for (long value = 1L; value <= EIGHT; value++) {
+            SampledHypergeometricDistributions.get(value, TEN_THOUSAND, TEN_THOUSAND, POPULATION_SIZE);
+        }
+        AnalysisEngine.setMaximalCacheWeight(MAXIMAL_CACHE_WEIGHT);
+        try {
+            assertTrue(AnalysisEngine.getCacheStatistics().weight() <= MAXIMAL_CACHE_WEIGHT);
+        } finally {
+            AnalysisEngine.setMaximalCacheWeight(Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Verifies that by default, the opinion polls are analyzed without an executor.
+     */
+    @Test
+    public void executorShouldBeNullByDefault() {
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Collections.emptySet()), new ElectionData());
+        assertNull(engine.getExecutor());
+    }
+
+    /**
+     * Verifies that the setter method <code>setExecutor</code> is wired correctly to the getter method
+     * <code>getExecutor</code>.
+     */
+    @Test
+    public void setExecutorShouldBeWiredCorrectlyToGetExecutor() {
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Collections.emptySet()), new ElectionData());
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        engine.setExecutor(executorService);
+        assertEquals(executorService, engine.getExecutor());
+        executorService.shutdown();
+    }
+
+    /**
+     * Verifies that a seeded run on an executor produces the same analyses as a seeded run on the calling thread.
+     */
+    @Test
+    public void runOnAnExecutorShouldProduceTheSameAnalysesAsASequentialRun() {
+        OpinionPoll opinionPoll1 = new OpinionPollTestBuilder().addResult("A", "40").addResult("B", "35")
+                .addResult("C", "25").setSampleSize("500").setPollingFirm("ACME")
+                .setScope(Scope.PRESIDENTIAL_FIRST_ROUND).setFieldworkEnd(FIELDWORK_END1).build();
+        OpinionPoll opinionPoll2 = new OpinionPollTestBuilder().addResult("A", "35").addResult("B", "40")
+                .addResult("C", "25").setSampleSize("600").setPollingFirm("BCME")
+                .setScope(Scope.PRESIDENTIAL_FIRST_ROUND).setFieldworkEnd(FIELDWORK_END2).build();
+        OpinionPolls opinionPolls = new OpinionPolls(Set.of(opinionPoll1, opinionPoll2));
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine sequentialEngine = new AnalysisEngine(opinionPolls, electionData);
+        sequentialEngine.run(TEN_THOUSAND, NUMBER_OF_MULTIVARIATE_ITERATIONS, SEED);
+        AnalysisEngine parallelEngine = new AnalysisEngine(opinionPolls, electionData);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        parallelEngine.setExecutor(executorService);
+        parallelEngine.run(TEN_THOUSAND, NUMBER_OF_MULTIVARIATE_ITERATIONS, SEED);
+        executorService.shutdown();
+        Set<Set<ElectoralList>> pairAB = Set.of(Set.of(ElectoralList.get("A")), Set.of(ElectoralList.get("B")));
+        for (OpinionPoll opinionPoll : Set.of(opinionPoll1, opinionPoll2)) {
+            assertEquals(sequentialEngine.getVoteSharesAnalysis(opinionPoll.getMainResponseScenario()),
+                    parallelEngine.getVoteSharesAnalysis(opinionPoll.getMainResponseScenario()));
+            assertEquals(
+                    sequentialEngine.getFirstRoundWinnersAnalysis(opinionPoll.getMainResponseScenario())
+                            .getProbabilityMass(pairAB),
+                    parallelEngine.getFirstRoundWinnersAnalysis(opinionPoll.getMainResponseScenario())
+                            .getProbabilityMass(pairAB));
+        }
+    }
+
+    /**
+     * Verifies that by default, the analysis engine doesn't run in full coverage mode.
+     */
+    @Test
+    public void fullCoverageShouldBeFalseByDefault() {
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Collections.emptySet()), new ElectionData());
+        assertFalse(engine.isFullCoverage());
+    }
+
+    /**
+     * Verifies that the simulations of the multivariate analyses use <code>DECIMAL128</code> precision by default.
+     */
+    @Test
+    public void precisionPolicyShouldBeDecimal128ByDefault() {
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Collections.emptySet()), new ElectionData());
+        assertEquals(PrecisionPolicy.DECIMAL128, engine.getPrecisionPolicy());
+    }
+
+    /**
+     * Verifies that the setter method <code>setFullCoverage</code> is wired correctly to the getter method
+     * <code>isFullCoverage</code>.
+     */
+    @Test
+    public void setFullCoverageShouldBeWiredCorrectlyToIsFullCoverage() {
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Collections.emptySet()), new ElectionData());
+        engine.setFullCoverage(true);
+        assertTrue(engine.isFullCoverage());
+    }
+
+    /**
+     * Creates an opinion poll with an alternative response scenario without a sample size of its own.
+     *
+     * @return An opinion poll with an alternative response scenario.
+     */
+    private OpinionPoll createOpinionPollWithAnAlternativeResponseScenario() {
+        OpinionPoll opinionPoll = new OpinionPollTestBuilder().addResult("A", "25").setSampleSize("4")
+                .setPollingFirm("ACME").setFieldworkEnd(FIELDWORK_END1).build();
+        opinionPoll.addAlternativeResponseScenario(new ResponseScenario.Builder()
+                .addResult(Set.of(ElectoralList.get("B")), new ResultValue("50")).build());
+        return opinionPoll;
+    }
+
+    /**
+     * Verifies that without full coverage, the alternative response scenarios aren't analyzed.
+     */
+    @Test
+    public void runWithoutFullCoverageShouldNotAnalyzeAlternativeResponseScenarios() {
+        OpinionPoll opinionPoll = createOpinionPollWithAnAlternativeResponseScenario();
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll)), electionData);
+        engine.run(TEN_THOUSAND, NUMBER_OF_MULTIVARIATE_ITERATIONS, SEED);
+        assertNull(engine.getVoteSharesAnalysis(opinionPoll.getAlternativeResponseScenarios().get(0)));
+    }
+
+    /**
+     * Verifies that in full coverage mode, the alternative response scenarios are analyzed, with the effective sample
+     * size of the opinion poll if they don't have a sample size of their own.
+     */
+    @Test
+    public void runInFullCoverageModeShouldAnalyzeAlternativeResponseScenarios() {
+        OpinionPoll opinionPoll = createOpinionPollWithAnAlternativeResponseScenario();
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll)), electionData);
+        engine.setFullCoverage(true);
+        engine.run(TEN_THOUSAND, NUMBER_OF_MULTIVARIATE_ITERATIONS, SEED);
+        VoteSharesAnalysis expected = new VoteSharesAnalysis();
+        expected.add(Set.of(ElectoralList.get("B")),
+                SampledHypergeometricDistributions.get(2L, FOUR, TEN_THOUSAND, POPULATION_SIZE));
+        assertEquals(expected, engine.getVoteSharesAnalysis(opinionPoll.getAlternativeResponseScenarios().get(0)));
+    }
+
+    /**
+     * Verifies that in full coverage mode, older opinion polls by the same polling firm are analyzed too.
+     */
+    @Test
+    public void runInFullCoverageModeShouldAnalyzeOlderOpinionPolls() {
+        OpinionPoll opinionPoll1 = new OpinionPollTestBuilder().addResult("A", "25").setSampleSize("4")
+                .setPollingFirm("ACME").setFieldworkEnd(FIELDWORK_END1).build();
+        OpinionPoll opinionPoll2 = new OpinionPollTestBuilder().addResult("A", "50").setSampleSize("4")
+                .setPollingFirm("ACME").setFieldworkEnd(FIELDWORK_END2).build();
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll1, opinionPoll2)), electionData);
+        engine.setFullCoverage(true);
+        engine.run(TEN_THOUSAND, NUMBER_OF_MULTIVARIATE_ITERATIONS, SEED);
+        assertNotNull(engine.getVoteSharesAnalysis(opinionPoll2.getMainResponseScenario()));
+    }
+
+    /**
+     * Verifies that in full coverage mode, the distributions of the alternative response scenarios are planned too.
+     */
+    @Test
+    public void planDistributionsInFullCoverageModeShouldIncludeAlternativeResponseScenarios() {
+        OpinionPoll opinionPoll = createOpinionPollWithAnAlternativeResponseScenario();
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll)), electionData);
+        engine.setFullCoverage(true);
+        assertEquals(List.of(new AnalysisEngine.DistributionKey(2L, FOUR, POPULATION_SIZE),
+                new AnalysisEngine.DistributionKey(1L, FOUR, POPULATION_SIZE)),
+                engine.planDistributions(Collection.of(opinionPoll)));
+    }
 }
@@ -0,0 +1,20 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>CacheStatistics</code> class.
+ */
+public class CacheStatisticsTest {
+    /**
+     * Verifies that adding two cache statistics adds up all the counters.
+     */
+    @Test
+    public void addShouldAddUpAllTheCounters() {
+        CacheStatistics statistics = new CacheStatistics(1L, 2L, 3L, 4L, 5L);
+        assertEquals(new CacheStatistics(11L, 22L, 33L, 44L, 55L),
+                statistics.add(new CacheStatistics(10L, 20L, 30L, 40L, 50L)));
+    }
+}
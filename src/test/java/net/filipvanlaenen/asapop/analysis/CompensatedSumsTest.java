@@ -0,0 +1,72 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>CompensatedSums</code> class.
+ */
+public class CompensatedSumsTest {
+    /**
+     * The magic number one million.
+     */
+    private static final int ONE_MILLION = 1_000_000;
+    /**
+     * A term too small to be added to one without compensation.
+     */
+    private static final double SMALL_TERM = 1E-16;
+    /**
+     * Precision for floating point assertions.
+     */
+    private static final double DELTA = 1E-15;
+    /**
+     * The magic number three.
+     */
+    private static final double THREE = 3D;
+
+    /**
+     * Verifies that many small terms added to a large sum aren't lost.
+     */
+    @Test
+    public void smallTermsShouldNotBeLost() {
+        CompensatedSums sums = new CompensatedSums(1);
+        sums.add(0, 1D);
+        for (int i = 0; i < ONE_MILLION; i++) {
+            sums.add(0, SMALL_TERM);
+        }
+        assertEquals(1D + ONE_MILLION * SMALL_TERM, sums.getSum(0), DELTA);
+    }
+
+    /**
+     * Verifies that terms are added to the sum at the index only.
+     */
+    @Test
+    public void termsShouldBeAddedToTheSumAtTheIndexOnly() {
+        CompensatedSums sums = new CompensatedSums(2);
+        sums.add(1, THREE);
+        assertEquals(0D, sums.getSum(0));
+        assertEquals(THREE, sums.getSum(1));
+    }
+
+    /**
+     * Verifies that all the sums are multiplied correctly.
+     */
+    @Test
+    public void sumsShouldBeMultipliedCorrectly() {
+        CompensatedSums sums = new CompensatedSums(2);
+        sums.add(0, 1D);
+        sums.add(1, 2D);
+        sums.multiply(THREE);
+        assertEquals(THREE, sums.getSum(0));
+        assertEquals(2D * THREE, sums.getSum(1));
+    }
+
+    /**
+     * Verifies that the number of sums is returned correctly.
+     */
+    @Test
+    public void sizeShouldReturnTheNumberOfSums() {
+        assertEquals(2, new CompensatedSums(2).size());
+    }
+}
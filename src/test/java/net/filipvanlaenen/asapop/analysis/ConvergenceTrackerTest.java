@@ -0,0 +1,111 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>ConvergenceTracker</code> class.
+ */
+public class ConvergenceTrackerTest {
+    /**
+     * Precision for floating point assertions.
+     */
+    private static final double DELTA = 1E-12;
+    /**
+     * The magic number thirty.
+     */
+    private static final int THIRTY = 30;
+    /**
+     * The magic number seventy.
+     */
+    private static final int SEVENTY = 70;
+    /**
+     * The magic number one hundred.
+     */
+    private static final double ONE_HUNDRED = 100D;
+    /**
+     * The natural logarithm of a weight far beyond the range of a double.
+     */
+    private static final double HUGE_LOGARITHMIC_WEIGHT = 1_000D;
+    /**
+     * The standard error for thirty out of hundred equally weighted observations, i.e. the square root of 0.3 times
+     * 0.7 divided by hundred.
+     */
+    private static final double STANDARD_ERROR_FOR_THIRTY_PERCENT = Math.sqrt(0.21D / ONE_HUNDRED);
+
+    /**
+     * Creates a convergence tracker with two outcomes, thirty equally weighted observations of the first outcome and
+     * seventy of the second outcome.
+     *
+     * @param logarithmicWeight The natural logarithm of the weight of the observations.
+     * @return A convergence tracker with thirty and seventy observations.
+     */
+    private static ConvergenceTracker createConvergenceTracker(final double logarithmicWeight) {
+        ConvergenceTracker convergenceTracker = new ConvergenceTracker(2);
+        for (int i = 0; i < THIRTY; i++) {
+            convergenceTracker.add(0, logarithmicWeight);
+        }
+        for (int i = 0; i < SEVENTY; i++) {
+            convergenceTracker.add(1, logarithmicWeight);
+        }
+        return convergenceTracker;
+    }
+
+    /**
+     * Verifies that the standard error is infinite when no observations have been added.
+     */
+    @Test
+    public void standardErrorShouldBeInfiniteWithoutObservations() {
+        assertEquals(Double.POSITIVE_INFINITY, new ConvergenceTracker(2).calculateMaximalStandardError());
+    }
+
+    /**
+     * Verifies that the standard error for equally weighted observations is the standard error of a proportion.
+     */
+    @Test
+    public void standardErrorForEquallyWeightedObservationsShouldBeTheStandardErrorOfAProportion() {
+        assertEquals(STANDARD_ERROR_FOR_THIRTY_PERCENT, createConvergenceTracker(0D).calculateMaximalStandardError(),
+                DELTA);
+    }
+
+    /**
+     * Verifies that the standard error doesn't depend on the scale of the weights, even if they are beyond the range
+     * of a double.
+     */
+    @Test
+    public void standardErrorShouldNotDependOnTheScaleOfTheWeights() {
+        assertEquals(STANDARD_ERROR_FOR_THIRTY_PERCENT,
+                createConvergenceTracker(HUGE_LOGARITHMIC_WEIGHT).calculateMaximalStandardError(), DELTA);
+    }
+
+    /**
+     * Verifies that observations with a zero weight are ignored.
+     */
+    @Test
+    public void observationsWithAZeroWeightShouldBeIgnored() {
+        ConvergenceTracker convergenceTracker = createConvergenceTracker(0D);
+        convergenceTracker.add(0, Double.NEGATIVE_INFINITY);
+        assertEquals(STANDARD_ERROR_FOR_THIRTY_PERCENT, convergenceTracker.calculateMaximalStandardError(), DELTA);
+    }
+
+    /**
+     * Verifies that adding all the observations of another convergence tracker is the same as adding the observations
+     * one by one, also when the references of the trackers differ.
+     */
+    @Test
+    public void addAllShouldAddTheObservationsOfAnotherConvergenceTracker() {
+        ConvergenceTracker convergenceTracker = new ConvergenceTracker(2);
+        ConvergenceTracker other = new ConvergenceTracker(2);
+        for (int i = 0; i < THIRTY; i++) {
+            convergenceTracker.add(0, HUGE_LOGARITHMIC_WEIGHT);
+        }
+        for (int i = 0; i < SEVENTY; i++) {
+            other.add(1, HUGE_LOGARITHMIC_WEIGHT);
+        }
+        convergenceTracker.addAll(other);
+        assertEquals(STANDARD_ERROR_FOR_THIRTY_PERCENT, convergenceTracker.calculateMaximalStandardError(), DELTA);
+        assertEquals(SEVENTY / (double) THIRTY,
+                convergenceTracker.getRelativeWeightSum(1) / convergenceTracker.getRelativeWeightSum(0), DELTA);
+    }
+}
@@ -1,6 +1,8 @@
 package net.filipvanlaenen.asapop.analysis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -19,6 +21,10 @@ public class HypergeometricDistributionTest {
      * The magic number ten.
      */
     private static final long TEN = 10L;
+    /**
+     * The magic number eleven.
+     */
+    private static final long ELEVEN = 11L;
     /**
      * The magic number twenty.
      */
@@ -59,4 +65,78 @@ public class HypergeometricDistributionTest {
     public void keyWeightShouldBeOne() {
         assertEquals(BigDecimal.ONE, HYPERGEOMETRIC_DISTRIBUTION_1_4_10.getKeyWeight(0L));
     }
+
+    /**
+     * Verifies that the number of samples is the number of keys, i.e. the population size plus one.
+     */
+    @Test
+    public void numberOfSamplesShouldBeEqualToThePopulationSizePlusOne() {
+        assertEquals(ELEVEN, HYPERGEOMETRIC_DISTRIBUTION_1_4_10.getNumberOfSamples());
+    }
+
+    /**
+     * Verifies that a hypergeometric distribution is not equal to null.
+     */
+    @Test
+    public void aHypergeometricDistributionShouldNotBeEqualToNull() {
+        assertFalse(HYPERGEOMETRIC_DISTRIBUTION_1_4_10.equals(null));
+    }
+
+    /**
+     * Verifies that a hypergeometric distribution is not equal to an object of another class, like a string.
+     */
+    @Test
+    public void aHypergeometricDistributionShouldNotBeEqualToAString() {
+        assertFalse(HYPERGEOMETRIC_DISTRIBUTION_1_4_10.equals(""));
+    }
+
+    /**
+     * Verifies that a hypergeometric distribution is equal to itself.
+     */
+    @Test
+    public void aHypergeometricDistributionShouldBeEqualToItself() {
+        assertTrue(HYPERGEOMETRIC_DISTRIBUTION_1_4_10.equals(HYPERGEOMETRIC_DISTRIBUTION_1_4_10));
+    }
+
+    /**
+     * Verifies that calling hashCode twice on a hypergeometric distribution returns the same result.
+     */
+    @Test
+    public void callingHashCodeTwiceOnAHypergeometricDistributionReturnsTheSameResult() {
+        assertEquals(HYPERGEOMETRIC_DISTRIBUTION_1_4_10.hashCode(), HYPERGEOMETRIC_DISTRIBUTION_1_4_10.hashCode());
+    }
+
+    /**
+     * Verifies that two hypergeometric distributions constructed with the same parameters are equal.
+     */
+    @Test
+    public void twoHypergeometricDistributionsConstructedWithTheSameParametersShouldBeEqual() {
+        assertEquals(HYPERGEOMETRIC_DISTRIBUTION_1_4_10, new HypergeometricDistribution(1L, FOUR, TEN));
+    }
+
+    /**
+     * Verifies that two hypergeometric distributions constructed with the same parameters return the same hash code.
+     */
+    @Test
+    public void twoHypergeometricDistributionsConstructedWithTheSameParametersShouldHaveTheSameHashCode() {
+        assertEquals(HYPERGEOMETRIC_DISTRIBUTION_1_4_10.hashCode(),
+                new HypergeometricDistribution(1L, FOUR, TEN).hashCode());
+    }
+
+    /**
+     * Verifies that two hypergeometric distributions with different values are not equal.
+     */
+    @Test
+    public void twoHypergeometricDistributionsWithDifferentValuesShouldNotBeEqual() {
+        assertFalse(HYPERGEOMETRIC_DISTRIBUTION_1_4_10.equals(new HypergeometricDistribution(2L, FOUR, TEN)));
+    }
+
+    /**
+     * Verifies that two hypergeometric distributions with different values have different hash codes.
+     */
+    @Test
+    public void twoHypergeometricDistributionsWithDifferentValuesShouldHaveDifferentHashCodes() {
+        assertFalse(HYPERGEOMETRIC_DISTRIBUTION_1_4_10.hashCode() == new HypergeometricDistribution(2L, FOUR, TEN)
+                .hashCode());
+    }
 }
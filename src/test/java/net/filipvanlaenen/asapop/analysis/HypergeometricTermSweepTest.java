@@ -0,0 +1,153 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>HypergeometricTermSweep</code> class.
+ */
+public class HypergeometricTermSweepTest {
+    /**
+     * Precision for floating point assertions.
+     */
+    private static final double DELTA = 1E-9;
+    /**
+     * The magic number three.
+     */
+    private static final long THREE = 3L;
+    /**
+     * The magic number three hundred.
+     */
+    private static final long THREE_HUNDRED = 300L;
+    /**
+     * The magic number one thousand.
+     */
+    private static final long ONE_THOUSAND = 1_000L;
+    /**
+     * The magic number ten thousand and one.
+     */
+    private static final long TEN_THOUSAND_AND_ONE = 10_001L;
+    /**
+     * The magic number one million.
+     */
+    private static final long ONE_MILLION = 1_000_000L;
+    /**
+     * The magic number ten thousand.
+     */
+    private static final long TEN_THOUSAND = 10_000L;
+    /**
+     * The magic number ten million.
+     */
+    private static final long TEN_MILLION = 10_000_000L;
+
+    /**
+     * Creates an array with ranges of equal length covering a population.
+     *
+     * @param length         The length of the ranges.
+     * @param populationSize The population size.
+     * @return An array with ranges of equal length.
+     */
+    private static Range[] createRanges(final long length, final long populationSize) {
+        Range[] ranges = new Range[(int) ((populationSize + 1) / length)];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = new Range(i * length, (i + 1) * length - 1);
+        }
+        return ranges;
+    }
+
+    /**
+     * Verifies that the logarithms calculated in a sweep match the logarithms calculated directly.
+     *
+     * @param value          The measured value.
+     * @param sampleSize     The sample size.
+     * @param populationSize The population size.
+     * @param ranges         The ranges.
+     */
+    private static void assertSweepMatchesDirectCalculation(final long value, final long sampleSize,
+            final long populationSize, final Range[] ranges) {
+        double[] logarithms = new double[ranges.length];
+        HypergeometricTermSweep.sweep(value, sampleSize, populationSize, ranges, logarithms, 0, ranges.length);
+        for (int i = 0; i < ranges.length; i++) {
+            long m = ranges[i].getMidpoint();
+            double expected = LogBinomialCoefficients.get(m, value)
+                    + LogBinomialCoefficients.get(populationSize - m, sampleSize - value);
+            assertEquals(expected, logarithms[i], DELTA);
+        }
+    }
+
+    /**
+     * Verifies that a sweep with small strides, using the ratios between consecutive terms, matches the direct
+     * calculation.
+     */
+    @Test
+    public void sweepWithSmallStridesShouldMatchDirectCalculation() {
+        assertSweepMatchesDirectCalculation(THREE_HUNDRED, ONE_THOUSAND, TEN_THOUSAND_AND_ONE,
+                createRanges(THREE, TEN_THOUSAND_AND_ONE));
+    }
+
+    /**
+     * Verifies that a sweep with large strides, using the ratios between consecutive terms, matches the direct
+     * calculation.
+     */
+    @Test
+    public void sweepWithLargeStridesShouldMatchDirectCalculation() {
+        assertSweepMatchesDirectCalculation(THREE_HUNDRED, ONE_THOUSAND, ONE_MILLION - 1,
+                createRanges(ONE_THOUSAND, ONE_MILLION - 1));
+    }
+
+    /**
+     * Verifies that a sweep over the ranges for a realistic population size matches the direct calculation.
+     */
+    @Test
+    public void sweepForARealisticPopulationSizeShouldMatchDirectCalculation() {
+        assertSweepMatchesDirectCalculation(THREE_HUNDRED, ONE_THOUSAND, TEN_MILLION,
+                SampledHypergeometricDistribution.calculateRanges(TEN_THOUSAND, TEN_MILLION));
+    }
+
+    /**
+     * Verifies that a sweep over the ranges for a realistic population size derives all non-zero terms from the
+     * previous term, except at the checkpoints.
+     */
+    @Test
+    public void sweepForARealisticPopulationSizeShouldDeriveTheTermsBetweenTheCheckpoints() {
+        Range[] ranges = SampledHypergeometricDistribution.calculateRanges(TEN_THOUSAND, TEN_MILLION);
+        double[] logarithms = new double[ranges.length];
+        int numberOfDerivedTerms = HypergeometricTermSweep.sweep(THREE_HUNDRED, ONE_THOUSAND, TEN_MILLION, ranges,
+                logarithms, 0, ranges.length);
+        int expected = 0;
+        for (int i = 1; i < ranges.length; i++) {
+            if (logarithms[i - 1] != Double.NEGATIVE_INFINITY && logarithms[i] != Double.NEGATIVE_INFINITY
+                    && i % HypergeometricTermSweep.CHECKPOINT_INTERVAL != 0) {
+                expected++;
+            }
+        }
+        assertEquals(expected, numberOfDerivedTerms);
+        assertTrue(numberOfDerivedTerms > ranges.length / 2);
+    }
+
+    /**
+     * Verifies that terms are negative infinity when the midpoint is lower than the measured value.
+     */
+    @Test
+    public void sweepShouldReturnNegativeInfinityForMidpointsBelowTheMeasuredValue() {
+        Range[] ranges = createRanges(1L, TEN_THOUSAND_AND_ONE);
+        double[] logarithms = new double[ranges.length];
+        HypergeometricTermSweep.sweep(THREE_HUNDRED, ONE_THOUSAND, TEN_THOUSAND_AND_ONE, ranges, logarithms, 0,
+                ranges.length);
+        assertEquals(Double.NEGATIVE_INFINITY, logarithms[(int) THREE_HUNDRED - 1]);
+    }
+
+    /**
+     * Verifies that a sweep over a part of the ranges only fills in that part.
+     */
+    @Test
+    public void sweepShouldOnlyFillInTheRequestedPart() {
+        Range[] ranges = createRanges(1L, TEN_THOUSAND_AND_ONE);
+        double[] logarithms = new double[ranges.length];
+        HypergeometricTermSweep.sweep(THREE_HUNDRED, ONE_THOUSAND, TEN_THOUSAND_AND_ONE, ranges, logarithms,
+                (int) ONE_THOUSAND, (int) ONE_THOUSAND + 1);
+        assertEquals(0D, logarithms[(int) ONE_THOUSAND + 1]);
+    }
+}
@@ -0,0 +1,169 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>LogBinomialCoefficients</code> class.
+ */
+public class LogBinomialCoefficientsTest {
+    /**
+     * Precision for floating point assertions on small logarithms.
+     */
+    private static final double SMALL_DELTA = 1E-12;
+    /**
+     * Precision for floating point assertions on differences between logarithms of large factorials.
+     */
+    private static final double MODERATE_DELTA = 1E-9;
+    /**
+     * Precision for floating point assertions on large logarithms, compared to the exact <code>BigDecimal</code> path.
+     */
+    private static final double LARGE_DELTA = 1E-7;
+    /**
+     * The magic number four.
+     */
+    private static final long FOUR = 4L;
+    /**
+     * The magic number five.
+     */
+    private static final long FIVE = 5L;
+    /**
+     * The magic number six.
+     */
+    private static final double SIX = 6D;
+    /**
+     * The magic number ten.
+     */
+    private static final long TEN = 10L;
+    /**
+     * The magic number sixty.
+     */
+    private static final long SIXTY = 60L;
+    /**
+     * The magic number five hundred.
+     */
+    private static final long FIVE_HUNDRED = 500L;
+    /**
+     * The magic number 65,535, i.e. the last entry in the table with the logarithms of factorials.
+     */
+    private static final long LAST_TABLE_ENTRY = 65_535L;
+    /**
+     * The magic number ten million.
+     */
+    private static final long TEN_MILLION = 10_000_000L;
+    /**
+     * The magic number ten million and one.
+     */
+    private static final long TEN_MILLION_AND_ONE = 10_000_001L;
+    /**
+     * The magic number 3,628,800, i.e. 10!.
+     */
+    private static final double TEN_FACTORIAL = 3_628_800D;
+
+    /**
+     * Calculates the natural logarithm of a positive <code>BigDecimal</code> without converting it to a double first,
+     * such that numbers beyond the range of a double can be handled.
+     *
+     * @param x A positive number.
+     * @return The natural logarithm of the number.
+     */
+    private static double log(final BigDecimal x) {
+        BigInteger unscaled = x.unscaledValue();
+        int shift = Math.max(0, unscaled.bitLength() - (int) SIXTY);
+        return Math.log(unscaled.shiftRight(shift).doubleValue()) + shift * Math.log(2D)
+                - x.scale() * Math.log(TEN);
+    }
+
+    /**
+     * Verifies that ln <i>C</i>(1,0) = 0.
+     */
+    @Test
+    public void logBinomialCoefficientOf0OutOf1ShouldBe0() {
+        assertEquals(0D, LogBinomialCoefficients.get(1, 0), SMALL_DELTA);
+    }
+
+    /**
+     * Verifies that ln <i>C</i>(4,2) = ln 6.
+     */
+    @Test
+    public void logBinomialCoefficientOf2OutOf4ShouldBeLog6() {
+        assertEquals(Math.log(SIX), LogBinomialCoefficients.get(FOUR, 2), SMALL_DELTA);
+    }
+
+    /**
+     * Verifies that ln <i>C</i>(1,-1) is negative infinity.
+     */
+    @Test
+    public void logBinomialCoefficientForNegativeKShouldBeNegativeInfinity() {
+        assertEquals(Double.NEGATIVE_INFINITY, LogBinomialCoefficients.get(1, -1));
+    }
+
+    /**
+     * Verifies that ln <i>C</i>(1,2) is negative infinity.
+     */
+    @Test
+    public void logBinomialCoefficientFor2OutOf1ShouldBeNegativeInfinity() {
+        assertEquals(Double.NEGATIVE_INFINITY, LogBinomialCoefficients.get(1, 2));
+    }
+
+    /**
+     * Verifies that the logarithm of 10! is taken from the table correctly.
+     */
+    @Test
+    public void logFactorialOf10ShouldBeCorrect() {
+        assertEquals(Math.log(TEN_FACTORIAL), LogBinomialCoefficients.getLogFactorial(TEN), SMALL_DELTA);
+    }
+
+    /**
+     * Verifies that the logarithm of the factorial is continuous at the boundary between the table and Stirling's
+     * series.
+     */
+    @Test
+    public void logFactorialShouldBeContinuousAtTheEndOfTheTable() {
+        long n = LAST_TABLE_ENTRY;
+        assertEquals(Math.log(n + 1), LogBinomialCoefficients.getLogFactorial(n + 1)
+                - LogBinomialCoefficients.getLogFactorial(n), MODERATE_DELTA);
+    }
+
+    /**
+     * Verifies that the logarithm of a factorial quotient for a large base is calculated correctly.
+     */
+    @Test
+    public void logFactorialQuotientShouldBeCorrectForLargeBase() {
+        double expected = Math.log(TEN_MILLION_AND_ONE) + Math.log(TEN_MILLION_AND_ONE + 1)
+                + Math.log(TEN_MILLION_AND_ONE + 2);
+        assertEquals(expected, LogBinomialCoefficients.getLogFactorialQuotient(TEN_MILLION, FIVE - 2), SMALL_DELTA);
+    }
+
+    /**
+     * Verifies that the logarithm of a binomial coefficient with a small <i>n</i> matches the exact calculation.
+     */
+    @Test
+    public void logBinomialCoefficientShouldMatchExactCalculationForSmallN() {
+        assertEquals(log(BinomialCoefficients.get(FIVE_HUNDRED, SIXTY)),
+                LogBinomialCoefficients.get(FIVE_HUNDRED, SIXTY), LARGE_DELTA);
+    }
+
+    /**
+     * Verifies that the logarithm of a binomial coefficient with a large <i>n</i> matches the exact calculation.
+     */
+    @Test
+    public void logBinomialCoefficientShouldMatchExactCalculationForLargeN() {
+        assertEquals(log(BinomialCoefficients.get(TEN_MILLION, FIVE_HUNDRED)),
+                LogBinomialCoefficients.get(TEN_MILLION, FIVE_HUNDRED), LARGE_DELTA);
+    }
+
+    /**
+     * Verifies that the logarithm of a binomial coefficient with a large <i>k</i> is calculated as
+     * ln <i>C</i>(<i>n</i>,<i>n</i>-<i>k</i>).
+     */
+    @Test
+    public void logBinomialCoefficientShouldBeSymmetric() {
+        assertEquals(LogBinomialCoefficients.get(TEN_MILLION, FIVE_HUNDRED),
+                LogBinomialCoefficients.get(TEN_MILLION, TEN_MILLION - FIVE_HUNDRED), SMALL_DELTA);
+    }
+}
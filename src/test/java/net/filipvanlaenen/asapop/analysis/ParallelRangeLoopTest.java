@@ -0,0 +1,60 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>ParallelRangeLoop</code> class.
+ */
+public class ParallelRangeLoopTest {
+    /**
+     * The magic number ten thousand.
+     */
+    private static final int TEN_THOUSAND = 10_000;
+
+    /**
+     * Verifies that a loop below the sequential threshold is processed in one chunk.
+     */
+    @Test
+    public void smallLoopShouldBeProcessedInOneChunk() {
+        List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        ParallelRangeLoop.run(ParallelRangeLoop.SEQUENTIAL_THRESHOLD - 1,
+                (fromIndex, toIndex) -> chunks.add(List.of(fromIndex, toIndex)));
+        assertEquals(List.of(List.of(0, ParallelRangeLoop.SEQUENTIAL_THRESHOLD - 1)), chunks);
+    }
+
+    /**
+     * Verifies that a loop above the sequential threshold processes every index exactly once.
+     */
+    @Test
+    public void largeLoopShouldProcessEveryIndexExactlyOnce() {
+        AtomicIntegerArray counts = new AtomicIntegerArray(TEN_THOUSAND);
+        ParallelRangeLoop.run(TEN_THOUSAND, (fromIndex, toIndex) -> {
+            for (int i = fromIndex; i < toIndex; i++) {
+                counts.incrementAndGet(i);
+            }
+        });
+        for (int i = 0; i < TEN_THOUSAND; i++) {
+            assertEquals(1, counts.get(i));
+        }
+    }
+
+    /**
+     * Verifies that the chunks of a large loop start at a multiple of the chunk size.
+     */
+    @Test
+    public void chunksShouldStartAtAMultipleOfTheChunkSize() {
+        AtomicIntegerArray misalignedChunks = new AtomicIntegerArray(1);
+        ParallelRangeLoop.run(TEN_THOUSAND, (fromIndex, toIndex) -> {
+            if (fromIndex % ParallelRangeLoop.CHUNK_SIZE != 0) {
+                misalignedChunks.incrementAndGet(0);
+            }
+        });
+        assertEquals(0, misalignedChunks.get(0));
+    }
+}
@@ -0,0 +1,110 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>PrecisionPolicyReport</code> class.
+ */
+public class PrecisionPolicyReportTest {
+    /**
+     * The number of iterations per simulation.
+     */
+    private static final long NUMBER_OF_ITERATIONS = 2_000L;
+    /**
+     * The number of samples in the hypergeometric distributions.
+     */
+    private static final long NUMBER_OF_SAMPLES = 1_000L;
+    /**
+     * The sample size for the poll.
+     */
+    private static final long SAMPLE_SIZE = 1_000L;
+    /**
+     * The population size for the poll.
+     */
+    private static final long POPULATION_SIZE = 10_001L;
+    /**
+     * The seed for the random number generators.
+     */
+    private static final long SEED = 42L;
+    /**
+     * The magic number three hundred.
+     */
+    private static final long THREE_HUNDRED = 300L;
+    /**
+     * The magic number four hundred.
+     */
+    private static final long FOUR_HUNDRED = 400L;
+    /**
+     * Precision for the differences between the precision policies.
+     */
+    private static final double DELTA = 1E-8;
+    /**
+     * The report to run the tests on.
+     */
+    private static PrecisionPolicyReport report;
+
+    /**
+     * Creates the report to run the tests on.
+     */
+    @BeforeAll
+    public static void createReport() {
+        report = new PrecisionPolicyReport(NUMBER_OF_ITERATIONS, SEED);
+        report.add(List.of(
+                SampledHypergeometricDistributions.get(FOUR_HUNDRED, SAMPLE_SIZE, NUMBER_OF_SAMPLES, POPULATION_SIZE),
+                SampledHypergeometricDistributions.get(THREE_HUNDRED, SAMPLE_SIZE, NUMBER_OF_SAMPLES, POPULATION_SIZE),
+                SampledHypergeometricDistributions.get(THREE_HUNDRED, SAMPLE_SIZE, NUMBER_OF_SAMPLES,
+                        POPULATION_SIZE)),
+                POPULATION_SIZE, SAMPLE_SIZE);
+    }
+
+    /**
+     * Verifies that the report contains an entry for each precision policy.
+     */
+    @Test
+    public void reportShouldContainAnEntryForEachPrecisionPolicy() {
+        assertEquals(PrecisionPolicy.values().length, report.getEntries().size());
+    }
+
+    /**
+     * Verifies that the report counts the simulations.
+     */
+    @Test
+    public void reportShouldCountTheSimulations() {
+        assertEquals(1, report.getNumberOfSimulations());
+    }
+
+    /**
+     * Verifies that the difference of <code>DECIMAL128</code> with itself is zero.
+     */
+    @Test
+    public void decimal128ShouldHaveNoDifferenceWithItself() {
+        assertEquals(0D, report.getEntries().get(PrecisionPolicy.DECIMAL128.ordinal()).maximalDifference());
+    }
+
+    /**
+     * Verifies that the differences of the other precision policies with <code>DECIMAL128</code> are small.
+     */
+    @Test
+    public void otherPrecisionPoliciesShouldHaveSmallDifferences() {
+        for (PrecisionPolicyReport.Entry entry : report.getEntries()) {
+            assertTrue(entry.maximalDifference() < DELTA);
+        }
+    }
+
+    /**
+     * Verifies that the report is rendered with a line for each precision policy.
+     */
+    @Test
+    public void toStringShouldRenderALineForEachPrecisionPolicy() {
+        String actual = report.toString();
+        for (PrecisionPolicy precisionPolicy : PrecisionPolicy.values()) {
+            assertTrue(actual.contains(precisionPolicy.name()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>PseudoRandomSampler</code> class.
+ */
+public class PseudoRandomSamplerTest {
+    /**
+     * The seed for the random number generator.
+     */
+    private static final long SEED = 42L;
+    /**
+     * The number of dimensions.
+     */
+    private static final int NUMBER_OF_DIMENSIONS = 3;
+
+    /**
+     * Verifies that the coordinates are in the interval [0, 1).
+     */
+    @Test
+    public void coordinatesShouldBeBetweenZeroAndOne() {
+        double[] point = new double[NUMBER_OF_DIMENSIONS];
+        new PseudoRandomSampler(new SplittableRandom(SEED)).next(point);
+        for (double coordinate : point) {
+            assertTrue(coordinate >= 0D && coordinate < 1D);
+        }
+    }
+
+    /**
+     * Verifies that the coordinates are drawn from the random number generator.
+     */
+    @Test
+    public void coordinatesShouldBeDrawnFromTheRandomNumberGenerator() {
+        double[] point = new double[NUMBER_OF_DIMENSIONS];
+        new PseudoRandomSampler(new SplittableRandom(SEED)).next(point);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (double coordinate : point) {
+            assertEquals(random.nextDouble(), coordinate);
+        }
+    }
+}
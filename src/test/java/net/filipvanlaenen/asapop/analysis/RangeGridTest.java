@@ -0,0 +1,139 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>RangeGrid</code> class.
+ */
+public class RangeGridTest {
+    /**
+     * The magic number three.
+     */
+    private static final long THREE = 3L;
+    /**
+     * The magic number four.
+     */
+    private static final long FOUR = 4L;
+    /**
+     * The magic number five.
+     */
+    private static final long FIVE = 5L;
+    /**
+     * The magic number nine.
+     */
+    private static final long NINE = 9L;
+    /**
+     * A uniform grid with three ranges.
+     */
+    private static final RangeGrid UNIFORM_GRID =
+            new RangeGrid(new Range[] {new Range(0L, 1L), new Range(2L, THREE), new Range(FOUR, FIVE)});
+    /**
+     * A grid with ranges of different lengths.
+     */
+    private static final RangeGrid NON_UNIFORM_GRID =
+            new RangeGrid(new Range[] {new Range(0L, 1L), new Range(2L, 2L), new Range(THREE, NINE)});
+
+    /**
+     * Verifies that a range handed out by the grid is found at its index.
+     */
+    @Test
+    public void findIndexShouldFindARangeHandedOutByTheGrid() {
+        assertEquals(1, UNIFORM_GRID.findIndex(UNIFORM_GRID.get(1)));
+    }
+
+    /**
+     * Verifies that an equal range not handed out by the grid is found at its index.
+     */
+    @Test
+    public void findIndexShouldFindAnEqualRange() {
+        assertEquals(2, UNIFORM_GRID.findIndex(new Range(FOUR, FIVE)));
+    }
+
+    /**
+     * Verifies that a range with a lower bound in the grid but another upper bound is not found.
+     */
+    @Test
+    public void findIndexShouldNotFindARangeWithAnotherUpperBound() {
+        assertEquals(-1, UNIFORM_GRID.findIndex(new Range(2L, FOUR)));
+    }
+
+    /**
+     * Verifies that the index of the first range above a lower bound is the next index.
+     */
+    @Test
+    public void findFirstIndexAboveALowerBoundShouldBeTheNextIndex() {
+        assertEquals(2, UNIFORM_GRID.findFirstIndexAbove(2L));
+    }
+
+    /**
+     * Verifies that the index of the first range above a threshold inside a range is the next index.
+     */
+    @Test
+    public void findFirstIndexAboveAThresholdInsideARangeShouldBeTheNextIndex() {
+        assertEquals(2, UNIFORM_GRID.findFirstIndexAbove(THREE));
+    }
+
+    /**
+     * Verifies that a grid with ranges of the same length is uniform.
+     */
+    @Test
+    public void gridWithRangesOfTheSameLengthShouldBeUniform() {
+        assertTrue(UNIFORM_GRID.isUniform());
+    }
+
+    /**
+     * Verifies that a grid with ranges of very different lengths is not uniform.
+     */
+    @Test
+    public void gridWithRangesOfDifferentLengthsShouldNotBeUniform() {
+        assertFalse(NON_UNIFORM_GRID.isUniform());
+    }
+
+    /**
+     * Verifies that the total length of the grid is calculated correctly.
+     */
+    @Test
+    public void totalLengthShouldBeCalculatedCorrectly() {
+        assertEquals(NINE + 1L, NON_UNIFORM_GRID.getTotalLength());
+    }
+
+    /**
+     * Verifies that the length of a range is calculated correctly.
+     */
+    @Test
+    public void lengthOfARangeShouldBeCalculatedCorrectly() {
+        assertEquals(NINE - 2L, NON_UNIFORM_GRID.getLength(2));
+    }
+
+    /**
+     * Verifies that the set with the ranges contains all the ranges.
+     */
+    @Test
+    public void rangeSetShouldContainAllRanges() {
+        assertEquals(THREE, UNIFORM_GRID.getRangeSet().size());
+        assertTrue(UNIFORM_GRID.getRangeSet().contains(new Range(2L, THREE)));
+    }
+
+    /**
+     * Verifies that grids with the same ranges are equal.
+     */
+    @Test
+    public void gridsWithTheSameRangesShouldBeEqual() {
+        RangeGrid grid = new RangeGrid(new Range[] {new Range(0L, 1L), new Range(2L, THREE), new Range(FOUR, FIVE)});
+        assertEquals(UNIFORM_GRID, grid);
+        assertEquals(UNIFORM_GRID.hashCode(), grid.hashCode());
+    }
+
+    /**
+     * Verifies that grids with other ranges are not equal.
+     */
+    @Test
+    public void gridsWithOtherRangesShouldNotBeEqual() {
+        assertNotEquals(UNIFORM_GRID, NON_UNIFORM_GRID);
+    }
+}
@@ -0,0 +1,98 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>RangeGrids</code> class.
+ */
+public class RangeGridsTest {
+    /**
+     * The magic number five.
+     */
+    private static final long FIVE = 5L;
+    /**
+     * The magic number ten.
+     */
+    private static final long TEN = 10L;
+    /**
+     * The magic number one hundred.
+     */
+    private static final long ONE_HUNDRED = 100L;
+    /**
+     * The magic number one thousand.
+     */
+    private static final long ONE_THOUSAND = 1_000L;
+
+    /**
+     * Verifies that the uniform grid has the ranges calculated for the number of samples and the population size.
+     */
+    @Test
+    public void uniformGridShouldHaveTheCalculatedRanges() {
+        assertEquals(new RangeGrid(SampledHypergeometricDistribution.calculateRanges(FIVE, TEN)),
+                RangeGrids.get(FIVE, TEN));
+    }
+
+    /**
+     * Verifies that the same instance is returned for the same number of samples and population size.
+     */
+    @Test
+    public void shouldReturnTheSameUniformGridForTheSameParameters() {
+        assertSame(RangeGrids.get(FIVE, TEN), RangeGrids.get(FIVE, TEN));
+    }
+
+    /**
+     * Verifies that interning the ranges of a uniform grid returns the uniform grid.
+     */
+    @Test
+    public void internShouldReturnTheUniformGridForTheSameRanges() {
+        assertSame(RangeGrids.get(TEN, ONE_HUNDRED),
+                RangeGrids.intern(SampledHypergeometricDistribution.calculateRanges(TEN, ONE_HUNDRED)));
+    }
+
+    /**
+     * Verifies that changing the array after interning its ranges doesn't change the interned range grid.
+     */
+    @Test
+    public void changingTheArrayAfterInterningShouldNotChangeTheInternedGrid() {
+        Range[] ranges = SampledHypergeometricDistribution.calculateRanges(FIVE, ONE_THOUSAND);
+        RangeGrid grid = RangeGrids.intern(ranges);
+        ranges[0] = new Range(0L, 1L);
+        assertSame(grid, RangeGrids.intern(SampledHypergeometricDistribution.calculateRanges(FIVE, ONE_THOUSAND)));
+        assertEquals(new RangeGrid(SampledHypergeometricDistribution.calculateRanges(FIVE, ONE_THOUSAND)), grid);
+    }
+
+    /**
+     * Verifies that the estimated weight of a range grid is proportional to its number of ranges.
+     */
+    @Test
+    public void estimateWeightShouldBeProportionalToTheNumberOfRanges() {
+        assertEquals(FIVE * RangeGrids.APPROXIMATE_WEIGHT_PER_RANGE,
+                RangeGrids.estimateWeight(RangeGrids.get(FIVE, TEN)));
+    }
+
+    /**
+     * Verifies that interning ranges that have been interned before is counted as a hit.
+     */
+    @Test
+    public void internShouldCountAnInternedGridAsAHit() {
+        RangeGrids.intern(SampledHypergeometricDistribution.calculateRanges(TEN, ONE_THOUSAND));
+        long hits = RangeGrids.getCacheStatistics().hits();
+        RangeGrids.intern(SampledHypergeometricDistribution.calculateRanges(TEN, ONE_THOUSAND));
+        assertEquals(hits + 1L, RangeGrids.getCacheStatistics().hits());
+    }
+
+    /**
+     * Verifies that sampled hypergeometric distributions on the same grid share the ranges.
+     */
+    @Test
+    public void distributionsOnTheSameGridShouldShareTheRanges() {
+        SampledHypergeometricDistribution pmf1 = new SampledHypergeometricDistribution(1L, TEN, ONE_HUNDRED,
+                ONE_THOUSAND);
+        SampledHypergeometricDistribution pmf2 = new SampledHypergeometricDistribution(2L, TEN, ONE_HUNDRED,
+                ONE_THOUSAND);
+        assertSame(pmf1.getSortedKeys(), pmf2.getSortedKeys());
+    }
+}
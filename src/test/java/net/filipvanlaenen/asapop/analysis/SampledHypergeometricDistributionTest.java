@@ -2,9 +2,12 @@ package net.filipvanlaenen.asapop.analysis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
@@ -24,6 +27,10 @@ public class SampledHypergeometricDistributionTest {
      * The magic number five.
      */
     private static final long FIVE = 5L;
+    /**
+     * The magic number six.
+     */
+    private static final long SIX = 6L;
     /**
      * The magic number seven.
      */
@@ -40,14 +47,58 @@ public class SampledHypergeometricDistributionTest {
      * The magic number ten.
      */
     private static final long TEN = 10L;
+    /**
+     * The magic number sixty.
+     */
+    private static final long SIXTY = 60L;
     /**
      * The magic number seventy.
      */
     private static final long SEVENTY = 70L;
+    /**
+     * The magic number one hundred.
+     */
+    private static final long ONE_HUNDRED = 100L;
     /**
      * The magic number one hundred five.
      */
     private static final long ONE_HUNDRED_FIVE = 105L;
+    /**
+     * The magic number two hundred.
+     */
+    private static final long TWO_HUNDRED = 200L;
+    /**
+     * The magic number one thousand.
+     */
+    private static final long ONE_THOUSAND = 1_000L;
+    /**
+     * The magic number ten thousand.
+     */
+    private static final long TEN_THOUSAND = 10_000L;
+    /**
+     * The magic number two thousand.
+     */
+    private static final long TWO_THOUSAND = 2_000L;
+    /**
+     * The magic number ten million.
+     */
+    private static final long TEN_MILLION = 10_000_000L;
+    /**
+     * The magic number 0.00001.
+     */
+    private static final double ONE_HUNDRED_THOUSANDTH = 1E-5;
+    /**
+     * The magic number one tenth.
+     */
+    private static final double ONE_TENTH = 0.1D;
+    /**
+     * The magic number 0.95.
+     */
+    private static final double NINETY_FIVE_PERCENT = 0.95D;
+    /**
+     * Precision for the comparison of the probability masses calculated in logarithmic space with the exact ones.
+     */
+    private static final double DELTA = 1E-9;
 
     /**
      * Another hypergeometric distribution to run the tests on.
@@ -66,6 +117,14 @@ public class SampledHypergeometricDistributionTest {
         assertEquals(FIVE, new SampledHypergeometricDistribution(1L, FOUR, FIVE, NINE).getNumberOfSamples());
     }
 
+    /**
+     * Verifies that the resolution of a uniform grid is the number of samples.
+     */
+    @Test
+    public void resolutionOfAUniformGridShouldBeTheNumberOfSamples() {
+        assertEquals(FOUR, new SampledHypergeometricDistribution(1L, FOUR, FOUR, TEN).getResolution());
+    }
+
     /**
      * Verifies that the key weight is calculated correctly.
      */
@@ -84,6 +143,23 @@ public class SampledHypergeometricDistributionTest {
                 new SampledHypergeometricDistribution(1L, FOUR, FOUR, TEN).getProbabilityMass(new Range(2, FOUR)));
     }
 
+    /**
+     * Verifies that a probability mass is converted using its shortest decimal representation, and not the exact
+     * binary expansion of the double it's stored in.
+     */
+    @Test
+    public void probabilityMassShouldBeRoundedToTheShortestDecimalRepresentation() {
+        assertEquals(new BigDecimal("0.1"), SampledHypergeometricDistribution.toBigDecimal(ONE_TENTH));
+    }
+
+    /**
+     * Verifies that an integer probability mass is converted to a <code>BigDecimal</code> with scale zero.
+     */
+    @Test
+    public void integerProbabilityMassShouldBeConvertedWithScaleZero() {
+        assertEquals(new BigDecimal(SEVENTY), SampledHypergeometricDistribution.toBigDecimal(SEVENTY));
+    }
+
     /**
      * Verifies that the ranges are distributed correctly over the population size.
      */
@@ -129,4 +205,101 @@ public class SampledHypergeometricDistributionTest {
                         MathContext.DECIMAL128), MathContext.DECIMAL128).divide(sum, MathContext.DECIMAL128);
         assertEquals(expected, DISTRIBUTION_1_4_5_9.getProbabilityMassFractionAbove(THREE));
     }
+
+    /**
+     * Verifies that when the threshold is equal to the population size, the probability mass fraction above it is zero.
+     */
+    @Test
+    public void probabilityMassFractionShouldBeZeroAboveThePopulationSize() {
+        assertEquals(0, BigDecimal.ZERO.compareTo(DISTRIBUTION_1_4_5_9.getProbabilityMassFractionAbove(NINE)));
+    }
+
+    /**
+     * Verifies that the probability mass fraction above a threshold in the middle of the population matches the sum of
+     * the weighted probability masses of the ranges above it.
+     */
+    @Test
+    public void probabilityMassFractionShouldMatchTheSumOfTheRangesAbove() {
+        BigDecimal expected = DISTRIBUTION_1_4_5_9.getProbabilityMass(new Range(SIX, SEVEN))
+                .multiply(new BigDecimal(2), MathContext.DECIMAL128)
+                .add(DISTRIBUTION_1_4_5_9.getProbabilityMass(new Range(EIGHT, NINE))
+                        .multiply(new BigDecimal(2), MathContext.DECIMAL128), MathContext.DECIMAL128)
+                .divide(DISTRIBUTION_1_4_5_9.getProbabilityMassSum(), MathContext.DECIMAL128);
+        assertEquals(expected, DISTRIBUTION_1_4_5_9.getProbabilityMassFractionAbove(FIVE));
+    }
+
+    /**
+     * Verifies that the probability masses calculated in logarithmic space match the exact probability masses, once
+     * both are scaled to the largest probability mass.
+     */
+    @Test
+    public void logarithmicProbabilityMassesShouldMatchExactProbabilityMasses() {
+        Range[] ranges = SampledHypergeometricDistribution.calculateRanges(ONE_HUNDRED, TEN_THOUSAND);
+        BigDecimal[] exact = SampledHypergeometricDistribution.calculateExactProbabilityMasses(ranges, SIXTY,
+                TWO_HUNDRED, TEN_THOUSAND);
+        double[] logarithmic = SampledHypergeometricDistribution.calculateLogarithmicProbabilityMasses(ranges, SIXTY,
+                TWO_HUNDRED, TEN_THOUSAND);
+        BigDecimal maximum = Arrays.stream(exact).max(BigDecimal::compareTo).get();
+        for (int i = 0; i < ranges.length; i++) {
+            assertEquals(exact[i].divide(maximum, MathContext.DECIMAL128).doubleValue(), logarithmic[i], DELTA);
+        }
+    }
+
+    /**
+     * Verifies that the probability masses calculated with the closed-form approximation match the probability masses
+     * calculated in logarithmic space within the estimated approximation error.
+     */
+    @Test
+    public void approximatedProbabilityMassesShouldMatchWithinTheEstimatedError() {
+        double estimatedError = SampledHypergeometricDistribution.estimateApproximationError(TWO_THOUSAND, TEN_MILLION);
+        assertTrue(estimatedError < ONE_HUNDRED_THOUSANDTH);
+        Range[] ranges = SampledHypergeometricDistribution.calculateRanges(ONE_THOUSAND, TEN_MILLION);
+        double[] logarithmic = SampledHypergeometricDistribution.calculateLogarithmicProbabilityMasses(ranges,
+                TWO_HUNDRED, TWO_THOUSAND, TEN_MILLION);
+        double[] approximated = SampledHypergeometricDistribution.calculateApproximatedProbabilityMasses(ranges,
+                TWO_HUNDRED, TWO_THOUSAND, TEN_MILLION);
+        for (int i = 0; i < ranges.length; i++) {
+            assertEquals(logarithmic[i], approximated[i], estimatedError);
+        }
+    }
+
+    /**
+     * Verifies that the closed-form approximation results in the same confidence interval as the exact calculation.
+     */
+    @Test
+    public void approximationShouldResultInTheSameConfidenceInterval() {
+        assertEquals(
+                new SampledHypergeometricDistribution(SIXTY, TWO_THOUSAND, ONE_THOUSAND, TEN_MILLION)
+                        .getConfidenceInterval(NINETY_FIVE_PERCENT),
+                SampledHypergeometricDistribution.createApproximation(SIXTY, TWO_THOUSAND, ONE_THOUSAND, TEN_MILLION)
+                        .getConfidenceInterval(NINETY_FIVE_PERCENT));
+    }
+
+    /**
+     * Verifies that the probability masses calculated in parallel chunks are exactly the same as the ones calculated in
+     * a single sweep.
+     */
+    @Test
+    public void parallelCalculationShouldMatchASingleSweep() {
+        Range[] ranges = SampledHypergeometricDistribution.calculateRanges(TEN_THOUSAND, TEN_MILLION);
+        double[] logarithms = new double[ranges.length];
+        HypergeometricTermSweep.sweep(TWO_HUNDRED, TWO_THOUSAND, TEN_MILLION, ranges, logarithms, 0, ranges.length);
+        double maximum = Arrays.stream(logarithms).max().getAsDouble();
+        double[] parallel = SampledHypergeometricDistribution.calculateLogarithmicProbabilityMasses(ranges,
+                TWO_HUNDRED, TWO_THOUSAND, TEN_MILLION);
+        for (int i = 0; i < ranges.length; i++) {
+            assertEquals(Math.exp(logarithms[i] - maximum), parallel[i]);
+        }
+    }
+
+    /**
+     * Verifies that the alias table is created lazily once, and covers all the ranges.
+     */
+    @Test
+    public void aliasTableShouldBeCreatedOnceAndCoverAllRanges() {
+        SampledHypergeometricDistribution distribution = new SampledHypergeometricDistribution(1L, FOUR, FIVE, NINE);
+        AliasTable aliasTable = distribution.getAliasTable();
+        assertEquals(FIVE, aliasTable.size());
+        assertSame(aliasTable, distribution.getAliasTable());
+    }
 }
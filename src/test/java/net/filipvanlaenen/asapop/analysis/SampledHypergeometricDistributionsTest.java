@@ -3,6 +3,13 @@ package net.filipvanlaenen.asapop.analysis;
 import static org.junit.Assert.assertSame;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -25,10 +32,26 @@ public class SampledHypergeometricDistributionsTest {
      * The magic number six.
      */
     private static final long SIX = 6L;
+    /**
+     * The magic number seven.
+     */
+    private static final long SEVEN = 7L;
+    /**
+     * The number of threads requesting the same sampled hypergeometric distribution at the same time.
+     */
+    private static final int NUMBER_OF_THREADS = 4;
     /**
      * The magic number 10.
      */
     private static final long TEN = 10L;
+    /**
+     * The magic number one million.
+     */
+    private static final long ONE_MILLION = 1_000_000L;
+    /**
+     * A maximal approximation error that is large enough to allow the closed-form approximation.
+     */
+    private static final double LARGE_APPROXIMATION_ERROR = 0.01D;
 
     /**
      * Verifies that it retrieves a sampled hypergeometric distribution that is equal to the correct sampled
@@ -68,4 +91,75 @@ public class SampledHypergeometricDistributionsTest {
         SampledHypergeometricDistributions.get(1L, FOUR, FIVE, TEN);
         assertEquals(FIVE, SampledHypergeometricDistributions.get(1L, FOUR, FOUR, TEN).getNumberOfSamples());
     }
+
+    /**
+     * Verifies that the closed-form approximation is used when the estimated error is small enough.
+     */
+    @Test
+    public void shouldRetrieveTheApproximationWhenTheEstimatedErrorIsSmallEnough() {
+        assertEquals(SampledHypergeometricDistribution.createApproximation(THREE, TEN, FIVE, ONE_MILLION),
+                SampledHypergeometricDistributions.get(THREE, TEN, FIVE, ONE_MILLION, LARGE_APPROXIMATION_ERROR));
+    }
+
+    /**
+     * Verifies that the closed-form approximation isn't used when the maximal approximation error is zero.
+     */
+    @Test
+    public void shouldNotRetrieveTheApproximationWhenTheMaximalApproximationErrorIsZero() {
+        assertEquals(new SampledHypergeometricDistribution(1L, THREE, FIVE, TEN),
+                SampledHypergeometricDistributions.get(1L, THREE, FIVE, TEN, 0D));
+    }
+
+    /**
+     * Verifies that it retrieves the same instance when asking for the same sampled hypergeometric distribution on an
+     * adaptive range grid.
+     */
+    @Test
+    public void shouldRetrieveTheSameObjectWhenAskingForTheSameAdaptiveSampledHypergeometricDistribution() {
+        assertSame(SampledHypergeometricDistributions.getAdaptive(THREE, TEN, FIVE, ONE_MILLION),
+                SampledHypergeometricDistributions.getAdaptive(THREE, TEN, FIVE, ONE_MILLION));
+    }
+
+    /**
+     * Verifies that concurrent requests for the same sampled hypergeometric distribution retrieve the same instance.
+     *
+     * @throws InterruptedException If the test is interrupted.
+     * @throws ExecutionException   If a request fails.
+     */
+    @Test
+    public void concurrentRequestsShouldRetrieveTheSameObject() throws InterruptedException, ExecutionException {
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        List<Future<SampledHypergeometricDistribution>> futures =
+                new ArrayList<Future<SampledHypergeometricDistribution>>();
+        for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+            futures.add(executorService.submit(() -> SampledHypergeometricDistributions.get(2L, SEVEN, SEVEN, TEN)));
+        }
+        SampledHypergeometricDistribution expected = futures.get(0).get();
+        for (Future<SampledHypergeometricDistribution> future : futures) {
+            assertSame(expected, future.get());
+        }
+        executorService.shutdown();
+    }
+
+    /**
+     * Verifies that the estimated weight of a sampled hypergeometric distribution is proportional to its number of
+     * samples.
+     */
+    @Test
+    public void estimateWeightShouldBeProportionalToTheNumberOfSamples() {
+        assertEquals(FIVE * SampledHypergeometricDistributions.APPROXIMATE_WEIGHT_PER_RANGE,
+                SampledHypergeometricDistributions.estimateWeight(new SampledHypergeometricDistribution(1L, THREE,
+                        FIVE, TEN)));
+    }
+
+    /**
+     * Verifies that retrieving a cached sampled hypergeometric distribution is counted as a hit.
+     */
+    @Test
+    public void retrievingACachedDistributionShouldBeCountedAsAHit() {
+        SampledHypergeometricDistributions.get(2L, SIX, FIVE, TEN);
+        long hits = SampledHypergeometricDistributions.getCacheStatistics().hits();
+        SampledHypergeometricDistributions.get(2L, SIX, FIVE, TEN);
+        assertEquals(hits + 1L, SampledHypergeometricDistributions.getCacheStatistics().hits());
+    }
 }
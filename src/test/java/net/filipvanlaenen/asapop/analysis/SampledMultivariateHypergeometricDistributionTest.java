@@ -4,13 +4,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 import org.junit.jupiter.api.Test;
 
-import net.filipvanlaenen.asapop.analysis.SampledMultivariateHypergeometricDistribution.WinnersRegister;
-
 /**
  * Unit tests on the <code>SampledMultivariateHypergeometricDistribution</code> class.
  */
@@ -44,33 +47,113 @@ public class SampledMultivariateHypergeometricDistributionTest {
      */
     private static final double LARGE_DELTA = 0.05;
     /**
-     * The magic number one quarter.
+     * The seed for the random number generators in the tests comparing the precision policies.
      */
-    private static final double ONE_QUARTER = 0.25D;
+    private static final long SEED = 42L;
+    /**
+     * Simulation settings using <code>DECIMAL128</code> and uniform sampling.
+     */
+    private static final SimulationSettings DECIMAL128_SETTINGS =
+            new SimulationSettings(PrecisionPolicy.DECIMAL128, SamplingStrategy.UNIFORM);
+    /**
+     * Simulation settings using doubles in logarithmic space and uniform sampling.
+     */
+    private static final SimulationSettings LOG_DOUBLE_SETTINGS =
+            new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM);
+    /**
+     * Simulation settings using <code>DECIMAL128</code> and importance sampling.
+     */
+    private static final SimulationSettings DECIMAL128_IMPORTANCE_SAMPLING_SETTINGS =
+            new SimulationSettings(PrecisionPolicy.DECIMAL128, SamplingStrategy.IMPORTANCE);
+    /**
+     * Simulation settings using doubles in logarithmic space and importance sampling.
+     */
+    private static final SimulationSettings LOG_DOUBLE_IMPORTANCE_SAMPLING_SETTINGS =
+            new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.IMPORTANCE);
+    /**
+     * The convergence tolerance in the tests on the convergence-driven simulations.
+     */
+    private static final double CONVERGENCE_TOLERANCE = 0.002D;
+    /**
+     * Simulation settings using doubles in logarithmic space, uniform sampling and a convergence tolerance.
+     */
+    private static final SimulationSettings CONVERGENCE_DRIVEN_SETTINGS =
+            new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, CONVERGENCE_TOLERANCE);
+    /**
+     * The maximal number of iterations in the tests on the convergence-driven simulations.
+     */
+    private static final long MAXIMAL_NUMBER_OF_ITERATIONS = 1_000_000L;
     /**
-     * The magic number 0.32.
+     * Simulation settings using doubles in logarithmic space, uniform sampling and a seed.
      */
-    private static final double DOUBLE_0_32 = 0.32D;
+    private static final SimulationSettings SEEDED_SETTINGS =
+            new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, 0D, SEED);
+    /**
+     * Simulation settings using doubles in logarithmic space, uniform sampling and a Sobol sampler.
+     */
+    private static final SimulationSettings SOBOL_SETTINGS =
+            new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, 0D, null, SamplerType.SOBOL);
+    /**
+     * Simulation settings using doubles in logarithmic space, importance sampling and a Sobol sampler.
+     */
+    private static final SimulationSettings SOBOL_IMPORTANCE_SAMPLING_SETTINGS = new SimulationSettings(
+            PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.IMPORTANCE, 0D, null, SamplerType.SOBOL);
+    /**
+     * The margin of error between an exact calculation and a seeded simulation.
+     */
+    private static final double EXACT_CALCULATION_DELTA = 0.01D;
+    /**
+     * The number of seeded runs over which the variance of a simulation is estimated.
+     */
+    private static final int NUMBER_OF_RUNS = 10;
+    /**
+     * The largest number of significant digits a <code>BigDecimal</code> converted from a double can have.
+     */
+    private static final int DOUBLE_DIGITS = 17;
+    /**
+     * The number of worker threads in the tests on the multi-threaded simulations.
+     */
+    private static final int NUMBER_OF_WORKERS = 4;
+    /**
+     * The magic number one tenth.
+     */
+    private static final double ONE_TENTH = 0.1D;
+    /**
+     * The magic number one quarter.
+     */
+    private static final double ONE_QUARTER = 0.25D;
     /**
      * The magic number one third.
      */
     private static final double ONE_THIRD = 0.333333333D;
     /**
-     * The magic number 0.34.
+     * The magic number 0.37.
      */
-    private static final double DOUBLE_0_34 = 0.34D;
+    private static final double DOUBLE_0_37 = 0.37D;
     /**
-     * The magic number 0.36.
+     * The magic number 0.45.
      */
-    private static final double DOUBLE_0_36 = 0.36D;
+    private static final double DOUBLE_0_45 = 0.45D;
     /**
      * The magic number one half.
      */
     private static final double ONE_HALF = 0.5D;
     /**
-     * The magic number one three.
+     * The magic number ten.
+     */
+    private static final long TEN = 10L;
+    /**
+     * The magic number twenty.
+     */
+    private static final long TWENTY = 20L;
+    /**
+     * The magic number thirty.
      */
-    private static final long THREE = 3L;
+    private static final long THIRTY = 30L;
+    /**
+     * The magic number ninety-nine.
+     */
+    private static final long NINETY_NINE = 99L;
     /**
      * The magic number one hundred.
      */
@@ -87,6 +170,18 @@ public class SampledMultivariateHypergeometricDistributionTest {
      * The magic number three hundred one.
      */
     private static final long THREE_HUNDRED_ONE = 301L;
+    /**
+     * The magic number three hundred thirty-four.
+     */
+    private static final long THREE_HUNDRED_THIRTY_FOUR = 334L;
+    /**
+     * The magic number four hundred seventy.
+     */
+    private static final long FOUR_HUNDRED_SEVENTY = 470L;
+    /**
+     * The magic number four hundred eighty.
+     */
+    private static final long FOUR_HUNDRED_EIGHTY = 480L;
     /**
      * The magic number four hundred ninety-nine.
      */
@@ -190,7 +285,7 @@ public class SampledMultivariateHypergeometricDistributionTest {
      */
     @Test
     public void twoCandidatesWithSupportOfAlmostFiftyPercentShouldHaveSlightlyLessThanOneHalfToWin() {
-        assertSingleWinnerProbabilityEquals(DOUBLE_0_34, LARGE_DELTA, 0, FOUR_HUNDRED_NINETY_NINE,
+        assertSingleWinnerProbabilityEquals(DOUBLE_0_45, LARGE_DELTA, 0, FOUR_HUNDRED_NINETY_NINE,
                 FOUR_HUNDRED_NINETY_NINE);
     }
 
@@ -200,7 +295,7 @@ public class SampledMultivariateHypergeometricDistributionTest {
      */
     @Test
     public void twoCandidatesWithSupportOfAlmostFiftyPercentShouldHaveALowProbabilityNotToWin() {
-        assertPairProbabilityEquals(DOUBLE_0_32, LARGE_DELTA, 0, 1, FOUR_HUNDRED_NINETY_NINE, FOUR_HUNDRED_NINETY_NINE);
+        assertPairProbabilityEquals(ONE_TENTH, LARGE_DELTA, 0, 1, FOUR_HUNDRED_NINETY_NINE, FOUR_HUNDRED_NINETY_NINE);
     }
 
     /**
@@ -255,7 +350,7 @@ public class SampledMultivariateHypergeometricDistributionTest {
      */
     @Test
     public void twoLargestOfThreeCandidatesWithTheAlmostSameSupportShouldHaveAProbabilityAboveOneThird() {
-        assertPairProbabilityEquals(DOUBLE_0_36, LARGE_DELTA, 0, 1, THREE_HUNDRED_ONE, THREE_HUNDRED,
+        assertPairProbabilityEquals(DOUBLE_0_37, LARGE_DELTA, 0, 1, THREE_HUNDRED_ONE, THREE_HUNDRED,
                 TWO_HUNDRED_NINETY_NINE);
     }
 
@@ -264,10 +359,194 @@ public class SampledMultivariateHypergeometricDistributionTest {
      */
     @Test
     public void manySmallCandidatesShouldNotDisturbTheCalculationForTheLargeCandidates() {
-        assertPairProbabilityEquals(DOUBLE_0_36, LARGE_DELTA, 0, 1, THREE_HUNDRED_ONE, THREE_HUNDRED,
+        assertPairProbabilityEquals(DOUBLE_0_37, LARGE_DELTA, 0, 1, THREE_HUNDRED_ONE, THREE_HUNDRED,
                 TWO_HUNDRED_NINETY_NINE, 1L, 1L, 1L, 1L, 1L, 1L, 1L, 1L, 1L, 1L);
     }
 
+    /**
+     * Verifies that when the medians of the candidates add up to more than the population size, the simulation still
+     * runs. With three candidates at 334 in a sample size of 1,000, the medians add up to about 10,020 in a population
+     * of 10,001, which would result in a sample value of -2 for others.
+     */
+    @Test
+    public void threeCandidatesWithMediansAddingUpToMoreThanThePopulationSizeShouldEachHaveAProbabilityOfOneThird() {
+        assertPairProbabilityEquals(ONE_THIRD, SMALL_DELTA, 0, 1, THREE_HUNDRED_THIRTY_FOUR,
+                THREE_HUNDRED_THIRTY_FOUR, THREE_HUNDRED_THIRTY_FOUR);
+    }
+
+    /**
+     * Verifies that the simulations using <code>DECIMAL64</code> produce the same probabilities as the simulations
+     * using <code>DECIMAL128</code> when the same seed is used.
+     */
+    @Test
+    public void decimal64PolicyShouldProduceTheSameProbabilitiesAsDecimal128() {
+        assertPrecisionPolicyMatchesDecimal128(PrecisionPolicy.DECIMAL64);
+    }
+
+    /**
+     * Verifies that the simulations using doubles in logarithmic space produce the same probabilities as the
+     * simulations using <code>DECIMAL128</code> when the same seed is used.
+     */
+    @Test
+    public void logDoublePolicyShouldProduceTheSameProbabilitiesAsDecimal128() {
+        assertPrecisionPolicyMatchesDecimal128(PrecisionPolicy.LOG_DOUBLE);
+    }
+
+    /**
+     * Verifies that the simulations are reproducible for a fixed seed and number of worker threads.
+     */
+    @Test
+    public void multiThreadedSimulationsShouldBeReproducibleForAFixedSeedAndNumberOfWorkers() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution first = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS, DECIMAL128_SETTINGS,
+                new SplittableRandom(SEED), NUMBER_OF_WORKERS);
+        SampledMultivariateHypergeometricDistribution second = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS, DECIMAL128_SETTINGS,
+                new SplittableRandom(SEED), NUMBER_OF_WORKERS);
+        for (SampledHypergeometricDistribution pmf1 : probabilityMassFunctions) {
+            assertEquals(first.getProbabilityMass(pmf1), second.getProbabilityMass(pmf1));
+            for (SampledHypergeometricDistribution pmf2 : probabilityMassFunctions) {
+                assertEquals(first.getProbabilityMass(pmf1, pmf2), second.getProbabilityMass(pmf1, pmf2));
+            }
+        }
+    }
+
+    /**
+     * Verifies that the multi-threaded simulations perform the requested number of iterations and produce the expected
+     * probabilities.
+     */
+    @Test
+    public void multiThreadedSimulationsShouldProduceTheExpectedProbabilities() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS + 1L, DECIMAL128_SETTINGS, new SplittableRandom(SEED),
+                        NUMBER_OF_WORKERS);
+        assertEquals(DOUBLE_0_37, multivariateDistribution.getProbabilityMass(probabilityMassFunctions.get(0),
+                probabilityMassFunctions.get(1)), LARGE_DELTA);
+        assertEquals(NUMBER_OF_ITERATIONS + 1L, multivariateDistribution.getNumberOfIterations());
+    }
+
+    /**
+     * Verifies that the multi-threaded simulations using doubles produce the same probabilities as the multi-threaded
+     * simulations using <code>DECIMAL128</code> when the same seed is used, i.e. that the references of the workers
+     * are merged correctly.
+     */
+    @Test
+    public void multiThreadedLogDoublePolicyShouldProduceTheSameProbabilitiesAsDecimal128() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution expected = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS, DECIMAL128_SETTINGS,
+                new SplittableRandom(SEED), NUMBER_OF_WORKERS);
+        SampledMultivariateHypergeometricDistribution actual = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS, LOG_DOUBLE_SETTINGS,
+                new SplittableRandom(SEED), NUMBER_OF_WORKERS);
+        for (SampledHypergeometricDistribution pmf1 : probabilityMassFunctions) {
+            assertEquals(expected.getProbabilityMass(pmf1), actual.getProbabilityMass(pmf1), SMALL_DELTA);
+            for (SampledHypergeometricDistribution pmf2 : probabilityMassFunctions) {
+                assertEquals(expected.getProbabilityMass(pmf1, pmf2), actual.getProbabilityMass(pmf1, pmf2),
+                        SMALL_DELTA);
+            }
+        }
+    }
+
+    /**
+     * Verifies that the default number of worker threads is one for a small number of iterations.
+     */
+    @Test
+    public void defaultNumberOfWorkersShouldBeOneForASmallNumberOfIterations() {
+        assertEquals(1, SampledMultivariateHypergeometricDistribution.calculateNumberOfWorkers(NUMBER_OF_ITERATIONS));
+    }
+
+    /**
+     * Verifies that the number of worker threads for seeded simulations is capped at a fixed number, independent of
+     * the number of available processors.
+     */
+    @Test
+    public void numberOfWorkersForSeededSimulationsShouldBeCappedAtAFixedNumber() {
+        long maximalNumberOfWorkers =
+                SampledMultivariateHypergeometricDistribution.MAXIMAL_NUMBER_OF_WORKERS_FOR_SEEDED_SIMULATIONS;
+        assertEquals(maximalNumberOfWorkers, SampledMultivariateHypergeometricDistribution
+                .calculateNumberOfWorkers(MAXIMAL_NUMBER_OF_ITERATIONS * maximalNumberOfWorkers, SEEDED_SETTINGS));
+    }
+
+    /**
+     * Verifies that two simulations with seeded settings produce the same probabilities.
+     */
+    @Test
+    public void seededSimulationsShouldBeReproducible() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        int numberOfWorkers = SampledMultivariateHypergeometricDistribution
+                .calculateNumberOfWorkers(MAXIMAL_NUMBER_OF_ITERATIONS, SEEDED_SETTINGS);
+        SampledMultivariateHypergeometricDistribution expected = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, MAXIMAL_NUMBER_OF_ITERATIONS, SEEDED_SETTINGS,
+                SEEDED_SETTINGS.createRandom(), numberOfWorkers);
+        SampledMultivariateHypergeometricDistribution actual = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, MAXIMAL_NUMBER_OF_ITERATIONS, SEEDED_SETTINGS,
+                SEEDED_SETTINGS.createRandom(), numberOfWorkers);
+        for (SampledHypergeometricDistribution pmf1 : probabilityMassFunctions) {
+            for (SampledHypergeometricDistribution pmf2 : probabilityMassFunctions) {
+                assertEquals(expected.getProbabilityMass(pmf1, pmf2), actual.getProbabilityMass(pmf1, pmf2));
+            }
+        }
+    }
+
+    /**
+     * Verifies that the logarithm of zero is negative infinity.
+     */
+    @Test
+    public void logarithmOfZeroShouldBeNegativeInfinity() {
+        assertEquals(Double.NEGATIVE_INFINITY, SampledMultivariateHypergeometricDistribution.log(BigDecimal.ZERO));
+    }
+
+    /**
+     * Verifies that the logarithm of a number beyond the range of a double is calculated correctly.
+     */
+    @Test
+    public void logarithmOfAVeryLargeNumberShouldBeCalculatedCorrectly() {
+        assertEquals(THREE_HUNDRED * 2D * Math.log(10D),
+                SampledMultivariateHypergeometricDistribution.log(BigDecimal.TEN.pow((int) (THREE_HUNDRED * 2L))),
+                SMALL_DELTA);
+    }
+
+    /**
+     * Verifies that the logarithm of a small fraction is calculated correctly.
+     */
+    @Test
+    public void logarithmOfASmallFractionShouldBeCalculatedCorrectly() {
+        assertEquals(Math.log(ONE_QUARTER),
+                SampledMultivariateHypergeometricDistribution.log(new BigDecimal(ONE_QUARTER)), SMALL_DELTA);
+    }
+
+    /**
+     * Asserts that a precision policy produces the same probabilities as <code>DECIMAL128</code> for three candidates
+     * with almost the same support, using the same seed for both simulations.
+     *
+     * @param precisionPolicy The precision policy to compare with <code>DECIMAL128</code>.
+     */
+    private void assertPrecisionPolicyMatchesDecimal128(final PrecisionPolicy precisionPolicy) {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution expected = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS, DECIMAL128_SETTINGS,
+                new SplittableRandom(SEED), 1);
+        SampledMultivariateHypergeometricDistribution actual = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS,
+                new SimulationSettings(precisionPolicy, SamplingStrategy.UNIFORM), new SplittableRandom(SEED), 1);
+        for (SampledHypergeometricDistribution pmf1 : probabilityMassFunctions) {
+            for (SampledHypergeometricDistribution pmf2 : probabilityMassFunctions) {
+                assertEquals(expected.getProbabilityMass(pmf1, pmf2), actual.getProbabilityMass(pmf1, pmf2),
+                        SMALL_DELTA);
+            }
+        }
+        assertEquals(NUMBER_OF_ITERATIONS, actual.getNumberOfIterations());
+    }
+
     /**
      * Asserts the probability of a pair of candidates to be equal within a given delta. Asserts also that the number of
      * iterations is set correctly.
@@ -310,6 +589,30 @@ public class SampledMultivariateHypergeometricDistributionTest {
         assertEquals(NUMBER_OF_ITERATIONS, multivariateDistribution.getNumberOfIterations());
     }
 
+    /**
+     * Calculates the variance of the probability that the first two probability mass functions are the pair with the
+     * largest values over a number of seeded runs.
+     *
+     * @param probabilityMassFunctions The probability mass functions.
+     * @param settings                 The settings for the simulations.
+     * @return The variance of the probability over the runs.
+     */
+    private static double calculateVarianceOfThePairProbability(
+            final List<SampledHypergeometricDistribution> probabilityMassFunctions,
+            final SimulationSettings settings) {
+        double sum = 0D;
+        double sumOfSquares = 0D;
+        for (int seed = 0; seed < NUMBER_OF_RUNS; seed++) {
+            double probability = new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions,
+                    POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS, settings, new SplittableRandom(seed), 1)
+                    .getProbabilityMass(probabilityMassFunctions.get(0), probabilityMassFunctions.get(1));
+            sum += probability;
+            sumOfSquares += probability * probability;
+        }
+        double mean = sum / NUMBER_OF_RUNS;
+        return sumOfSquares / NUMBER_OF_RUNS - mean * mean;
+    }
+
     /**
      * Creates a list of probability mass functions based on a set of values.
      *
@@ -362,125 +665,298 @@ public class SampledMultivariateHypergeometricDistributionTest {
     }
 
     /**
-     * Verifies that a range is set to be the largest right after initialization.
+     * Verifies that a sampled multivariate hypergeometric distribution is not equal to null.
+     */
+    @Test
+    public void aSampledMultivariateHypergeometricDistributionShouldNotBeEqualToNull() {
+        assertFalse(MULTIVARIATE_DISTRIBUTION.equals(null));
+    }
+
+    /**
+     * Verifies that a sampled multivariate hypergeometric distribution is not equal to an object of another class, like
+     * a string.
+     */
+    @Test
+    public void aSampledMultivariateHypergeometricDistributionShouldNotBeEqualToAString() {
+        assertFalse(MULTIVARIATE_DISTRIBUTION.equals(""));
+    }
+
+    /**
+     * Verifies that a sampled multivariate hypergeometric distribution is equal to itself.
      */
     @Test
-    public void firstRangeAfterInitializationShouldBeSetAsLargest() {
-        WinnersRegister winnersRegister = new WinnersRegister();
-        winnersRegister.initialize();
-        winnersRegister.update(new Range(0L, 1L), 0);
-        assertEquals(0, winnersRegister.getIndexOfLargestRange());
-        assertEquals(new Range(0L, 1L), winnersRegister.getLargestRange());
+    public void aSampledMultivariateHypergeometricDistributionShouldBeEqualToItself() {
+        assertTrue(MULTIVARIATE_DISTRIBUTION.equals(MULTIVARIATE_DISTRIBUTION));
     }
 
     /**
-     * Verifies that when the second range is larger than the first, the second range is set as the largest, and the
-     * first one as the second largest range.
+     * Verifies that calling hashCode twice on a sampled multivariate hypergeometric distribution returns the same
+     * result.
      */
     @Test
-    public void largerSecondRangeShouldBeSetAsLargest() {
-        WinnersRegister winnersRegister = new WinnersRegister();
-        winnersRegister.initialize();
-        winnersRegister.update(new Range(0L, 1L), 0);
-        winnersRegister.update(new Range(2L, THREE), 1);
-        assertEquals(1, winnersRegister.getIndexOfLargestRange());
-        assertEquals(new Range(2L, THREE), winnersRegister.getLargestRange());
-        assertEquals(0, winnersRegister.getIndexOfSecondLargestRange());
+    public void callingHashCodeTwiceOnASampledMultivariateHypergeometricDistributionReturnsTheSameResult() {
+        assertEquals(MULTIVARIATE_DISTRIBUTION.hashCode(), MULTIVARIATE_DISTRIBUTION.hashCode());
     }
 
     /**
-     * Verifies that when the second range is equal to the first, it is set as the second largest range.
+     * Verifies that the simulations using importance sampling perform the requested number of iterations and produce
+     * the expected probabilities.
      */
     @Test
-    public void equalSecondRangeShouldBeSetAsSecondLargest() {
-        WinnersRegister winnersRegister = new WinnersRegister();
-        winnersRegister.initialize();
-        winnersRegister.update(new Range(0L, 1L), 0);
-        winnersRegister.update(new Range(0L, 1L), 1);
-        assertEquals(0, winnersRegister.getIndexOfLargestRange());
-        assertEquals(new Range(0L, 1L), winnersRegister.getLargestRange());
-        assertEquals(1, winnersRegister.getIndexOfSecondLargestRange());
+    public void importanceSamplingShouldProduceTheExpectedProbabilities() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS + 1L, LOG_DOUBLE_IMPORTANCE_SAMPLING_SETTINGS,
+                        new SplittableRandom(SEED), NUMBER_OF_WORKERS);
+        assertEquals(DOUBLE_0_37, multivariateDistribution.getProbabilityMass(probabilityMassFunctions.get(0),
+                probabilityMassFunctions.get(1)), LARGE_DELTA);
+        assertEquals(NUMBER_OF_ITERATIONS + 1L, multivariateDistribution.getNumberOfIterations());
     }
 
     /**
-     * Verifies that when the third range is largest, it is set as the largest, and the formerly largest is set as the
-     * second largest.
+     * Verifies that the simulations using importance sampling produce probabilities close to the exact calculation.
      */
     @Test
-    public void largerThirdRangeShouldBeSetAsLargest() {
-        WinnersRegister winnersRegister = new WinnersRegister();
-        winnersRegister.initialize();
-        winnersRegister.update(new Range(0L, 1L), 0);
-        winnersRegister.update(new Range(0L, 1L), 1);
-        winnersRegister.update(new Range(2L, THREE), 2);
-        assertEquals(2, winnersRegister.getIndexOfLargestRange());
-        assertEquals(new Range(2L, THREE), winnersRegister.getLargestRange());
-        assertEquals(0, winnersRegister.getIndexOfSecondLargestRange());
+    public void importanceSamplingShouldProduceProbabilitiesCloseToTheExactCalculation() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(FOUR_HUNDRED_NINETY_NINE, FOUR_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution exactDistribution =
+                SampledMultivariateHypergeometricDistribution.calculateExactly(probabilityMassFunctions,
+                        POPULATION_SIZE, SAMPLE_SIZE, SimulationSettings.DEFAULT);
+        SampledMultivariateHypergeometricDistribution simulatedDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS, LOG_DOUBLE_IMPORTANCE_SAMPLING_SETTINGS,
+                        new SplittableRandom(SEED), 1);
+        assertEquals(exactDistribution.getProbabilityMass(probabilityMassFunctions.get(0)),
+                simulatedDistribution.getProbabilityMass(probabilityMassFunctions.get(0)), EXACT_CALCULATION_DELTA);
+        assertEquals(
+                exactDistribution.getProbabilityMass(probabilityMassFunctions.get(0), probabilityMassFunctions.get(1)),
+                simulatedDistribution.getProbabilityMass(probabilityMassFunctions.get(0),
+                        probabilityMassFunctions.get(1)),
+                EXACT_CALCULATION_DELTA);
     }
 
     /**
-     * Verifies that when the third range is equal to the largest, but larger to the second largest, it is set as the
-     * second largest range.
+     * Verifies that the simulations using a Sobol sampler produce the expected probabilities.
      */
     @Test
-    public void equalThirdRangeLargestThanSecondShouldBeSetAsSecond() {
-        WinnersRegister winnersRegister = new WinnersRegister();
-        winnersRegister.initialize();
-        winnersRegister.update(new Range(2L, THREE), 0);
-        winnersRegister.update(new Range(0L, 1L), 1);
-        winnersRegister.update(new Range(2L, THREE), 2);
-        assertEquals(0, winnersRegister.getIndexOfLargestRange());
-        assertEquals(new Range(2L, THREE), winnersRegister.getLargestRange());
-        assertEquals(2, winnersRegister.getIndexOfSecondLargestRange());
+    public void sobolSamplerShouldProduceTheExpectedProbabilities() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS, SOBOL_SETTINGS, new SplittableRandom(SEED),
+                        NUMBER_OF_WORKERS);
+        assertEquals(DOUBLE_0_37, multivariateDistribution.getProbabilityMass(probabilityMassFunctions.get(0),
+                probabilityMassFunctions.get(1)), LARGE_DELTA);
     }
 
     /**
-     * Verifies that when the third range is equal to the two first, it isn't retained.
+     * Verifies that the simulations using importance sampling and a Sobol sampler produce the expected probabilities.
      */
     @Test
-    public void equalThirdRangeShouldNotBeRetained() {
-        WinnersRegister winnersRegister = new WinnersRegister();
-        winnersRegister.initialize();
-        winnersRegister.update(new Range(0L, 1L), 0);
-        winnersRegister.update(new Range(0L, 1L), 1);
-        winnersRegister.update(new Range(0L, 1L), 2);
-        assertEquals(0, winnersRegister.getIndexOfLargestRange());
-        assertEquals(new Range(0L, 1L), winnersRegister.getLargestRange());
-        assertEquals(1, winnersRegister.getIndexOfSecondLargestRange());
+    public void importanceSamplingWithSobolSamplerShouldProduceTheExpectedProbabilities() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS, SOBOL_IMPORTANCE_SAMPLING_SETTINGS,
+                        new SplittableRandom(SEED), NUMBER_OF_WORKERS);
+        assertEquals(DOUBLE_0_37, multivariateDistribution.getProbabilityMass(probabilityMassFunctions.get(0),
+                probabilityMassFunctions.get(1)), LARGE_DELTA);
     }
 
     /**
-     * Verifies that a sampled multivariate hypergeometric distribution is not equal to null.
+     * Verifies that the simulations using importance sampling with doubles produce the same probabilities as the
+     * simulations using importance sampling with <code>DECIMAL128</code> when the same seed is used.
      */
     @Test
-    public void aSampledMultivariateHypergeometricDistributionShouldNotBeEqualToNull() {
-        assertFalse(MULTIVARIATE_DISTRIBUTION.equals(null));
+    public void importanceSamplingWithLogDoublePolicyShouldProduceTheSameProbabilitiesAsDecimal128() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution expected = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS,
+                DECIMAL128_IMPORTANCE_SAMPLING_SETTINGS, new SplittableRandom(SEED), 1);
+        SampledMultivariateHypergeometricDistribution actual = new SampledMultivariateHypergeometricDistribution(
+                probabilityMassFunctions, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS,
+                LOG_DOUBLE_IMPORTANCE_SAMPLING_SETTINGS, new SplittableRandom(SEED), 1);
+        for (SampledHypergeometricDistribution pmf1 : probabilityMassFunctions) {
+            assertEquals(expected.getProbabilityMass(pmf1), actual.getProbabilityMass(pmf1), SMALL_DELTA);
+            for (SampledHypergeometricDistribution pmf2 : probabilityMassFunctions) {
+                assertEquals(expected.getProbabilityMass(pmf1, pmf2), actual.getProbabilityMass(pmf1, pmf2),
+                        SMALL_DELTA);
+            }
+        }
     }
 
     /**
-     * Verifies that a sampled multivariate hypergeometric distribution is not equal to an object of another class, like
-     * a string.
+     * Verifies that the convergence-driven simulations for a clear-cut race stop before the maximal number of
+     * iterations, once the standard error is within the tolerance.
      */
     @Test
-    public void aSampledMultivariateHypergeometricDistributionShouldNotBeEqualToAString() {
-        assertFalse(MULTIVARIATE_DISTRIBUTION.equals(""));
+    public void convergenceDrivenSimulationsShouldStopEarlyForAClearCutRace() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(FOUR_HUNDRED_EIGHTY, FOUR_HUNDRED_SEVENTY, THIRTY, TWENTY);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, MAXIMAL_NUMBER_OF_ITERATIONS, CONVERGENCE_DRIVEN_SETTINGS,
+                        new SplittableRandom(SEED), 1);
+        assertTrue(multivariateDistribution.getNumberOfIterations() < MAXIMAL_NUMBER_OF_ITERATIONS);
+        assertEquals(0L, multivariateDistribution.getNumberOfIterations()
+                % SampledMultivariateHypergeometricDistribution.NUMBER_OF_ITERATIONS_PER_BATCH);
+        assertTrue(multivariateDistribution.getStandardError() <= CONVERGENCE_TOLERANCE);
     }
 
     /**
-     * Verifies that a sampled multivariate hypergeometric distribution is equal to itself.
+     * Verifies that the convergence-driven simulations don't exceed the maximal number of iterations if the tolerance
+     * can't be reached.
      */
     @Test
-    public void aSampledMultivariateHypergeometricDistributionShouldBeEqualToItself() {
-        assertTrue(MULTIVARIATE_DISTRIBUTION.equals(MULTIVARIATE_DISTRIBUTION));
+    public void convergenceDrivenSimulationsShouldNotExceedTheMaximalNumberOfIterations() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS + 1L, CONVERGENCE_DRIVEN_SETTINGS,
+                        new SplittableRandom(SEED), NUMBER_OF_WORKERS);
+        assertEquals(NUMBER_OF_ITERATIONS + 1L, multivariateDistribution.getNumberOfIterations());
+        assertTrue(multivariateDistribution.getStandardError() > CONVERGENCE_TOLERANCE);
     }
 
     /**
-     * Verifies that calling hashCode twice on a sampled multivariate hypergeometric distribution returns the same
-     * result.
+     * Verifies that the standard error is reported when the simulations run the requested number of iterations.
      */
     @Test
-    public void callingHashCodeTwiceOnASampledMultivariateHypergeometricDistributionReturnsTheSameResult() {
-        assertEquals(MULTIVARIATE_DISTRIBUTION.hashCode(), MULTIVARIATE_DISTRIBUTION.hashCode());
+    public void standardErrorShouldBeReportedForSimulationsWithoutConvergenceTolerance() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS);
+        assertTrue(multivariateDistribution.getStandardError() > 0D);
+        assertTrue(multivariateDistribution.getStandardError() < LARGE_DELTA);
+    }
+
+    /**
+     * Verifies that the standard error is zero when the probability masses are calculated without simulations.
+     */
+    @Test
+    public void standardErrorShouldBeZeroWithoutSimulations() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(SEVEN_HUNDRED, ONE_HUNDRED);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS);
+        assertEquals(0D, multivariateDistribution.getStandardError());
+    }
+
+    /**
+     * Verifies that the exact calculation produces probabilities close to the ones produced by the simulations.
+     */
+    @Test
+    public void exactCalculationShouldProduceProbabilitiesCloseToTheSimulations() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution exactDistribution =
+                SampledMultivariateHypergeometricDistribution.calculateExactly(probabilityMassFunctions,
+                        POPULATION_SIZE, SAMPLE_SIZE, SimulationSettings.DEFAULT);
+        SampledMultivariateHypergeometricDistribution simulatedDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, TEN * NUMBER_OF_ITERATIONS, SEEDED_SETTINGS, new SplittableRandom(SEED),
+                        NUMBER_OF_WORKERS);
+        for (int i = 1; i < probabilityMassFunctions.size(); i++) {
+            assertEquals(
+                    simulatedDistribution.getProbabilityMass(probabilityMassFunctions.get(0),
+                            probabilityMassFunctions.get(i)),
+                    exactDistribution.getProbabilityMass(probabilityMassFunctions.get(0),
+                            probabilityMassFunctions.get(i)),
+                    EXACT_CALCULATION_DELTA);
+        }
+    }
+
+    /**
+     * Verifies that the exact calculation has a standard error of zero, and the number of combinations as its number
+     * of iterations.
+     */
+    @Test
+    public void exactCalculationShouldHaveAStandardErrorOfZeroAndTheNumberOfCombinationsAsItsIterations() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution exactDistribution =
+                SampledMultivariateHypergeometricDistribution.calculateExactly(probabilityMassFunctions,
+                        POPULATION_SIZE, SAMPLE_SIZE, SimulationSettings.DEFAULT);
+        assertEquals(0D, exactDistribution.getStandardError());
+        assertEquals(
+                SampledMultivariateHypergeometricDistribution.calculateNumberOfCombinations(probabilityMassFunctions),
+                exactDistribution.getNumberOfIterations());
+    }
+
+    /**
+     * Verifies that the exact calculation, which enumerates the combinations in parallel, is reproducible.
+     */
+    @Test
+    public void exactCalculationShouldBeReproducible() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(FOUR_HUNDRED_NINETY_NINE, FOUR_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution expected =
+                SampledMultivariateHypergeometricDistribution.calculateExactly(probabilityMassFunctions,
+                        POPULATION_SIZE, SAMPLE_SIZE, SimulationSettings.DEFAULT);
+        SampledMultivariateHypergeometricDistribution actual =
+                SampledMultivariateHypergeometricDistribution.calculateExactly(probabilityMassFunctions,
+                        POPULATION_SIZE, SAMPLE_SIZE, SimulationSettings.DEFAULT);
+        assertEquals(expected.getProbabilityMass(probabilityMassFunctions.get(0)),
+                actual.getProbabilityMass(probabilityMassFunctions.get(0)));
+        assertEquals(expected.getProbabilityMass(probabilityMassFunctions.get(0), probabilityMassFunctions.get(1)),
+                actual.getProbabilityMass(probabilityMassFunctions.get(0), probabilityMassFunctions.get(1)));
+    }
+
+    /**
+     * Verifies that an exact calculation is marked as calculated exactly.
+     */
+    @Test
+    public void exactCalculationShouldBeMarkedAsCalculatedExactly() {
+        assertTrue(SampledMultivariateHypergeometricDistribution
+                .calculateExactly(
+                        createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE),
+                        POPULATION_SIZE, SAMPLE_SIZE, SimulationSettings.DEFAULT)
+                .isExactlyCalculated());
+    }
+
+    /**
+     * Verifies that simulations aren't marked as calculated exactly.
+     */
+    @Test
+    public void simulationsShouldNotBeMarkedAsCalculatedExactly() {
+        assertFalse(new SampledMultivariateHypergeometricDistribution(
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE),
+                POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS).isExactlyCalculated());
+    }
+
+    /**
+     * Verifies that the number of combinations is the largest long value if there are too many relevant probability
+     * mass functions for an exact calculation.
+     */
+    @Test
+    public void numberOfCombinationsShouldBeTheLargestLongValueForTooManyRelevantProbabilityMassFunctions() {
+        assertEquals(Long.MAX_VALUE,
+                SampledMultivariateHypergeometricDistribution.calculateNumberOfCombinations(
+                        createProbabilityMassFunctions(THREE_HUNDRED, THREE_HUNDRED, THREE_HUNDRED, THREE_HUNDRED,
+                                THREE_HUNDRED)));
+    }
+
+    /**
+     * Verifies that the number of combinations ignores the probability mass functions that aren't relevant.
+     */
+    @Test
+    public void numberOfCombinationsShouldIgnoreIrrelevantProbabilityMassFunctions() {
+        assertEquals(
+                SampledMultivariateHypergeometricDistribution.calculateNumberOfCombinations(
+                        createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE)),
+                SampledMultivariateHypergeometricDistribution.calculateNumberOfCombinations(
+                        createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE, 1L,
+                                1L)));
     }
 
     /**
@@ -550,4 +1026,217 @@ public class SampledMultivariateHypergeometricDistributionTest {
                 createProbabilityMassFunctions(FIVE_HUNDRED, THREE_HUNDRED, ONE_HUNDRED), POPULATION_SIZE, SAMPLE_SIZE,
                 NUMBER_OF_ITERATIONS + 1L).hashCode());
     }
+
+    /**
+     * Verifies that the outcomes for the pairs of relevant probability mass functions, including the pairs without a
+     * second relevant probability mass function, are distinct and fill the flat array after the single winners.
+     */
+    @Test
+    public void pairOutcomesShouldBeDistinctAndFollowTheSingleWinners() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS, LOG_DOUBLE_SETTINGS, new SplittableRandom(SEED), 1);
+        int n = probabilityMassFunctions.size();
+        Set<Integer> pairOutcomes = new HashSet<Integer>();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j <= n; j++) {
+                int pairOutcome = multivariateDistribution.calculatePairOutcome(i, j);
+                assertTrue(pairOutcome >= n && pairOutcome < multivariateDistribution.calculateNumberOfOutcomes());
+                pairOutcomes.add(pairOutcome);
+            }
+        }
+        assertEquals(multivariateDistribution.calculateNumberOfOutcomes() - n, pairOutcomes.size());
+    }
+
+    /**
+     * Verifies that the outcome for a pair of relevant probability mass functions doesn't depend on their order.
+     */
+    @Test
+    public void pairOutcomeShouldNotDependOnTheOrderOfThePair() {
+        assertEquals(MULTIVARIATE_DISTRIBUTION.calculatePairOutcome(0, 1),
+                MULTIVARIATE_DISTRIBUTION.calculatePairOutcome(1, 0));
+    }
+
+    /**
+     * Verifies that the probabilities of all single winners and all pairs of winners add up to one, i.e. that every
+     * iteration is accumulated in exactly one outcome.
+     */
+    @Test
+    public void probabilitiesOfAllOutcomesShouldAddUpToOne() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(probabilityMassFunctions, POPULATION_SIZE,
+                        SAMPLE_SIZE, NUMBER_OF_ITERATIONS, LOG_DOUBLE_SETTINGS, new SplittableRandom(SEED), 1);
+        double sum = 0D;
+        for (int i = 0; i < probabilityMassFunctions.size(); i++) {
+            sum += multivariateDistribution.getProbabilityMass(probabilityMassFunctions.get(i));
+            for (int j = i + 1; j < probabilityMassFunctions.size(); j++) {
+                sum += multivariateDistribution.getProbabilityMass(probabilityMassFunctions.get(i),
+                        probabilityMassFunctions.get(j));
+            }
+        }
+        assertEquals(1D, sum, MODERATE_DELTA);
+    }
+
+    /**
+     * Verifies that the simulation snapshot for uniform sampling lays out the ranges of the confidence intervals of the
+     * probability mass functions after each other, with their probability masses as their weights.
+     */
+    @Test
+    public void snapshotForUniformSamplingShouldLayOutTheConfidenceIntervalsAfterEachOther() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        SampledMultivariateHypergeometricDistribution.SimulationSnapshot snapshot =
+                new SampledMultivariateHypergeometricDistribution.SimulationSnapshot(probabilityMassFunctions, false,
+                        MathContext.DECIMAL128);
+        int offset = 0;
+        for (int i = 0; i < probabilityMassFunctions.size(); i++) {
+            SampledHypergeometricDistribution probabilityMassFunction = probabilityMassFunctions.get(i);
+            List<Range> ranges = probabilityMassFunction
+                    .getConfidenceIntervalKeyList(SampledMultivariateHypergeometricDistribution.SIX_NINES);
+            assertEquals(offset, snapshot.offsets[i]);
+            for (int j = 0; j < ranges.size(); j++) {
+                assertEquals(ranges.get(j).lowerBound(), snapshot.lowerBounds[offset + j]);
+                assertEquals(ranges.get(j).getMidpoint(), snapshot.midpoints[offset + j]);
+                assertEquals(probabilityMassFunction.getProbabilityMass(ranges.get(j)), snapshot.weights[offset + j]);
+            }
+            offset += ranges.size();
+        }
+        assertEquals(offset, snapshot.lowerBounds.length);
+    }
+
+    /**
+     * Verifies that the simulation snapshot using doubles holds the natural logarithms of the probability masses as
+     * the weights of the ranges.
+     */
+    @Test
+    public void snapshotWithDoublesShouldHoldTheLogarithmsOfTheProbabilityMasses() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(FIVE_HUNDRED, THREE_HUNDRED);
+        SampledMultivariateHypergeometricDistribution.SimulationSnapshot snapshot =
+                new SampledMultivariateHypergeometricDistribution.SimulationSnapshot(probabilityMassFunctions, false,
+                        null);
+        SampledHypergeometricDistribution probabilityMassFunction = probabilityMassFunctions.get(1);
+        Range range = probabilityMassFunction
+                .getConfidenceIntervalKeyList(SampledMultivariateHypergeometricDistribution.SIX_NINES).get(0);
+        double expected =
+                SampledMultivariateHypergeometricDistribution.log(probabilityMassFunction.getProbabilityMass(range));
+        assertEquals(expected, snapshot.logarithmicWeights[snapshot.offsets[1]]);
+    }
+
+    /**
+     * Verifies that the simulation snapshot for importance sampling covers all the ranges of the probability mass
+     * functions, draws uniformly from the ranges of the confidence intervals, and gives those ranges a finite weight.
+     */
+    @Test
+    public void snapshotForImportanceSamplingShouldCoverAllTheRanges() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(FIVE_HUNDRED, THREE_HUNDRED);
+        SampledMultivariateHypergeometricDistribution.SimulationSnapshot snapshot =
+                new SampledMultivariateHypergeometricDistribution.SimulationSnapshot(probabilityMassFunctions, true,
+                        null);
+        int offset = 0;
+        for (int i = 0; i < probabilityMassFunctions.size(); i++) {
+            SampledHypergeometricDistribution probabilityMassFunction = probabilityMassFunctions.get(i);
+            List<Range> ranges = probabilityMassFunction.getSortedKeys();
+            List<Range> confidenceIntervalRanges = probabilityMassFunction
+                    .getConfidenceIntervalKeyList(SampledMultivariateHypergeometricDistribution.SIX_NINES);
+            assertEquals(offset, snapshot.offsets[i]);
+            assertEquals(confidenceIntervalRanges.size(), snapshot.uniformSizes[i]);
+            assertEquals(confidenceIntervalRanges.get(0), ranges.get(snapshot.uniformOffsets[i]));
+            for (int j = 0; j < confidenceIntervalRanges.size(); j++) {
+                assertTrue(Double.isFinite(snapshot.logarithmicWeights[offset + snapshot.uniformOffsets[i] + j]));
+            }
+            offset += ranges.size();
+        }
+        assertEquals(offset, snapshot.lowerBounds.length);
+    }
+
+    /**
+     * Verifies that the weights for importance sampling calculated with <code>BigDecimal</code>s match the weights
+     * calculated in logarithmic space, but are calculated in the math context, with more digits than a double has.
+     */
+    @Test
+    public void snapshotForImportanceSamplingWithBigDecimalsShouldCalculateTheWeightsInTheMathContext() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(FIVE_HUNDRED, THREE_HUNDRED);
+        SampledMultivariateHypergeometricDistribution.SimulationSnapshot withDoubles =
+                new SampledMultivariateHypergeometricDistribution.SimulationSnapshot(probabilityMassFunctions, true,
+                        null);
+        SampledMultivariateHypergeometricDistribution.SimulationSnapshot withBigDecimals =
+                new SampledMultivariateHypergeometricDistribution.SimulationSnapshot(probabilityMassFunctions, true,
+                        MathContext.DECIMAL128);
+        int maximalPrecision = 0;
+        for (int j = 0; j < withBigDecimals.weights.length; j++) {
+            double logarithmicWeight = withDoubles.logarithmicWeights[j];
+            if (logarithmicWeight == Double.NEGATIVE_INFINITY) {
+                assertEquals(0, withBigDecimals.weights[j].signum());
+            } else {
+                assertEquals(1D, withBigDecimals.weights[j].doubleValue() / Math.exp(logarithmicWeight), SMALL_DELTA);
+                maximalPrecision = Math.max(maximalPrecision, withBigDecimals.weights[j].precision());
+            }
+        }
+        assertTrue(maximalPrecision > DOUBLE_DIGITS);
+    }
+
+    /**
+     * Verifies that importance sampling at least halves the standard deviation of uniform sampling for a close race,
+     * measured over a number of seeded runs with the same number of iterations.
+     */
+    @Test
+    public void importanceSamplingShouldHaveALowerVarianceThanUniformSamplingForACloseRace() {
+        List<SampledHypergeometricDistribution> probabilityMassFunctions =
+                createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE);
+        double uniformVariance = calculateVarianceOfThePairProbability(probabilityMassFunctions, LOG_DOUBLE_SETTINGS);
+        double importanceVariance = calculateVarianceOfThePairProbability(probabilityMassFunctions,
+                LOG_DOUBLE_IMPORTANCE_SAMPLING_SETTINGS);
+        assertTrue(2D * Math.sqrt(importanceVariance) < Math.sqrt(uniformVariance));
+    }
+
+    /**
+     * Verifies that the probability mass for a remainder is the probability mass of the range for others containing
+     * the remainder.
+     */
+    @Test
+    public void probabilityMassForARemainderShouldBeTheProbabilityMassOfTheRangeForOthersContainingIt() {
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(
+                        createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE),
+                        POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS, DECIMAL128_SETTINGS,
+                        new SplittableRandom(SEED), NUMBER_OF_WORKERS);
+        SampledHypergeometricDistribution probabilityMassFunctionForOthers =
+                SampledHypergeometricDistributions.get(NINETY_NINE, SAMPLE_SIZE, NUMBER_OF_SAMPLES, POPULATION_SIZE);
+        for (Range range : probabilityMassFunctionForOthers.getConfidenceIntervalKeyList(ONE_HALF)) {
+            BigDecimal expected = probabilityMassFunctionForOthers.getProbabilityMass(range);
+            assertEquals(expected, multivariateDistribution.getProbabilityMassForRemainder(range.lowerBound()));
+            assertEquals(expected, multivariateDistribution.getProbabilityMassForRemainder(range.upperBound()));
+        }
+    }
+
+    /**
+     * Verifies that the probability mass for a remainder outside of the ranges for others is zero.
+     */
+    @Test
+    public void probabilityMassForARemainderOutsideOfTheRangesForOthersShouldBeZero() {
+        SampledMultivariateHypergeometricDistribution multivariateDistribution =
+                new SampledMultivariateHypergeometricDistribution(
+                        createProbabilityMassFunctions(THREE_HUNDRED_ONE, THREE_HUNDRED, TWO_HUNDRED_NINETY_NINE),
+                        POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS);
+        assertEquals(BigDecimal.ZERO, multivariateDistribution.getProbabilityMassForRemainder(0L));
+        assertEquals(BigDecimal.ZERO, multivariateDistribution.getProbabilityMassForRemainder(POPULATION_SIZE));
+    }
+
+    /**
+     * Verifies that two sampled multivariate hypergeometric distributions with different sampling strategies are not
+     * equal.
+     */
+    @Test
+    public void twoSampledMultivariateHypergeometricDistributionsWithDifferentSamplingStrategiesShouldNotBeEqual() {
+        assertFalse(MULTIVARIATE_DISTRIBUTION.equals(new SampledMultivariateHypergeometricDistribution(
+                createProbabilityMassFunctions(FIVE_HUNDRED, THREE_HUNDRED, ONE_HUNDRED), POPULATION_SIZE, SAMPLE_SIZE,
+                NUMBER_OF_ITERATIONS, LOG_DOUBLE_IMPORTANCE_SAMPLING_SETTINGS, new SplittableRandom(), 1)));
+    }
 }
@@ -2,6 +2,8 @@ package net.filipvanlaenen.asapop.analysis;
 
 import static org.junit.Assert.assertSame;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +30,10 @@ public class SampledMultivariateHypergeometricDistributionsTest {
      * The population size of the polls.
      */
     private static final long POPULATION_SIZE = 10_001L;
+    /**
+     * A convergence tolerance that is reached after the first batch.
+     */
+    private static final double CONVERGENCE_TOLERANCE = 0.5D;
     /**
      * The magic number fifty.
      */
@@ -115,6 +121,69 @@ public class SampledMultivariateHypergeometricDistributionsTest {
                 .get(pmfs, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS - 1L).getNumberOfIterations());
     }
 
+    /**
+     * Verifies that it retrieves a cached sampled multivariate hypergeometric distribution that reached the convergence
+     * tolerance, even if it has fewer iterations than requested.
+     */
+    @Test
+    public void shouldRetrieveAConvergedSampledMultivariateHypergeometricDistributionWithFewerIterations() {
+        List<SampledHypergeometricDistribution> pmfs = createProbabilityMassFunctions(THREE_HUNDRED, TWO_HUNDRED,
+                ONE_HUNDRED, FIFTY, FIFTY, FIFTY);
+        SimulationSettings settings =
+                new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, CONVERGENCE_TOLERANCE);
+        SampledMultivariateHypergeometricDistribution converged = SampledMultivariateHypergeometricDistributions
+                .get(pmfs, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS, settings);
+        assertSame(converged, SampledMultivariateHypergeometricDistributions.get(pmfs, POPULATION_SIZE, SAMPLE_SIZE,
+                NUMBER_OF_ITERATIONS + 1L, settings));
+    }
+
+    /**
+     * Verifies that it doesn't reuse a distribution simulated with another seed, such that every recorded seed
+     * reproduces its own results.
+     */
+    @Test
+    public void shouldNotReuseADistributionSimulatedWithAnotherSeed() {
+        List<SampledHypergeometricDistribution> pmfs = createProbabilityMassFunctions(THREE_HUNDRED, TWO_HUNDRED,
+                FIFTY);
+        SampledMultivariateHypergeometricDistribution first = SampledMultivariateHypergeometricDistributions.get(pmfs,
+                POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS,
+                new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, 0D, 1L));
+        assertNotSame(first, SampledMultivariateHypergeometricDistributions.get(pmfs, POPULATION_SIZE, SAMPLE_SIZE,
+                NUMBER_OF_ITERATIONS, new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, 0D,
+                        2L)));
+    }
+
+    /**
+     * Verifies that it calculates the probability masses exactly when that's cheaper than the simulations, and reuses
+     * the exact result for any number of iterations.
+     */
+    @Test
+    public void shouldCalculateExactlyWhenCheaperThanTheSimulations() {
+        List<SampledHypergeometricDistribution> pmfs = createProbabilityMassFunctions(THREE_HUNDRED, THREE_HUNDRED,
+                TWO_HUNDRED);
+        long numberOfCombinations = SampledMultivariateHypergeometricDistribution.calculateNumberOfCombinations(pmfs);
+        SampledMultivariateHypergeometricDistribution exact =
+                SampledMultivariateHypergeometricDistributions.get(pmfs, POPULATION_SIZE, SAMPLE_SIZE,
+                        numberOfCombinations);
+        assertEquals(0D, exact.getStandardError());
+        assertEquals(numberOfCombinations, exact.getNumberOfIterations());
+        assertSame(exact, SampledMultivariateHypergeometricDistributions.get(pmfs, POPULATION_SIZE, SAMPLE_SIZE,
+                numberOfCombinations + 1L));
+    }
+
+    /**
+     * Verifies that it runs the simulations when they are cheaper than an exact calculation.
+     */
+    @Test
+    public void shouldSimulateWhenCheaperThanAnExactCalculation() {
+        List<SampledHypergeometricDistribution> pmfs = createProbabilityMassFunctions(THREE_HUNDRED, TWO_HUNDRED,
+                TWO_HUNDRED);
+        assertFalse(SampledMultivariateHypergeometricDistributions.isExactCalculationCheaper(pmfs,
+                NUMBER_OF_ITERATIONS));
+        assertEquals(NUMBER_OF_ITERATIONS, SampledMultivariateHypergeometricDistributions
+                .get(pmfs, POPULATION_SIZE, SAMPLE_SIZE, NUMBER_OF_ITERATIONS).getNumberOfIterations());
+    }
+
     /**
      * Creates a list of probability mass functions based on a set of values.
      *
@@ -0,0 +1,103 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>SamplerReport</code> class.
+ */
+public class SamplerReportTest {
+    /**
+     * The maximal number of iterations per simulation.
+     */
+    private static final long MAXIMAL_NUMBER_OF_ITERATIONS = 4_000L;
+    /**
+     * The tolerance on the standard deviations of the probabilities.
+     */
+    private static final double TOLERANCE = 0.02D;
+    /**
+     * The number of samples in the hypergeometric distributions.
+     */
+    private static final long NUMBER_OF_SAMPLES = 1_000L;
+    /**
+     * The sample size for the poll.
+     */
+    private static final long SAMPLE_SIZE = 1_000L;
+    /**
+     * The population size for the poll.
+     */
+    private static final long POPULATION_SIZE = 10_001L;
+    /**
+     * The seed for the random number generators.
+     */
+    private static final long SEED = 42L;
+    /**
+     * The magic number three hundred.
+     */
+    private static final long THREE_HUNDRED = 300L;
+    /**
+     * The magic number four hundred.
+     */
+    private static final long FOUR_HUNDRED = 400L;
+    /**
+     * The report to run the tests on.
+     */
+    private static SamplerReport report;
+
+    /**
+     * Creates the report to run the tests on.
+     */
+    @BeforeAll
+    public static void createReport() {
+        report = new SamplerReport(MAXIMAL_NUMBER_OF_ITERATIONS, TOLERANCE, SEED);
+        report.add(List.of(
+                SampledHypergeometricDistributions.get(FOUR_HUNDRED, SAMPLE_SIZE, NUMBER_OF_SAMPLES, POPULATION_SIZE),
+                SampledHypergeometricDistributions.get(THREE_HUNDRED, SAMPLE_SIZE, NUMBER_OF_SAMPLES, POPULATION_SIZE),
+                SampledHypergeometricDistributions.get(THREE_HUNDRED, SAMPLE_SIZE, NUMBER_OF_SAMPLES,
+                        POPULATION_SIZE)),
+                POPULATION_SIZE, SAMPLE_SIZE);
+    }
+
+    /**
+     * Verifies that the report contains an entry for each type of sampler.
+     */
+    @Test
+    public void reportShouldContainAnEntryForEachSamplerType() {
+        assertEquals(SamplerType.values().length, report.getEntries().size());
+    }
+
+    /**
+     * Verifies that the report counts the simulations.
+     */
+    @Test
+    public void reportShouldCountTheSimulations() {
+        assertEquals(1, report.getNumberOfSimulations());
+    }
+
+    /**
+     * Verifies that the number of iterations to reach the tolerance is within the maximal number of iterations.
+     */
+    @Test
+    public void numberOfIterationsToToleranceShouldBeWithinTheMaximalNumberOfIterations() {
+        for (SamplerReport.Entry entry : report.getEntries()) {
+            assertTrue(entry.numberOfIterationsToTolerance() >= SamplerReport.INITIAL_NUMBER_OF_ITERATIONS);
+            assertTrue(entry.numberOfIterationsToTolerance() <= MAXIMAL_NUMBER_OF_ITERATIONS);
+        }
+    }
+
+    /**
+     * Verifies that the report is rendered with a line for each type of sampler.
+     */
+    @Test
+    public void toStringShouldRenderALineForEachSamplerType() {
+        String actual = report.toString();
+        for (SamplerType samplerType : SamplerType.values()) {
+            assertTrue(actual.contains(samplerType.name()));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>SamplerType</code> class.
+ */
+public class SamplerTypeTest {
+    /**
+     * The seed for the random number generator.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Verifies that the pseudo-random sampler type creates a pseudo-random sampler.
+     */
+    @Test
+    public void pseudoRandomShouldCreateAPseudoRandomSampler() {
+        assertTrue(
+                SamplerType.PSEUDO_RANDOM.createSampler(2, new SplittableRandom(SEED)) instanceof PseudoRandomSampler);
+    }
+
+    /**
+     * Verifies that the Sobol sampler type creates a Sobol sampler.
+     */
+    @Test
+    public void sobolShouldCreateASobolSampler() {
+        assertTrue(SamplerType.SOBOL.createSampler(2, new SplittableRandom(SEED)) instanceof SobolSampler);
+    }
+}
@@ -0,0 +1,75 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>SimulationSettings</code> class.
+ */
+public class SimulationSettingsTest {
+    /**
+     * The magic number 0.001.
+     */
+    private static final double ONE_PERMILLE = 0.001D;
+    /**
+     * The seed for the random number generators.
+     */
+    private static final long SEED = 42L;
+    /**
+     * Simulation settings with a seed.
+     */
+    private static final SimulationSettings SEEDED_SETTINGS =
+            new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, 0D, SEED);
+
+    /**
+     * Verifies that the settings created without a convergence tolerance have a convergence tolerance of zero.
+     */
+    @Test
+    public void settingsWithoutConvergenceToleranceShouldHaveConvergenceToleranceZero() {
+        assertEquals(0D, SimulationSettings.DEFAULT.convergenceTolerance());
+    }
+
+    /**
+     * Verifies that the settings without a convergence tolerance are not convergence driven.
+     */
+    @Test
+    public void settingsWithoutConvergenceToleranceShouldNotBeConvergenceDriven() {
+        assertFalse(SimulationSettings.DEFAULT.isConvergenceDriven());
+    }
+
+    /**
+     * Verifies that the settings with a convergence tolerance are convergence driven.
+     */
+    @Test
+    public void settingsWithConvergenceToleranceShouldBeConvergenceDriven() {
+        assertTrue(new SimulationSettings(PrecisionPolicy.LOG_DOUBLE, SamplingStrategy.UNIFORM, ONE_PERMILLE)
+                .isConvergenceDriven());
+    }
+
+    /**
+     * Verifies that the default settings use <code>DECIMAL128</code> precision.
+     */
+    @Test
+    public void defaultSettingsShouldUseDecimal128Precision() {
+        assertEquals(PrecisionPolicy.DECIMAL128, SimulationSettings.DEFAULT.precisionPolicy());
+    }
+
+    /**
+     * Verifies that the default settings use a pseudo-random sampler.
+     */
+    @Test
+    public void defaultSettingsShouldUseAPseudoRandomSampler() {
+        assertEquals(SamplerType.PSEUDO_RANDOM, SimulationSettings.DEFAULT.samplerType());
+    }
+
+    /**
+     * Verifies that the random number generators created by seeded settings produce the same numbers.
+     */
+    @Test
+    public void randomNumberGeneratorsCreatedBySeededSettingsShouldProduceTheSameNumbers() {
+        assertEquals(SEEDED_SETTINGS.createRandom().nextLong(), SEEDED_SETTINGS.createRandom().nextLong());
+    }
+}
@@ -0,0 +1,223 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>SingleFlightCache</code> class.
+ */
+public class SingleFlightCacheTest {
+    /**
+     * The magic number three.
+     */
+    private static final int THREE = 3;
+    /**
+     * The number of threads requesting the same key at the same time.
+     */
+    private static final int NUMBER_OF_THREADS = 8;
+    /**
+     * The magic number ten.
+     */
+    private static final long TEN = 10L;
+
+    /**
+     * Verifies that a value is computed by the supplier when the key isn't in the cache yet.
+     */
+    @Test
+    public void shouldComputeTheValueForANewKey() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        assertEquals(1, cache.get("a", () -> 1));
+    }
+
+    /**
+     * Verifies that a cached value is returned without calling the supplier again.
+     */
+    @Test
+    public void shouldReturnTheCachedValueWithoutComputingItAgain() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        AtomicInteger numberOfComputations = new AtomicInteger();
+        cache.get("a", () -> numberOfComputations.incrementAndGet());
+        cache.get("a", () -> numberOfComputations.incrementAndGet());
+        assertEquals(1, numberOfComputations.get());
+    }
+
+    /**
+     * Verifies that a cached value that isn't sufficient is replaced by a new value.
+     */
+    @Test
+    public void shouldReplaceAnInsufficientValue() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        cache.get("a", () -> 1);
+        assertEquals(2, cache.get("a", v -> v >= 2, () -> 2));
+        assertEquals(2, cache.get("a", () -> THREE));
+    }
+
+    /**
+     * Verifies that a cached value that is sufficient is returned, even if it's larger than requested.
+     */
+    @Test
+    public void shouldReturnASufficientValue() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        cache.get("a", () -> THREE);
+        assertEquals(THREE, cache.get("a", v -> v >= 2, () -> 2));
+    }
+
+    /**
+     * Verifies that a failed computation is thrown, and that the key is computed again on the next request.
+     */
+    @Test
+    public void shouldComputeAgainAfterAFailedComputation() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        assertThrows(IllegalStateException.class, () -> cache.get("a", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(1, cache.get("a", () -> 1));
+    }
+
+    /**
+     * Verifies that concurrent requests for the same key wait on a single computation.
+     *
+     * @throws InterruptedException If the test is interrupted.
+     * @throws ExecutionException   If a request fails.
+     */
+    @Test
+    public void concurrentRequestsForTheSameKeyShouldShareOneComputation()
+            throws InterruptedException, ExecutionException {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        AtomicInteger numberOfComputations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return cache.get("a", () -> {
+                    try {
+                        Thread.sleep(THREE);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return numberOfComputations.incrementAndGet();
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> future : futures) {
+            assertEquals(1, future.get());
+        }
+        executorService.shutdown();
+        assertEquals(1, numberOfComputations.get());
+    }
+
+    /**
+     * Verifies that the maximal weight is unbounded by default.
+     */
+    @Test
+    public void maximalWeightShouldBeUnboundedByDefault() {
+        assertEquals(Long.MAX_VALUE, new SingleFlightCache<String, Integer>().getMaximalWeight());
+    }
+
+    /**
+     * Verifies that the getter method <code>getMaximalWeight</code> is wired correctly to the setter method
+     * <code>setMaximalWeight</code>.
+     */
+    @Test
+    public void setMaximalWeightShouldBeWiredCorrectlyToGetMaximalWeight() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        cache.setMaximalWeight(TEN);
+        assertEquals(TEN, cache.getMaximalWeight());
+    }
+
+    /**
+     * Verifies that hits and misses are counted.
+     */
+    @Test
+    public void shouldCountHitsAndMisses() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        cache.get("a", () -> 1);
+        cache.get("a", () -> 1);
+        cache.get("a", () -> 1);
+        cache.get("b", () -> 2);
+        assertEquals(new CacheStatistics(2L, 2L, 0L, 2L, 2L), cache.getStatistics());
+    }
+
+    /**
+     * Verifies that the weight of the values is estimated by the weigher, and that a replaced value no longer counts.
+     */
+    @Test
+    public void shouldAddUpTheWeightsOfTheValues() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>(v -> v * TEN);
+        cache.get("a", () -> 1);
+        cache.get("b", () -> 2);
+        cache.get("b", v -> v >= THREE, () -> THREE);
+        assertEquals(4L * TEN, cache.getStatistics().weight());
+    }
+
+    /**
+     * Verifies that the least recently used value is evicted when the cache gets too heavy.
+     */
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedValue() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        cache.setMaximalWeight(2L);
+        cache.get("a", () -> 1);
+        cache.get("b", () -> 2);
+        cache.get("a", () -> 1);
+        cache.get("c", () -> THREE);
+        AtomicInteger numberOfComputations = new AtomicInteger();
+        cache.get("a", () -> numberOfComputations.incrementAndGet());
+        assertEquals(0, numberOfComputations.get());
+        cache.get("b", () -> numberOfComputations.incrementAndGet());
+        assertEquals(1, numberOfComputations.get());
+    }
+
+    /**
+     * Verifies that evictions are counted, and that the cache stays within its maximal weight.
+     */
+    @Test
+    public void shouldCountEvictions() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        cache.setMaximalWeight(2L);
+        cache.get("a", () -> 1);
+        cache.get("b", () -> 2);
+        cache.get("c", () -> THREE);
+        cache.get("d", () -> 4);
+        assertEquals(new CacheStatistics(0L, 4L, 2L, 2L, 2L), cache.getStatistics());
+    }
+
+    /**
+     * Verifies that a value heavier than the maximal weight is kept until the next value is added.
+     */
+    @Test
+    public void shouldKeepAValueHeavierThanTheMaximalWeight() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>(v -> v * TEN);
+        cache.setMaximalWeight(TEN);
+        cache.get("a", () -> 2);
+        assertEquals(new CacheStatistics(0L, 1L, 0L, 1L, 2L * TEN), cache.getStatistics());
+    }
+
+    /**
+     * Verifies that lowering the maximal weight evicts the least recently used values immediately.
+     */
+    @Test
+    public void loweringTheMaximalWeightShouldEvictValues() {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<String, Integer>();
+        cache.get("a", () -> 1);
+        cache.get("b", () -> 2);
+        cache.get("c", () -> THREE);
+        cache.setMaximalWeight(1L);
+        assertEquals(new CacheStatistics(0L, THREE, 2L, 1L, 1L), cache.getStatistics());
+        assertEquals(THREE, cache.get("c", () -> 0));
+    }
+}
@@ -0,0 +1,99 @@
+package net.filipvanlaenen.asapop.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the <code>SobolSampler</code> class.
+ */
+public class SobolSamplerTest {
+    /**
+     * The seed for the random number generator.
+     */
+    private static final long SEED = 42L;
+    /**
+     * The number of strata per dimension.
+     */
+    private static final int NUMBER_OF_STRATA = 16;
+    /**
+     * The number of dimensions beyond the ones covered by the Sobol sequence.
+     */
+    private static final int NUMBER_OF_EXTRA_DIMENSIONS = 4;
+
+    /**
+     * Verifies that for every dimension, the first points fall each into a different stratum of equal width.
+     */
+    @Test
+    public void firstPointsShouldFallIntoDifferentStrataInEveryDimension() {
+        int numberOfDimensions = SobolSampler.MAXIMAL_NUMBER_OF_DIMENSIONS;
+        SobolSampler sampler = new SobolSampler(numberOfDimensions, new SplittableRandom(SEED));
+        int[][] counts = new int[numberOfDimensions][NUMBER_OF_STRATA];
+        double[] point = new double[numberOfDimensions];
+        for (int i = 0; i < NUMBER_OF_STRATA; i++) {
+            sampler.next(point);
+            for (int d = 0; d < numberOfDimensions; d++) {
+                counts[d][(int) (point[d] * NUMBER_OF_STRATA)]++;
+            }
+        }
+        for (int d = 0; d < numberOfDimensions; d++) {
+            for (int s = 0; s < NUMBER_OF_STRATA; s++) {
+                assertEquals(1, counts[d][s]);
+            }
+        }
+    }
+
+    /**
+     * Verifies that the first points fall each into a different square of a grid on the first two dimensions.
+     */
+    @Test
+    public void firstPointsShouldFallIntoDifferentSquaresOnTheFirstTwoDimensions() {
+        int side = (int) Math.sqrt(NUMBER_OF_STRATA);
+        SobolSampler sampler = new SobolSampler(2, new SplittableRandom(SEED));
+        int[][] counts = new int[side][side];
+        double[] point = new double[2];
+        for (int i = 0; i < NUMBER_OF_STRATA; i++) {
+            sampler.next(point);
+            counts[(int) (point[0] * side)][(int) (point[1] * side)]++;
+        }
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                assertEquals(1, counts[x][y]);
+            }
+        }
+    }
+
+    /**
+     * Verifies that the dimensions beyond the ones covered by the Sobol sequence are filled with numbers in the
+     * interval [0, 1).
+     */
+    @Test
+    public void dimensionsBeyondTheSobolSequenceShouldBeFilledWithNumbersBetweenZeroAndOne() {
+        int numberOfDimensions = SobolSampler.MAXIMAL_NUMBER_OF_DIMENSIONS + NUMBER_OF_EXTRA_DIMENSIONS;
+        SobolSampler sampler = new SobolSampler(numberOfDimensions, new SplittableRandom(SEED));
+        double[] point = new double[numberOfDimensions];
+        sampler.next(point);
+        for (int d = SobolSampler.MAXIMAL_NUMBER_OF_DIMENSIONS; d < numberOfDimensions; d++) {
+            assertTrue(point[d] >= 0D && point[d] < 1D);
+        }
+    }
+
+    /**
+     * Verifies that two samplers with equally seeded random number generators produce the same points.
+     */
+    @Test
+    public void samplersWithEquallySeededRandomNumberGeneratorsShouldProduceTheSamePoints() {
+        SobolSampler sampler1 = new SobolSampler(2, new SplittableRandom(SEED));
+        SobolSampler sampler2 = new SobolSampler(2, new SplittableRandom(SEED));
+        double[] point1 = new double[2];
+        double[] point2 = new double[2];
+        for (int i = 0; i < NUMBER_OF_STRATA; i++) {
+            sampler1.next(point1);
+            sampler2.next(point2);
+            assertEquals(point1[1], point2[1]);
+        }
+    }
+}
@@ -1,12 +1,9 @@
 package net.filipvanlaenen.asapop.analysis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
-import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -71,35 +68,6 @@ public class SortableProbabilityMassFunctionTest {
      * The range from 640 to 649.
      */
     private static final Range RANGE_640_649 = new Range(640L, 649L);
-    /**
-     * Test object to run the tests on.
-     */
-    private static final SortableProbabilityMassFunction<Integer> TEST_OBJECT =
-            new TestSubclass(Map.of(1, BigDecimal.ONE));
-
-    /**
-     * Local subclass for <code>SortableProbabilityMassFunction</code> for testing purposes.
-     */
-    private static final class TestSubclass extends SortableProbabilityMassFunction<Integer> {
-        /**
-         * Constructor taking a map with the probability mass function using integers as key.
-         *
-         * @param pmf A map with the probability mass function.
-         */
-        private TestSubclass(final Map<Integer, BigDecimal> pmf) {
-            super(pmf);
-        }
-
-        @Override
-        BigDecimal getKeyWeight(final Integer key) {
-            return null;
-        }
-
-        @Override
-        public BigDecimal getProbabilityMass(final Integer key) {
-            return null;
-        }
-    }
 
     /**
      * Verifies that all keys are returned when requested.
@@ -159,21 +127,24 @@ public class SortableProbabilityMassFunctionTest {
     }
 
     /**
-     * Verifies that the 81% confidence interval key list [0, 1, 2] is calculated correctly for a hypergeometric
-     * distribution of 0 out of 8 in a population of 9.
+     * Verifies that a confidence interval is calculated once, and then returned from the map with calculated confidence
+     * intervals.
      */
     @Test
-    public void confidenceInterval81KeyListShouldBe0To2ForHypergeometricDistribution0OutOf8In9() {
+    public void confidenceIntervalShouldBeCalculatedOnce() {
         HypergeometricDistribution binomialDistribution = new HypergeometricDistribution(0L, EIGHT, NINE);
-        assertEquals(List.of(0L, 1L, 2L), binomialDistribution.getConfidenceIntervalKeyList(EIGHTY_ONE_PERCENT));
+        assertSame(binomialDistribution.getConfidenceInterval(EIGHTY_ONE_PERCENT),
+                binomialDistribution.getConfidenceInterval(EIGHTY_ONE_PERCENT));
     }
 
     /**
-     * Verifies that the number of samples is returned correctly.
+     * Verifies that the 81% confidence interval key list [0, 1, 2] is calculated correctly for a hypergeometric
+     * distribution of 0 out of 8 in a population of 9.
      */
     @Test
-    public void numberOfSamplesShouldBeEqualToTheSizeOfTheMap() {
-        assertEquals(1L, TEST_OBJECT.getNumberOfSamples());
+    public void confidenceInterval81KeyListShouldBe0To2ForHypergeometricDistribution0OutOf8In9() {
+        HypergeometricDistribution binomialDistribution = new HypergeometricDistribution(0L, EIGHT, NINE);
+        assertEquals(List.of(0L, 1L, 2L), binomialDistribution.getConfidenceIntervalKeyList(EIGHTY_ONE_PERCENT));
     }
 
     /**
@@ -185,71 +156,4 @@ public class SortableProbabilityMassFunctionTest {
                 new SampledHypergeometricDistribution(TEN, TWENTY, HUNDRED, THOUSAND)
                         .getConfidenceInterval(EIGHTY_PERCENT));
     }
-
-    /**
-     * Verifies that a sortable probability mass function is not equal to null.
-     */
-    @Test
-    public void aSortableProbabilityMassFunctionShouldNotBeEqualToNull() {
-        assertFalse(TEST_OBJECT.equals(null));
-    }
-
-    /**
-     * Verifies that a sortable probability mass function is not equal to an object of another class, like a string.
-     */
-    @Test
-    public void aSortableProbabilityMassFunctionShouldNotBeEqualToAString() {
-        assertFalse(TEST_OBJECT.equals(""));
-    }
-
-    /**
-     * Verifies that a sortable probability mass function is equal to itself.
-     */
-    @Test
-    public void aSortableProbabilityMassFunctionShouldBeEqualToItself() {
-        assertTrue(TEST_OBJECT.equals(TEST_OBJECT));
-    }
-
-    /**
-     * Verifies that calling hashCode twice on a sortable probability mass function returns the same result.
-     */
-    @Test
-    public void callingHashCodeTwiceOnASortableProbabilityMassFunctionReturnsTheSameResult() {
-        assertEquals(TEST_OBJECT.hashCode(), TEST_OBJECT.hashCode());
-    }
-
-    /**
-     * Verifies that two sortable probability mass functions constructed with the same parameter are equal.
-     */
-    @Test
-    public void twoSortableProbabilityMassFunctionsConstructedWithTheSameParameterShouldBeEqual() {
-        assertEquals(TEST_OBJECT, new TestSubclass(Map.of(1, BigDecimal.ONE)));
-    }
-
-    /**
-     * Verifies that two sortable probability mass functions constructed with the same parameters return the same
-     * hashCode.
-     */
-    @Test
-    public void twoSortableProbabilityMassFunctionsConstructedWithTheSameParametersShouldHaveTheSameHashCode() {
-        assertEquals(TEST_OBJECT.hashCode(), new TestSubclass(Map.of(1, BigDecimal.ONE)).hashCode());
-    }
-
-    /**
-     * Verifies that two different sortable probability mass functions with different values are not equal.
-     */
-    @Test
-    public void twoDifferentSortableProbabilityMassFunctionsWithDifferentValuesShouldNotBeEqual() {
-        assertFalse(TEST_OBJECT.equals(new TestSubclass(Map.of(0, BigDecimal.ONE, 1, BigDecimal.ONE))));
-    }
-
-    /**
-     * Verifies that two different sortable probability mass functions with different values have different hash codes.
-     */
-    @Test
-    public void twoDifferentSortableProbabilityMassFunctionsWithDifferentValuesShouldHaveDifferentHashCodes() {
-        assertFalse(
-                TEST_OBJECT.hashCode() == new TestSubclass(Map.of(0, BigDecimal.ONE, 1, BigDecimal.ONE)).hashCode());
-    }
-
 }
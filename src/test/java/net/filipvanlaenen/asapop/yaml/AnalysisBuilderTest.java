@@ -30,6 +30,10 @@ public class AnalysisBuilderTest {
      * The magic number two thousand.
      */
     private static final long ONE_THOUSAND = 1000L;
+    /**
+     * The seed for the simulations.
+     */
+    private static final long SEED = 42L;
     /**
      * The magic number eighty.
      */
@@ -157,7 +161,7 @@ public class AnalysisBuilderTest {
         ElectionData electionData = new ElectionData();
         electionData.setPopulationSize(POPULATION_SIZE);
         AnalysisEngine engine = new AnalysisEngine(opinionPolls, electionData);
-        engine.run(ONE_THOUSAND, ONE_THOUSAND);
+        engine.run(ONE_THOUSAND, ONE_THOUSAND, SEED);
         AnalysisBuilder builder = new AnalysisBuilder(engine);
         analysis = builder.build();
         if (analysis != null && analysis.getOpinionPollAnalyses() != null) {
@@ -200,6 +204,14 @@ public class AnalysisBuilderTest {
         assertNotNull(analysis);
     }
 
+    /**
+     * Verifies that the seed of the analysis engine is written to the analysis.
+     */
+    @Test
+    public void seedShouldBeWrittenToTheAnalysis() {
+        assertEquals(SEED, analysis.getSeed());
+    }
+
     /**
      * Verifies that the set with opinion poll analyses objects is built by the builder.
      */
@@ -347,6 +359,34 @@ public class AnalysisBuilderTest {
         assertEquals(Scope.EUROPEAN.toString(), alternativeResponseScenarioAnalysis.getScope());
     }
 
+    /**
+     * Verifies that in full coverage mode, the analysis builder sets the result analyses of an alternative response
+     * scenario.
+     */
+    @Test
+    public void buildingAFullCoverageAnalysisShouldSetTheResultAnalysesOfAnAlternativeResponseScenario() {
+        OpinionPoll opinionPoll = new OpinionPollTestBuilder().setSampleSize("1000")
+                .setPollingFirm(POLLING_FIRM_NAME_PARLIAMENT).setScope(Scope.NATIONAL)
+                .addResult(ELECTORAL_LIST_AA001, new ResultValue("40")).build();
+        opinionPoll.addAlternativeResponseScenario(new ResponseScenario.Builder().setScope(Scope.EUROPEAN)
+                .addResult(ELECTORAL_LIST_AA002, new ResultValue("30")).build());
+        ElectionData electionData = new ElectionData();
+        electionData.setPopulationSize(POPULATION_SIZE);
+        AnalysisEngine engine = new AnalysisEngine(new OpinionPolls(Set.of(opinionPoll)), electionData);
+        engine.setFullCoverage(true);
+        engine.run(ONE_THOUSAND, ONE_THOUSAND, SEED);
+        Analysis fullCoverageAnalysis = new AnalysisBuilder(engine).build();
+        ResponseScenarioAnalysis alternativeAnalysis = null;
+        for (ResponseScenarioAnalysis rsa : fullCoverageAnalysis.getOpinionPollAnalyses().iterator().next()
+                .getResponseScenarioAnalyses()) {
+            if (Scope.EUROPEAN.toString().equals(rsa.getScope())) {
+                alternativeAnalysis = rsa;
+            }
+        }
+        assertNotNull(alternativeAnalysis);
+        assertNotNull(alternativeAnalysis.getResultAnalyses().get(Set.of("AA002")));
+    }
+
     /**
      * Verifies that the analysis builder sets the probability mass for a direct winner of the first round.
      */
@@ -10,6 +10,11 @@ import org.junit.jupiter.api.Test;
  * Unit tests on the <code>Analysis</code> class.
  */
 public class AnalysisTest {
+    /**
+     * The seed used for the simulations.
+     */
+    private static final Long SEED = 42L;
+
     /**
      * Verifies that the getter method <code>getOpinionPollAnalyses</code> is wired correctly to the setter method
      * <code>setOpinionPollAnalyses</code>.
@@ -21,4 +26,15 @@ public class AnalysisTest {
         analysis.setOpinionPollAnalyses(opinionPollAnalyses);
         assertEquals(opinionPollAnalyses, analysis.getOpinionPollAnalyses());
     }
+
+    /**
+     * Verifies that the getter method <code>getSeed</code> is wired correctly to the setter method
+     * <code>setSeed</code>.
+     */
+    @Test
+    public void getSeedShouldBeWiredCorrectlyToSetSeed() {
+        Analysis analysis = new Analysis();
+        analysis.setSeed(SEED);
+        assertEquals(SEED, analysis.getSeed());
+    }
 }
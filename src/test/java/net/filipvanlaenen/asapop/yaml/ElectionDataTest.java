@@ -1,6 +1,7 @@
 package net.filipvanlaenen.asapop.yaml;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -8,6 +9,33 @@ import org.junit.jupiter.api.Test;
  * Unit tests on the <code>ElectionData</code> class.
  */
 public class ElectionDataTest {
+    /**
+     * The magic number 0.01.
+     */
+    private static final double ONE_PERCENT = 0.01D;
+
+    /**
+     * Verifies that the getter method <code>getAdaptiveRangeGrid</code> is wired correctly to the setter method
+     * <code>setAdaptiveRangeGrid</code>.
+     */
+    @Test
+    public void getAdaptiveRangeGridShouldBeWiredCorrectlyToSetAdaptiveRangeGrid() {
+        ElectionData electionData = new ElectionData();
+        electionData.setAdaptiveRangeGrid(true);
+        assertTrue(electionData.getAdaptiveRangeGrid());
+    }
+
+    /**
+     * Verifies that the getter method <code>getConvergenceTolerance</code> is wired correctly to the setter method
+     * <code>setConvergenceTolerance</code>.
+     */
+    @Test
+    public void getConvergenceToleranceShouldBeWiredCorrectlyToSetConvergenceTolerance() {
+        ElectionData electionData = new ElectionData();
+        electionData.setConvergenceTolerance(ONE_PERCENT);
+        assertEquals(ONE_PERCENT, electionData.getConvergenceTolerance());
+    }
+
     /**
      * Verifies that the getter method <code>getElectoralSystem</code> is wired correctly to the setter method
      * <code>setElectoralSystem</code>.
@@ -30,4 +58,15 @@ public class ElectionDataTest {
         electionData.setPopulationSize(2L);
         assertEquals(2L, electionData.getPopulationSize());
     }
+
+    /**
+     * Verifies that the getter method <code>getMaximalApproximationError</code> is wired correctly to the setter
+     * method <code>setMaximalApproximationError</code>.
+     */
+    @Test
+    public void getMaximalApproximationErrorShouldBeWiredCorrectlyToSetMaximalApproximationError() {
+        ElectionData electionData = new ElectionData();
+        electionData.setMaximalApproximationError(ONE_PERCENT);
+        assertEquals(ONE_PERCENT, electionData.getMaximalApproximationError());
+    }
 }
@@ -10,6 +10,26 @@ import org.junit.jupiter.api.Test;
  * Unit tests on the <code>FirstRoundAnalysis</code> class.
  */
 public class FirstRoundAnalysisTest {
+    /**
+     * The magic number one million.
+     */
+    private static final long ONE_MILLION = 1_000_000L;
+    /**
+     * The magic number 0.1.
+     */
+    private static final double ONE_TENTH = 0.1D;
+
+    /**
+     * Verifies that the getter method <code>getNumberOfIterations</code> is wired correctly to the setter method
+     * <code>setNumberOfIterations</code>.
+     */
+    @Test
+    public void getNumberOfIterationsShouldBeWiredCorrectlyToSetNumberOfIterations() {
+        FirstRoundAnalysis firstRoundAnalysis = new FirstRoundAnalysis();
+        firstRoundAnalysis.setNumberOfIterations(ONE_MILLION);
+        assertEquals(ONE_MILLION, firstRoundAnalysis.getNumberOfIterations());
+    }
+
     /**
      * Verifies that the getter method <code>getProbabilityMassFunction</code> is wired correctly to the setter method
      * <code>setProbabilityMassFunction</code>.
@@ -22,4 +42,15 @@ public class FirstRoundAnalysisTest {
         firstRoundAnalysis.setProbabilityMassFunction(probabilityMassFunction);
         assertEquals(probabilityMassFunction, firstRoundAnalysis.getProbabilityMassFunction());
     }
+
+    /**
+     * Verifies that the getter method <code>getStandardError</code> is wired correctly to the setter method
+     * <code>setStandardError</code>.
+     */
+    @Test
+    public void getStandardErrorShouldBeWiredCorrectlyToSetStandardError() {
+        FirstRoundAnalysis firstRoundAnalysis = new FirstRoundAnalysis();
+        firstRoundAnalysis.setStandardError(ONE_TENTH);
+        assertEquals(ONE_TENTH, firstRoundAnalysis.getStandardError());
+    }
 }